@@ -0,0 +1,37 @@
+package com.scuse.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+// 运行全部基准测试, 附带 GC 分析器 (分配速率), 结果写成 JSON 便于在版本之间对比.
+// 用法: java -jar benchmarks.jar [结果文件] [JMH 命令行参数...], 结果文件默认为 jmh-result.json
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        String resultFile = "jmh-result.json";
+        String[] jmhArgs = args;
+        if (args.length > 0 && args[0].endsWith(".json")) {
+            resultFile = args[0];
+            jmhArgs = Arrays.copyOfRange(args, 1, args.length);
+        }
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include("com\\.scuse\\.benchmarks\\..*");
+        }
+        Options options = builder
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
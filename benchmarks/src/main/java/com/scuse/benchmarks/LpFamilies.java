@@ -0,0 +1,201 @@
+package com.scuse.benchmarks;
+
+import com.scuse.model.ConstraintEquation;
+import com.scuse.model.MathModel;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// 基准测试用的线性规划实例族, 同样的参数和种子总是生成同一个模型
+public class LpFamilies {
+    public enum Family {
+        DENSE,          // 稠密随机 max c^T x, Ax <= b
+        TRANSPORTATION, // 平衡运输问题, 稀疏
+        ASSIGNMENT,     // 指派问题, 高度退化的稀疏等式约束
+        DEGENERATE,     // 一半约束右端项为 0, 原点处高度退化
+        KLEE_MINTY      // Klee-Minty 立方体, Dantzig 规则需要 2^n - 1 次迭代
+    }
+
+    public enum Size {
+        SMALL,
+        MEDIUM,
+        LARGE
+    }
+
+    private LpFamilies() {
+    }
+
+    public static MathModel generate(Family family, Size size, long seed) {
+        int scale = size.ordinal(); // 0, 1, 2
+        switch (family) {
+            case DENSE:
+                return dense(new int[]{20, 100, 300}[scale], new int[]{30, 150, 400}[scale], seed);
+            case TRANSPORTATION:
+                return transportation(new int[]{10, 30, 60}[scale], new int[]{10, 40, 80}[scale], seed);
+            case ASSIGNMENT:
+                return assignment(new int[]{10, 30, 60}[scale], seed);
+            case DEGENERATE:
+                return degenerate(new int[]{20, 60, 150}[scale], seed);
+            case KLEE_MINTY:
+                return kleeMinty(new int[]{6, 10, 14}[scale]);
+            default:
+                throw new IllegalArgumentException("Unknown family " + family);
+        }
+    }
+
+    // max c^T x, Ax <= b, 系数为正保证有界, b 使原点可行
+    public static MathModel dense(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        MathModel model = newModel(cols, "Maximize");
+        double[] cost = new double[cols];
+        for (int j = 0; j < cols; j++) {
+            cost[j] = 1 + random.nextInt(20);
+        }
+        model.getObjectiveFunction().setCoefficients(cost);
+        for (int i = 0; i < rows; i++) {
+            double[] row = new double[cols];
+            for (int j = 0; j < cols; j++) {
+                row[j] = 1 + random.nextInt(50);
+            }
+            ConstraintEquation constraint = new ConstraintEquation();
+            constraint.setCoefficients(row);
+            constraint.setConstant(100 + random.nextInt(1000) * cols);
+            constraint.setSign("<=");
+            model.addConstraint(constraint);
+        }
+        return model;
+    }
+
+    // min sum c_ij x_ij, 每个产地的运出量 <= 产量, 每个销地的运入量 >= 销量, 总产量等于总销量
+    public static MathModel transportation(int sources, int sinks, long seed) {
+        Random random = new Random(seed);
+        int n = sources * sinks;
+        MathModel model = newModel(n, "Minimize");
+        double[] cost = new double[n];
+        for (int j = 0; j < n; j++) {
+            cost[j] = 1 + random.nextInt(100);
+        }
+        model.getObjectiveFunction().setCoefficients(cost);
+
+        int[] supply = new int[sources];
+        int[] demand = new int[sinks];
+        int total = 0;
+        for (int s = 0; s < sources; s++) {
+            supply[s] = 10 + random.nextInt(90);
+            total += supply[s];
+        }
+        for (int t = 0; t < sinks; t++) {
+            demand[t] = total / sinks + (t < total % sinks ? 1 : 0);
+        }
+        for (int s = 0; s < sources; s++) {
+            int[] indices = new int[sinks];
+            for (int t = 0; t < sinks; t++) {
+                indices[t] = s * sinks + t;
+            }
+            model.addConstraint(new ConstraintEquation(n, indices, ones(sinks), supply[s], "<="));
+        }
+        for (int t = 0; t < sinks; t++) {
+            int[] indices = new int[sources];
+            for (int s = 0; s < sources; s++) {
+                indices[s] = s * sinks + t;
+            }
+            model.addConstraint(new ConstraintEquation(n, indices, ones(sources), demand[t], ">="));
+        }
+        return model;
+    }
+
+    // min sum c_ij x_ij, 每行每列恰好指派一次
+    public static MathModel assignment(int size, long seed) {
+        Random random = new Random(seed);
+        int n = size * size;
+        MathModel model = newModel(n, "Minimize");
+        double[] cost = new double[n];
+        for (int j = 0; j < n; j++) {
+            cost[j] = 1 + random.nextInt(100);
+        }
+        model.getObjectiveFunction().setCoefficients(cost);
+        for (int i = 0; i < size; i++) {
+            int[] indices = new int[size];
+            for (int k = 0; k < size; k++) {
+                indices[k] = i * size + k;
+            }
+            model.addConstraint(new ConstraintEquation(n, indices, ones(size), 1, "="));
+        }
+        for (int k = 0; k < size; k++) {
+            int[] indices = new int[size];
+            for (int i = 0; i < size; i++) {
+                indices[i] = i * size + k;
+            }
+            model.addConstraint(new ConstraintEquation(n, indices, ones(size), 1, "="));
+        }
+        return model;
+    }
+
+    // max c^T x, 一半约束为 a^T x <= 0 (都经过原点), 另一半为 a^T x <= b, 再加 sum x <= n 保证有界
+    public static MathModel degenerate(int n, long seed) {
+        Random random = new Random(seed);
+        MathModel model = newModel(n, "Maximize");
+        double[] cost = new double[n];
+        for (int j = 0; j < n; j++) {
+            cost[j] = random.nextInt(10) - 2;
+        }
+        model.getObjectiveFunction().setCoefficients(cost);
+        for (int i = 0; i < n; i++) {
+            double[] row = new double[n];
+            for (int j = 0; j < n; j++) {
+                if (random.nextInt(3) == 0) {
+                    row[j] = random.nextInt(11) - 5;
+                }
+            }
+            ConstraintEquation constraint = new ConstraintEquation();
+            constraint.setCoefficients(row);
+            constraint.setConstant(i % 2 == 0 ? 0 : 1 + random.nextInt(10));
+            constraint.setSign("<=");
+            model.addConstraint(constraint);
+        }
+        double[] all = new double[n];
+        Arrays.fill(all, 1);
+        ConstraintEquation box = new ConstraintEquation();
+        box.setCoefficients(all);
+        box.setConstant(n);
+        box.setSign("<=");
+        model.addConstraint(box);
+        return model;
+    }
+
+    // max sum 2^(n-j) x_j, s.t. 2 sum_{j<i} 2^(i-j) x_j + x_i <= 5^i
+    public static MathModel kleeMinty(int n) {
+        MathModel model = newModel(n, "Maximize");
+        double[] cost = new double[n];
+        for (int j = 0; j < n; j++) {
+            cost[j] = Math.pow(2, n - 1 - j);
+        }
+        model.getObjectiveFunction().setCoefficients(cost);
+        for (int i = 0; i < n; i++) {
+            double[] row = new double[n];
+            for (int j = 0; j < i; j++) {
+                row[j] = Math.pow(2, i - j + 1);
+            }
+            row[i] = 1;
+            ConstraintEquation constraint = new ConstraintEquation();
+            constraint.setCoefficients(row);
+            constraint.setConstant(Math.pow(5, i + 1));
+            constraint.setSign("<=");
+            model.addConstraint(constraint);
+        }
+        return model;
+    }
+
+    private static MathModel newModel(int numVariables, String optimization) {
+        MathModel model = new MathModel();
+        model.getObjectiveFunction().setCoefficients(new double[numVariables]);
+        model.getObjectiveFunction().setOptimizationType(optimization);
+        return model;
+    }
+
+    private static double[] ones(int length) {
+        double[] values = new double[length];
+        Arrays.fill(values, 1);
+        return values;
+    }
+}
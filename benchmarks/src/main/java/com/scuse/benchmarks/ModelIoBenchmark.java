@@ -0,0 +1,90 @@
+package com.scuse.benchmarks;
+
+import com.scuse.io.ModelBinaryReader;
+import com.scuse.io.ModelBinaryWriter;
+import com.scuse.io.ModelJsonReader;
+import com.scuse.io.ModelJsonWriter;
+import com.scuse.model.MathModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// 模型文件的保存和打开: JSON 和 .lpb
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ModelIoBenchmark {
+    @Param({"DENSE", "TRANSPORTATION"})
+    public LpFamilies.Family family;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public LpFamilies.Size size;
+
+    private MathModel model;
+    private Path directory;
+    private Path jsonFile;
+    private Path binaryFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        model = LpFamilies.generate(family, size, 42);
+        model.optimize(); // 保存的文件里带一个解
+        directory = Files.createTempDirectory("simplex-bench");
+        jsonFile = directory.resolve("model.json");
+        binaryFile = directory.resolve("model.lpb");
+        ModelJsonWriter.write(model, jsonFile);
+        ModelBinaryWriter.write(model, binaryFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(binaryFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Path saveJson() throws IOException {
+        ModelJsonWriter.write(model, jsonFile);
+        return jsonFile;
+    }
+
+    @Benchmark
+    public MathModel loadJson() throws IOException {
+        MathModel loaded = new MathModel();
+        ModelJsonReader.read(jsonFile, loaded);
+        return loaded;
+    }
+
+    @Benchmark
+    public Path saveBinary() throws IOException {
+        ModelBinaryWriter.write(model, binaryFile);
+        return binaryFile;
+    }
+
+    @Benchmark
+    public MathModel loadBinary() throws IOException {
+        MathModel loaded = new MathModel();
+        ModelBinaryReader.read(binaryFile, loaded);
+        return loaded;
+    }
+}
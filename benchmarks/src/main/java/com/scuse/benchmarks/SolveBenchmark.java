@@ -0,0 +1,91 @@
+package com.scuse.benchmarks;
+
+import com.scuse.model.MathModel;
+import com.scuse.solver.SimplexResult;
+import com.scuse.solver.SolveStatus;
+import com.scuse.solver.SolverOptions;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 每次都从头求解同一个模型 (关闭热启动), 测量求解延迟和每次主元变换的开销
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SolveBenchmark {
+    @Param({"DENSE", "TRANSPORTATION", "ASSIGNMENT", "DEGENERATE", "KLEE_MINTY"})
+    public LpFamilies.Family family;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public LpFamilies.Size size;
+
+    @Param({"REVISED", "TABLEAU"})
+    public SolverOptions.Algorithm algorithm;
+
+    // 关闭缩放后 Klee-Minty 立方体恢复指数条路径
+    @Param({"true", "false"})
+    public boolean scaling;
+
+    private MathModel model;
+
+    // 每次操作的主元变换次数; JMH 按吞吐量报告, 即每秒的主元变换数
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Pivots {
+        public long pivots;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pivots = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = LpFamilies.generate(family, size, 42);
+        model.getSolverOptions().setAlgorithm(algorithm);
+        model.getSolverOptions().setWarmStart(false);
+        model.getSolverOptions().setScaling(scaling);
+        model.getSolverOptions().setMaxIterations(1 << 20);
+        SimplexResult result = solve();
+        if (result.getStatus() != SolveStatus.OPTIMAL) {
+            throw new IllegalStateException(family + "/" + size + " is not optimal: " + result.getStatus());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SimplexResult solveLatency() {
+        return solve();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public SimplexResult pivotRate(Pivots counters) {
+        SimplexResult result = solve();
+        counters.pivots += result.getIterations();
+        return result;
+    }
+
+    private SimplexResult solve() {
+        model.getLPQ().clear();
+        model.resetBasis();
+        return model.optimize();
+    }
+}
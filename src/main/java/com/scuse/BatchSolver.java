@@ -0,0 +1,281 @@
+package com.scuse;
+
+import com.scuse.io.ModelFiles;
+import com.scuse.io.ModelJsonReader;
+import com.scuse.model.MathModel;
+import com.scuse.model.Solution;
+import com.scuse.solver.SimplexResult;
+import com.scuse.solver.SolutionCache;
+import com.scuse.solver.SolverListener;
+import com.scuse.solver.SolverMetrics;
+
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 无界面的批量求解入口
+// 用法: BatchSolver <模型目录 | JSON Lines 文件 | -> <输出文件> [--threads N] [--no-crash | --compare-crash] [--metrics] [--cache FILE]
+public class BatchSolver {
+    private static final int CACHE_ENTRIES = 100_000;     // --cache 的条目数和估计内存上限
+    private static final long CACHE_BYTES = 256L << 20;
+    private static final int PENDING_PER_THREAD = 4;      // 每个求解线程最多排队的模型数
+    private final Semaphore solverSlots;
+    private final Semaphore pending; // 已提交还没写出结果的模型, 输入再大内存中也只保留这么多
+    private final BufferedWriter output;
+    private final AtomicInteger solved = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong iterations = new AtomicLong();
+    private final AtomicLong iterationsWithoutCrash = new AtomicLong();
+    private boolean crash = true;
+    private boolean compareCrash; // 每个模型再关掉 crash 求解一次, 对比迭代次数
+    private boolean metrics;      // 结果中附带定价, 比值检验和消元的耗时
+    private SolutionCache cache;  // 所有模型共用, 相同的模型只求解一次
+    private final ReentrantLock outputLock = new ReentrantLock(); // synchronized 会钉住虚拟线程的载体线程
+
+    public BatchSolver(int threads, BufferedWriter output) {
+        this.solverSlots = new Semaphore(threads);
+        this.pending = new Semaphore(threads * PENDING_PER_THREAD);
+        this.output = output;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BatchSolver <model directory | models.jsonl | -> <output.jsonl> [--threads N] [--no-crash | --compare-crash] [--metrics] [--cache FILE]");
+            System.exit(2);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean crash = true;
+        boolean compareCrash = false;
+        boolean metrics = false;
+        Path cacheFile = null;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--no-crash")) {
+                crash = false;
+            } else if (args[i].equals("--compare-crash")) {
+                compareCrash = true;
+            } else if (args[i].equals("--metrics")) {
+                metrics = true;
+            } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                cacheFile = Paths.get(args[++i]);
+            }
+        }
+
+        // 缓存文件在运行之间保留, 不存在时从空缓存开始
+        SolutionCache cache = null;
+        if (cacheFile != null) {
+            cache = new SolutionCache(CACHE_ENTRIES, CACHE_BYTES);
+            if (Files.exists(cacheFile)) {
+                cache.load(cacheFile);
+            }
+        }
+
+        long start = System.nanoTime();
+        BatchSolver batch;
+        try (BufferedWriter output = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            batch = new BatchSolver(threads, output);
+            batch.crash = crash;
+            batch.compareCrash = compareCrash;
+            batch.metrics = metrics;
+            batch.cache = cache;
+            batch.run(args[0]);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int total = batch.solved.get() + batch.failed.get();
+        System.out.printf("Solved %d models (%d failed) in %.3f s, %.1f models/sec%n",
+                total, batch.failed.get(), seconds, total / seconds);
+        if (compareCrash) {
+            System.out.printf("Iterations: %d with crash, %d without%n", batch.iterations.get(), batch.iterationsWithoutCrash.get());
+        } else {
+            System.out.printf("Iterations: %d%n", batch.iterations.get());
+        }
+        if (cache != null) {
+            cache.save(cacheFile);
+            System.out.println("Cache: " + cache);
+        }
+    }
+
+    // 每个模型一个虚拟线程, 同时进入求解器的线程数由信号量限制; 读输入的线程在排队的模型过多时等待
+    public void run(String input) throws IOException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (input.equals("-")) {
+                submitLines(executor, new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+            } else {
+                Path path = Paths.get(input);
+                if (Files.isDirectory(path)) {
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(path, "*.{" + String.join(",", ModelFiles.EXTENSIONS) + "}")) {
+                        for (Path file : files) {
+                            submit(executor, () -> solveFile(file));
+                        }
+                    }
+                } else {
+                    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                        submitLines(executor, reader);
+                    }
+                }
+            }
+        }
+    }
+
+    private void submitLines(ExecutorService executor, BufferedReader reader) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            String name = "line " + lineNumber;
+            String text = line;
+            submit(executor, () -> solveText(name, text));
+        }
+    }
+
+    // 模型的读取, 解析和求解都在许可之内, 任务结束时归还
+    private void submit(ExecutorService executor, Runnable task) throws InterruptedIOException {
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to submit a model");
+        }
+        executor.submit(() -> {
+            try {
+                task.run();
+            } finally {
+                pending.release();
+            }
+        });
+    }
+
+    private void solveFile(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            MathModel model = new MathModel();
+            ModelFiles.read(file, model);
+            solve(name, model);
+        } catch (Exception e) {
+            writeFailure(name, e);
+        }
+    }
+
+    private void solveText(String name, String text) {
+        try {
+            MathModel model = new MathModel();
+            new ModelJsonReader(new StringReader(text)).read(model);
+            solve(name, model);
+        } catch (Exception e) {
+            writeFailure(name, e);
+        }
+    }
+
+    private void solve(String name, MathModel model) {
+        try {
+            model.getLPQ().clear();
+            model.getSolverOptions().setCrash(crash || compareCrash);
+            model.getSolverOptions().setCache(cache);
+            // 已经按模型并行, 分支定界在当前线程中进行
+            model.getSolverOptions().setThreads(1);
+            SolverMetrics[] solveMetrics = new SolverMetrics[1];
+            if (metrics) {
+                model.getSolverOptions().setListener(new SolverListener() {
+                    @Override
+                    public void finished(SimplexResult result, SolverMetrics solverMetrics) {
+                        solveMetrics[0] = solverMetrics;
+                    }
+                });
+            }
+
+            SimplexResult result;
+            int withoutCrash = -1;
+            solverSlots.acquire();
+            // 等待许可的时间不算在求解时间内
+            long start = System.nanoTime();
+            try {
+                result = model.optimize();
+                if (compareCrash) {
+                    List<Solution> solutions = model.getLPQ().getSolutions();
+                    int kept = solutions.size();
+                    model.getSolverOptions().setListener(null);
+                    model.getSolverOptions().setCache(null);
+                    model.getSolverOptions().setCrash(false);
+                    model.getSolverOptions().setWarmStart(false);
+                    withoutCrash = model.optimize().getIterations();
+                    solutions.subList(kept, solutions.size()).clear();
+                }
+            } finally {
+                solverSlots.release();
+            }
+            long micros = (System.nanoTime() - start) / 1000;
+            iterations.addAndGet(result.getIterations());
+
+            JSONObject line = new JSONObject();
+            line.put("model", name);
+            line.put("status", result.getStatus().name());
+            line.put("iterations", result.getIterations());
+            line.put("micros", micros);
+            if (withoutCrash >= 0) {
+                line.put("iterationsWithoutCrash", withoutCrash);
+                iterationsWithoutCrash.addAndGet(withoutCrash);
+            }
+            if (solveMetrics[0] != null) {
+                line.put("degeneratePivots", solveMetrics[0].getDegeneratePivots());
+                line.put("pricingMicros", solveMetrics[0].getPricingNanos() / 1000);
+                line.put("ratioTestMicros", solveMetrics[0].getRatioTestNanos() / 1000);
+                line.put("eliminationMicros", solveMetrics[0].getEliminationNanos() / 1000);
+            }
+            if (!model.getLPQ().getSolutions().isEmpty()) {
+                line.put("objectiveValue", result.getObjectiveValue());
+                line.put("Variables", model.getLPQ().getSolutions().get(0).getVariableValues());
+            }
+            write(line);
+            solved.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            writeFailure(name, e);
+        }
+    }
+
+    private void writeFailure(String name, Exception e) {
+        JSONObject line = new JSONObject();
+        line.put("model", name);
+        line.put("status", "ERROR");
+        line.put("error", String.valueOf(e.getMessage()));
+        write(line);
+        failed.incrementAndGet();
+    }
+
+    // 每个结果求解完成后立即写出一行
+    private void write(JSONObject line) {
+        String text = line.toString();
+        outputLock.lock();
+        try {
+            output.write(text);
+            output.newLine();
+            output.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write result: " + e.getMessage(), e);
+        } finally {
+            outputLock.unlock();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.scuse.controller;
 
+import com.scuse.io.ModelFiles;
 import com.scuse.model.*;
+import com.scuse.solver.SimplexResult;
+import com.scuse.solver.SolutionCache;
+import com.scuse.solver.SolveStatus;
+import com.scuse.solver.SolverOptions;
 import com.scuse.view.AppView;
-import javafx.collections.ObservableList;
-import javafx.scene.Node;
 import javafx.geometry.Pos;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
@@ -12,30 +15,41 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.control.TextInputDialog;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-import org.json.JSONTokener;
-
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class AppController {
+    private static final int GUI_CACHE_ENTRIES = 256;
     private final AppView view;
     private final MathModel mathModel;
     private int numVariables;
     private int numConstraints;
+    // 求解在这个后台线程中进行, 界面线程只负责显示进度和结果
+    private final ExecutorService solverExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "simplex-solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private SolveTask solveTask; // 正在进行的求解, 没有时为 null
 
     public AppController(Stage primaryStage) {
         view = new AppView(primaryStage);
         mathModel = new MathModel();
+        // 反复求解同一个模型 (例如改回原来的系数) 时直接显示以前的结果; 只在内存中, 不写入磁盘
+        mathModel.getSolverOptions().setCache(new SolutionCache(GUI_CACHE_ENTRIES));
 
         view.getUpdateButton().setOnAction(_ -> updateEquations(primaryStage));
         view.getSolveButton().setOnAction(_ -> solve(primaryStage));
+        view.getCancelButton().setOnAction(_ -> {
+            if (solveTask != null) {
+                solveTask.stop();
+            }
+        });
 
         for (Menu menu : view.getMenuBar().getMenus()) {
             for (MenuItem item : menu.getItems()) {
@@ -72,21 +86,21 @@ public class AppController {
 
     private void handleOpenAction(Stage primaryStage) {
         clear();
-        loadJsonFile();
+        loadModelFile();
         resize(primaryStage);
     }
 
     private void handleSaveAction() {
-        extractCoefficient();
+        syncOptimizationType();
         TextInputDialog dialog = new TextInputDialog();
         dialog.setTitle("Save File");
         dialog.setHeaderText("Save your model data");
-        dialog.setContentText("Enter a file name:");
+        dialog.setContentText("Enter a file name (.json or .lpb):");
         dialog.getEditor().appendText("data.json");
         Optional<String> result = dialog.showAndWait();
         result.ifPresent(fileName -> {
             try {
-                saveDataToJson(fileName);
+                saveModelFile(fileName);
                 System.out.println("Data saved successfully to " + fileName);
             } catch (IOException e) {
                 System.err.println("Failed to save file: " + e.getMessage());
@@ -160,114 +174,39 @@ public class AppController {
     }
 
     private void clear() {
-        view.getConstraintsBox().getChildren().clear();
-        view.getObjectiveBox().getChildren().clear();
         view.getResultsBox().getChildren().clear();
-        mathModel.getConstraints().clear();
-        mathModel.getObjectiveFunction().clear();
-        mathModel.getLPQ().getSolutions().clear();
+        mathModel.clear();
+        numVariables = 0;
+        numConstraints = 0;
+        view.getCoefficientGrid().setModel(mathModel);
     }
 
-    private void saveDataToJson(String fileName) throws IOException {
-        // 创建 JSON 对象
-        JSONObject data = new JSONObject();
-
-        // 保存变量和方程个数
-        data.put("numVariables", numVariables);
-        data.put("numConstraints", numConstraints);
-
-        // 保存目标方程
-        JSONObject objectiveFunction = new JSONObject();
-        List<Double> objCoefficients = mathModel.getObjectiveFunction().getCoefficients();
-        objectiveFunction.put("coefficients", objCoefficients);
-        objectiveFunction.put("optimization", mathModel.getObjectiveFunction().getOptimizationType());
-        data.put("objectiveFunction", objectiveFunction);
-
-        // 保存约束方程
-        JSONArray constraints = new JSONArray();
-        for (ConstraintEquation constraint : mathModel.getConstraints()) {
-            JSONObject constraintObj = new JSONObject();
-            constraintObj.put("coefficients", constraint.getCoefficients());
-            constraintObj.put("symbol", constraint.getSign());
-            constraintObj.put("constant", constraint.getConstant());
-            constraints.put(constraintObj);
-        }
-        data.put("constraints", constraints);
-
-        // 保存解
-        JSONArray solutions = new JSONArray();
-        for (Solution solution : mathModel.getLPQ().getSolutions()) {
-            JSONObject solutionObj = new JSONObject();
-            solutionObj.put("Variables", solution.getVariableValues());
-            solutionObj.put("objectiveValue", solution.getObjectiveValue());
-            solutions.put(solutionObj);
-        }
-        data.put("solutions", solutions);
-
-        // 将 JSON 数据写入文件
-        try (FileWriter writer = new FileWriter(fileName.contains(".json") ? fileName : fileName + ".json")) {
-            writer.write(data.toString(2)); // 格式化缩进为 2 个空格
-        }
+    private void saveModelFile(String fileName) throws IOException {
+        // .lpb 保存为二进制格式, 其他文件名补全为 .json 后边生成边写入
+        boolean binary = fileName.endsWith(".lpb");
+        ModelFiles.write(mathModel, Paths.get(binary || fileName.contains(".json") ? fileName : fileName + ".json"));
     }
 
-    private void loadJsonFile() {
+    private void loadModelFile() {
         FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Open JSON File");
+        fileChooser.setTitle("Open Model File");
         fileChooser.setInitialDirectory(new java.io.File("."));
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("JSON Files", "*.json"));
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Model Files", "*.json", "*.lpb", "*.mps", "*.lp"),
+                new FileChooser.ExtensionFilter("JSON Files", "*.json"),
+                new FileChooser.ExtensionFilter("Binary Model Files", "*.lpb"),
+                new FileChooser.ExtensionFilter("MPS Files", "*.mps"),
+                new FileChooser.ExtensionFilter("CPLEX LP Files", "*.lp"));
 
         File file = fileChooser.showOpenDialog(null);
         if (file != null) {
-            try (FileReader reader = new FileReader(file)) {
-                // 解析 JSON 数据
-                JSONTokener tokener = new JSONTokener(reader);
-                JSONObject data = new JSONObject(tokener);
-
-                // 解析变量和方程个数
-                numVariables = data.getInt("numVariables");
-                numConstraints = data.getInt("numConstraints");
-
-                // 解析目标方程
-                JSONObject objectiveFunctionObj = data.getJSONObject("objectiveFunction");
-                List<Double> objCoefficients = new ArrayList<>();
-                JSONArray coeffArray = objectiveFunctionObj.getJSONArray("coefficients");
-                for (int i = 0; i < coeffArray.length(); i++) {
-                    objCoefficients.add(coeffArray.getDouble(i));
-                }
-                mathModel.getObjectiveFunction().setCoefficients(objCoefficients);
-                mathModel.getObjectiveFunction().setOptimizationType(objectiveFunctionObj.getString("optimization"));
-
-                // 解析约束方程
-                JSONArray constraintsArray = data.getJSONArray("constraints");
-                mathModel.getConstraints().clear();
-                for (int i = 0; i < constraintsArray.length(); i++) {
-                    JSONObject constraintObj = constraintsArray.getJSONObject(i);
-                    List<Double> constraintCoefficients = new ArrayList<>();
-                    JSONArray constraintCoeffArray = constraintObj.getJSONArray("coefficients");
-                    for (int j = 0; j < constraintCoeffArray.length(); j++) {
-                        constraintCoefficients.add(constraintCoeffArray.getDouble(j));
-                    }
-
-                    ConstraintEquation constraint = new ConstraintEquation();
-                    constraint.setCoefficients(constraintCoefficients);
-                    constraint.setSign(constraintObj.getString("symbol"));
-                    constraint.setConstant(constraintObj.getDouble("constant"));
-
-                    mathModel.addConstraint(constraint);
-                }
+            try {
+                // 按扩展名读入 JSON, .lpb, MPS 或 LP 文件
+                ModelFiles.read(file.toPath(), mathModel);
 
-                // 解析解
-                JSONArray solutionsArray = data.getJSONArray("solutions");
-                mathModel.getLPQ().getSolutions().clear();
-                for (int i = 0; i < solutionsArray.length(); i++) {
-                    JSONObject solutionObj = solutionsArray.getJSONObject(i);
-                    List<Double> variableValues = new ArrayList<>();
-                    JSONArray variableValuesArray = solutionObj.getJSONArray("Variables");
-                    for (int j = 0; j < variableValuesArray.length(); j++) {
-                        variableValues.add(variableValuesArray.getDouble(j));
-                    }
-                    mathModel.getLPQ().addSolution(solutionObj.getDouble("objectiveValue"), variableValues);
-                }
+                // 变量和方程个数
+                numVariables = mathModel.getObjectiveFunction().getNumVariables();
+                numConstraints = mathModel.getConstraints().size();
 
                 // 更新视图
                 updateViewFromModel();
@@ -281,49 +220,26 @@ public class AppController {
     }
 
     private void updateViewFromModel() {
-        view.getConstraintsBox().getChildren().clear();
-
         // 更新变量个数
         view.getVariablesTextField().setText(String.valueOf(numVariables));
         // 更新约束个数
         view.getConstraintsTextField().setText(String.valueOf(numConstraints));
-        // 更新约束方程
-        Label constraintLabel = new Label("Constraint Functions(Please input coefficients in order):");
-        view.getConstraintsBox().getChildren().add(constraintLabel);
-        for (ConstraintEquation constraint : mathModel.getConstraints()) {
-            HBox equationBox = new HBox(10);
-            equationBox.setPadding(new Insets(5));
-
-            for (Double coefficient : constraint.getCoefficients()) {
-                TextField coefficientField = new TextField(coefficient.toString());
-                equationBox.getChildren().add(coefficientField);
-            }
-
-            ComboBox<String> symbolBox = new ComboBox<>();
-            symbolBox.getItems().addAll("<=", ">=", "=");
-            symbolBox.setValue(constraint.getSign());
-            equationBox.getChildren().add(symbolBox);
-
-            TextField constantField = new TextField(String.valueOf(constraint.getConstant()));
-            equationBox.getChildren().add(constantField);
-
-            view.getConstraintsBox().getChildren().add(equationBox);
-        }
-
-        // 更新目标方程
-        Label objectiveLabel = new Label("Objective Function:");
-        view.getObjectiveBox().getChildren().add(objectiveLabel);
-        HBox objectiveFunctionInputBox = new HBox(10);
-        for (Double coefficient : mathModel.getObjectiveFunction().getCoefficients()) {
-            TextField coefficientField = new TextField(coefficient.toString());
-            objectiveFunctionInputBox.getChildren().add(coefficientField);
-        }
-        view.getObjectiveBox().getChildren().add(objectiveFunctionInputBox);
+        // 表格直接显示模型中的系数; 行长度不一致的文件补齐为相同的变量个数
+        mathModel.resize(numVariables, numConstraints);
+        view.getCoefficientGrid().setModel(mathModel);
         // 更新解集
         updateResults();
 
         // 更新优化类型
         view.getOptimizationChoiceBox().setValue(mathModel.getObjectiveFunction().getOptimizationType());
+        // 更新整数变量
+        StringBuilder integers = new StringBuilder();
+        for (int j = 0; j < numVariables; j++) {
+            if (mathModel.getObjectiveFunction().isInteger(j)) {
+                integers.append(integers.isEmpty() ? "" : ", ").append(j + 1);
+            }
+        }
+        view.getIntegerVariablesTextField().setText(integers.toString());
     }
 
     private void updateEquations(Stage primaryStage) {
@@ -332,91 +248,12 @@ public class AppController {
         try {
             numVariables = Integer.parseInt(view.getVariablesTextField().getText());
             numConstraints = Integer.parseInt(view.getConstraintsTextField().getText());
-            // 更新约束方程部分
-            ObservableList<Node> constraintsChildren = view.getConstraintsBox().getChildren();
-
-            // 检查是否需要增加约束方程标题
-            if (constraintsChildren.isEmpty()) {
-                Label constraintLabel = new Label("Constraint Functions (Please input coefficients in order):");
-                view.getConstraintsBox().getChildren().add(constraintLabel);
-            }
-            // 生成约束方程输入框
-            int existingConstraints = constraintsChildren.size() - 1;
-            if (existingConstraints < numConstraints) {
-                for (int i = existingConstraints; i < numConstraints; i++) {
-                    HBox equationBox = new HBox(10);
-                    equationBox.setPadding(new Insets(5));
-
-                    // 为每个约束方程生成输入框
-                    for (int j = 0; j < numVariables; j++) {
-                        TextField coefficientField = new TextField();
-                        coefficientField.setPromptText("a" + (i + 1) + (j + 1));
-                        equationBox.getChildren().add(coefficientField);
-                    }
-
-                    // 符号选择框
-                    ComboBox<String> signComboBox = new ComboBox<>();
-                    signComboBox.getItems().addAll("<", "<=", "=", ">=", ">");
-                    signComboBox.getSelectionModel().selectFirst(); // 默认选择 "<="
-                    equationBox.getChildren().add(signComboBox);
-
-                    // 常数项输入框
-                    TextField constantField = new TextField();
-                    constantField.setPromptText("b" + (i + 1));
-                    equationBox.getChildren().add(constantField);
-
-                    view.getConstraintsBox().getChildren().add(equationBox);
-                }
-            } else {
-                // 减少约束方程
-                view.getConstraintsBox().getChildren().subList(numConstraints + 1, existingConstraints + 1).clear();
-            }
-
-            HBox constraintsBox = (HBox) view.getConstraintsBox().getChildren().get(1);
-            int existingVariables = constraintsBox.getChildren().size() - 2;
-            if (existingVariables < numVariables) {
-                for (int i = 1; i<= numConstraints; i++) {
-                    HBox equationBox = (HBox) view.getConstraintsBox().getChildren().get(i);
-                    for (int j = existingVariables; j < numVariables; j++) {
-                        TextField coefficientField = new TextField();
-                        coefficientField.setPromptText("a" + i + (j + 1));
-                        equationBox.getChildren().add(j, coefficientField);
-                    }
-                }
-            } else if (existingVariables > numVariables) {
-                for (int i = 1; i <= numConstraints; i++) {
-                    HBox equationBox = (HBox) view.getConstraintsBox().getChildren().get(i);
-                    equationBox.getChildren().subList(numVariables, existingVariables).clear();
-                }
+            if (numVariables < 0 || numConstraints < 0) {
+                throw new NumberFormatException("counts must not be negative");
             }
-
-            // 生成目标函数输入框
-            ObservableList<Node> objectiveChildren = view.getObjectiveBox().getChildren();
-            if (objectiveChildren.isEmpty()) {
-                Label objectiveFunctionLabel = new Label("Objective Function:");
-                view.getObjectiveBox().getChildren().add(objectiveFunctionLabel);
-                HBox objectiveFunctionInputBox = new HBox(10);
-                for (int i = 0; i < numVariables; i++) {
-                    TextField coefficientField = new TextField();
-                    coefficientField.setPromptText("x" + (i + 1));
-                    objectiveFunctionInputBox.getChildren().add(coefficientField);
-                }
-                view.getObjectiveBox().getChildren().add(objectiveFunctionInputBox);
-            } else {
-                HBox objectiveFunctionInputBox = (HBox) view.getObjectiveBox().getChildren().get(1);
-//                int existingVariables = objectiveFunctionInputBox.getChildren().size();
-                if (existingVariables > numVariables) {
-                    // 减少变量输入框
-                    objectiveFunctionInputBox.getChildren().subList(numVariables, existingVariables).clear();
-                } else if (existingVariables < numVariables) {
-                    for (int i = existingVariables; i < numVariables; i++) {
-                        TextField coefficientField = new TextField();
-                        coefficientField.setPromptText("x" + (i + 1));
-                        objectiveFunctionInputBox.getChildren().add(coefficientField);
-                    }
-                }
-            }
-
+            // 保留已有的系数, 新增的系数为 0, 新增的约束默认为 <=
+            mathModel.resize(numVariables, numConstraints);
+            view.getCoefficientGrid().setModel(mathModel);
             resize(primaryStage);
         } catch (NumberFormatException e){
             Alert alert = AppView.getAlertInstance(Alert.AlertType.ERROR, "Error", "Input Error", "Invalid input: " + e.getMessage());
@@ -424,99 +261,172 @@ public class AppController {
         }
     }
 
-    private void extractCoefficient() {
-        mathModel.clear();
-        try {
-            // 提取约束方程的系数和常数项
-            for (int i = 1; i <= numConstraints; i++) {
-                StringBuilder constraintString = new StringBuilder();
-                HBox constraintsBox = (HBox) view.getConstraintsBox().getChildren().get(i);
-                ConstraintEquation constraint = new ConstraintEquation();
-
-                // 获取约束方程中的系数
-                for (int j = 0; j < numVariables; j++) {
-                    TextField coefficientField = (TextField) constraintsBox.getChildren().get(j);
-                    String coefficient = coefficientField.getText();
-                    constraint.getCoefficients().add(Double.parseDouble(coefficient));
-                    constraintString.append(coefficient).append(" * x").append(j + 1).append(" ");
-                    if (j < numVariables - 1) {
-                        constraintString.append("+ ");
-                    }
-                }
-
-                Node node = constraintsBox.getChildren().get(numVariables);
-                String sign;
-                if (node instanceof ComboBox<?>) {
-                    @SuppressWarnings("unchecked")
-                    ComboBox<String> signComboBox = (ComboBox<String>) node;
-                    sign = signComboBox.getValue();
-                    constraint.setSign(sign);
-                } else {
-                    throw new ClassCastException("Expected ComboBox<String> but got " + node.getClass().getName());
-                }
-
-                // 获取常数项
-                TextField constantField = (TextField) constraintsBox.getChildren().get(numVariables + 1);
-                String constant = constantField.getText();
-                constraint.setConstant(Double.parseDouble(constant));
-                constraintString.append(sign).append(" ").append(constant);
-
-                // 打印约束方程
-                System.out.println("Constraint " + (i + 1) + ": " + constraintString);
-                mathModel.addConstraint(constraint);
-            }
-
-            // 提取目标函数的系数
-            StringBuilder objectiveFunctionString = new StringBuilder();
-            ObjectiveFunction objectiveFunction = new ObjectiveFunction();
-            for (int i = 0; i < numVariables; i++) {
-                TextField coefficientField = (TextField) ((HBox) view.getObjectiveBox().getChildren().get(1)).getChildren().get(i);
-                String coefficient = coefficientField.getText();
-                objectiveFunction.getCoefficients().add(Double.parseDouble(coefficient));
-                objectiveFunctionString.append(coefficient).append(" * x").append(i + 1).append(" ");
-                if (i < numVariables - 1) {
-                    objectiveFunctionString.append("+ ");
-                }
-            }
-
-            // 打印目标函数
-            System.out.println("Objective Function: " + objectiveFunctionString);
-
-            // 打印最大化/最小化目标
-            String optimizationType = view.getOptimizationChoiceBox().getValue();
-            objectiveFunction.setOptimizationType(optimizationType);
-            System.out.println("Optimization Type: " + optimizationType);
-
-            mathModel.setObjectiveFunction(objectiveFunction);
-        } catch (Exception e) {
-            // 错误处理
-            Alert alert = AppView.getAlertInstance(Alert.AlertType.ERROR, "Error", "Input Error", "Invalid input: " + e.getMessage());
-            alert.showAndWait();
-        }
+    // 表格的编辑已经直接写入模型, 这里只同步优化类型; 类型没变时不算改动
+    private void syncOptimizationType() {
+        mathModel.setOptimizationType(view.getOptimizationChoiceBox().getValue());
     }
 
     private void updateResults() {
         view.getResultsBox().getChildren().clear();
 
         Label solutionLabel = new Label(mathModel.getLPQ().toString());
+        solutionLabel.setWrapText(true);
         solutionLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
         view.getResultsBox().getChildren().add(solutionLabel);
     }
 
     private void resize(Stage primaryStage) {
-        // 动态调整窗口大小
-        double newWidth = Math.max(600, 200 + numVariables * 82);
-        double newHeight = Math.max(400, 330 + numConstraints * 60 + mathModel.getLPQ().getSolutions().size() * 60);
+        // 动态调整窗口大小, 表格放不下时滚动
+        double newWidth = Math.min(1200, Math.max(600, 200 + numVariables * 72));
+        // 每个解约 60 像素, 带灵敏度分析的解再多四行
+        int solutionHeight = 0;
+        for (Solution solution : mathModel.getLPQ().getSolutions()) {
+            solutionHeight += solution.getSensitivity() != null ? 140 : 60;
+        }
+        double newHeight = Math.min(900, Math.max(505, 465 + (numConstraints + 2) * 26 + solutionHeight));
         primaryStage.setWidth(newWidth);
         primaryStage.setHeight(newHeight);
     }
 
     private void solve(Stage primaryStage) {
-        extractCoefficient();
-        mathModel.printFunction();
-        mathModel.solve();
-        mathModel.printSolution();
-        updateResults();
-        resize(primaryStage);
+        if (solveTask != null) {
+            return;
+        }
+        syncOptimizationType();
+        if (!applyLimits() || !applyIntegers()) {
+            return;
+        }
+        mathModel.getSolverOptions().setSensitivity(view.getSensitivityCheckBox().isSelected());
+
+        SolveTask task = new SolveTask(mathModel, view.getAllOptimaCheckBox().isSelected());
+        task.setOnSucceeded(_ -> {
+            finishSolve();
+            mathModel.printSolution();
+            showResult(task.getValue());
+            resize(primaryStage);
+        });
+        task.setOnFailed(_ -> {
+            finishSolve();
+            Alert alert = AppView.getAlertInstance(Alert.AlertType.ERROR, "Error", "Solve failed", String.valueOf(task.getException().getMessage()));
+            alert.showAndWait();
+        });
+
+        solveTask = task;
+        setSolving(true);
+        view.getProgressBar().progressProperty().bind(task.progressProperty());
+        view.getStatusLabel().textProperty().bind(task.messageProperty());
+        solverExecutor.execute(task);
+    }
+
+    // 读入时间和迭代次数限制, 留空表示不限制
+    private boolean applyLimits() {
+        SolverOptions options = mathModel.getSolverOptions();
+        try {
+            String time = view.getTimeLimitTextField().getText().trim();
+            String iterations = view.getIterationLimitTextField().getText().trim();
+            double seconds = time.isEmpty() ? 0 : Double.parseDouble(time);
+            int maxIterations = iterations.isEmpty() ? 0 : Integer.parseInt(iterations);
+            if (!(seconds >= 0) || maxIterations < 0) {
+                throw new IllegalArgumentException("limits must not be negative");
+            }
+            options.setTimeLimit(Math.round(seconds * 1000));
+            options.setMaxIterations(maxIterations);
+            return true;
+        } catch (IllegalArgumentException e) {
+            Alert alert = AppView.getAlertInstance(Alert.AlertType.ERROR, "Error", "Input Error", "Invalid limit: " + e.getMessage());
+            alert.showAndWait();
+            return false;
+        }
+    }
+
+    // 读入整数变量: 逗号分隔的变量编号 (从 1 开始), 或 all 表示全部
+    private boolean applyIntegers() {
+        String text = view.getIntegerVariablesTextField().getText().trim();
+        boolean[] integer = new boolean[numVariables];
+        try {
+            if (text.equalsIgnoreCase("all")) {
+                Arrays.fill(integer, true);
+            } else if (!text.isEmpty()) {
+                for (String item : text.split("[,\\s]+")) {
+                    String number = item.startsWith("x") || item.startsWith("X") ? item.substring(1) : item;
+                    int j = Integer.parseInt(number) - 1;
+                    if (j < 0 || j >= numVariables) {
+                        throw new IllegalArgumentException("no variable " + item);
+                    }
+                    integer[j] = true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            Alert alert = AppView.getAlertInstance(Alert.AlertType.ERROR, "Error", "Input Error", "Invalid integer variables: " + e.getMessage());
+            alert.showAndWait();
+            return false;
+        }
+        for (int j = 0; j < numVariables; j++) {
+            mathModel.getObjectiveFunction().setInteger(j, integer[j]);
+        }
+        return true;
+    }
+
+    private void finishSolve() {
+        solveTask = null;
+        setSolving(false);
+        view.getProgressBar().progressProperty().unbind();
+        view.getStatusLabel().textProperty().unbind();
+        view.getStatusLabel().setText("");
+    }
+
+    // 求解期间禁止修改模型
+    private void setSolving(boolean solving) {
+        view.getSolveButton().setDisable(solving);
+        view.getUpdateButton().setDisable(solving);
+        view.getCoefficientGrid().setEditable(!solving);
+        view.getCancelButton().setDisable(!solving);
+        view.getProgressBar().setVisible(solving);
+        for (Menu menu : view.getMenuBar().getMenus()) {
+            for (MenuItem item : menu.getItems()) {
+                if (!item.getText().equals("Exit") && menu.getText().equals("File")) {
+                    item.setDisable(solving);
+                }
+            }
+        }
+    }
+
+    private void showResult(SimplexResult result) {
+        String text;
+        switch (result.getStatus()) {
+            case OPTIMAL:
+                updateResults();
+                return;
+            case INFEASIBLE:
+                text = "Infeasible solution";
+                break;
+            case UNBOUNDED:
+                text = "Unbounded solution";
+                break;
+            case ITERATION_LIMIT:
+                text = "Iteration limit reached";
+                break;
+            case TIME_LIMIT:
+                text = "Time limit reached";
+                break;
+            case NODE_LIMIT:
+                text = "Node limit reached";
+                break;
+            default:
+                text = "Solve cancelled";
+                break;
+        }
+        text += " after " + result.getIterations() + " iterations.";
+        if (result.isFeasible()) {
+            // 提前停止时显示目前最好的可行解
+            text += "\nBest solution so far:\n" + new Solution(result.getObjectiveValue(), result.getVariableValues());
+        } else if (result.getStatus() != SolveStatus.INFEASIBLE && result.getStatus() != SolveStatus.UNBOUNDED) {
+            text += "\nNo feasible solution found yet.";
+        }
+        view.getResultsBox().getChildren().clear();
+        Label resultLabel = new Label(text);
+        resultLabel.setWrapText(true);
+        resultLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+        view.getResultsBox().getChildren().add(resultLabel);
     }
 }
@@ -0,0 +1,117 @@
+package com.scuse.controller;
+
+import com.scuse.model.MathModel;
+import com.scuse.model.Solution;
+import com.scuse.solver.SimplexResult;
+import com.scuse.solver.SolveStatus;
+import com.scuse.solver.SolverListener;
+import com.scuse.solver.SolverOptions;
+import javafx.concurrent.Task;
+
+import java.util.Iterator;
+import java.util.List;
+
+// 在后台线程中求解, 通过 message 和 progress 报告当前迭代次数和目标值.
+// 求解期间界面不能修改模型, 结果在 FX 线程上从 getValue() 读取
+class SolveTask extends Task<SimplexResult> {
+    private static final long UPDATE_INTERVAL = 50_000_000; // 最多每 50ms 刷新一次界面
+    private static final int MAX_OPTIMA = 100; // 列出的最优顶点个数上限
+
+    private final MathModel model;
+    private final boolean allOptima; // 求出最优解后继续枚举其他最优顶点
+    private Thread runner; // 正在求解的线程, 由 this 保护
+    private boolean stopRequested;
+
+    SolveTask(MathModel model, boolean allOptima) {
+        this.model = model;
+        this.allOptima = allOptima;
+    }
+
+    @Override
+    protected SimplexResult call() {
+        SolverOptions options = model.getSolverOptions();
+        SolverListener previous = options.getListener();
+        options.setListener(new ProgressListener(options));
+        synchronized (this) {
+            runner = Thread.currentThread();
+            if (stopRequested) {
+                runner.interrupt();
+            }
+        }
+        try {
+            updateMessage("Solving...");
+            SimplexResult result = model.optimize();
+            // 整数规划的最优解不在 LP 松弛的顶点上, 不枚举
+            int n = model.getObjectiveFunction().getNumVariables();
+            if (allOptima && result.getStatus() == SolveStatus.OPTIMAL && !model.getObjectiveFunction().hasIntegers(n)) {
+                enumerateOptima();
+            }
+            return result;
+        } finally {
+            options.setListener(previous);
+            synchronized (this) {
+                runner = null;
+                // 清除中断标记, 执行器的线程还要求解下一个模型
+                Thread.interrupted();
+            }
+        }
+    }
+
+    // 枚举得到的顶点包括 optimize() 已经加入 LPQ 的那个解, 找到至少一个顶点后去掉重复的这一个.
+    // 枚举从 optimize() 的最优基出发, 这个解的灵敏度分析留给第一个顶点. 中途停止时保留已经找到的顶点
+    private void enumerateOptima() {
+        List<Solution> solutions = model.getLPQ().getSolutions();
+        int first = solutions.size() - 1;
+        updateMessage("Enumerating optimal solutions...");
+        Iterator<Solution> optima = model.optimalSolutions(MAX_OPTIMA).iterator();
+        int found = 0;
+        while (optima.hasNext()) {
+            optima.next();
+            found++;
+            updateMessage("Found " + found + " optimal solutions");
+        }
+        if (found > 0) {
+            Solution duplicate = solutions.remove(first);
+            solutions.get(first).setSensitivity(duplicate.getSensitivity());
+        }
+    }
+
+    // 让求解器在下一次迭代前停下并返回目前最好的解. 和 cancel() 不同, 任务仍然正常结束, 可以显示这个解
+    synchronized void stop() {
+        stopRequested = true;
+        if (runner != null) {
+            runner.interrupt();
+        }
+    }
+
+    private class ProgressListener implements SolverListener {
+        private final int maxIterations;
+        private final long timeLimit;
+        private final long start = System.nanoTime();
+        private long lastUpdate = start;
+
+        ProgressListener(SolverOptions options) {
+            maxIterations = options.getMaxIterations();
+            timeLimit = options.getTimeLimit() * 1_000_000;
+        }
+
+        @Override
+        public void iteration(int iteration, int enteringColumn, int leavingRow, double objective, boolean degenerate) {
+            long now = System.nanoTime();
+            if (now - lastUpdate < UPDATE_INTERVAL) {
+                return;
+            }
+            lastUpdate = now;
+            updateMessage(String.format("Iteration %d, objective %.6g", iteration, objective));
+            // 进度按最先到达的限制估计, 没有限制时显示为不确定
+            double progress = -1;
+            if (maxIterations > 0) {
+                progress = (double) iteration / maxIterations;
+            }
+            if (timeLimit > 0) {
+                progress = Math.max(progress, (double) (now - start) / timeLimit);
+            }
+            updateProgress(Math.min(progress, 1), 1);
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package com.scuse.io;
+
+import com.scuse.model.MathModel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// 逐行读取 CPLEX LP 格式的文件: 目标函数, Subject To, Bounds, Generals, Binaries 和 End 节.
+// 支持 lo <= a^T x <= hi 形式的区间约束; 目标函数的常数项被忽略. Generals 和 Binaries 中的变量是整数变量, Binaries 取 [0, 1]
+public class LpFileReader {
+    private static final int EOF = 0;
+    private static final int NUMBER = 1;
+    private static final int NAME = 2;
+    private static final int OPERATOR = 3;
+    private static final int SIGN = 4;
+    private static final int COLON = 5;
+    private static final int SECTION = 6;
+
+    // 关系符
+    private static final int LE = 0;
+    private static final int GE = 1;
+    private static final int EQ = 2;
+
+    // 节
+    private static final int NONE = 0;
+    private static final int OBJECTIVE = 1;
+    private static final int CONSTRAINTS = 2;
+    private static final int BOUNDS = 3;
+    private static final int GENERALS = 4;
+    private static final int BINARIES = 5;
+    private static final int END = 6;
+
+    private final BufferedReader reader;
+    private final ModelBuilder builder = new ModelBuilder();
+    private int lineNumber;
+    private boolean endOfInput;
+
+    // 已经切分但还没有读取的记号; 每次补充一整行
+    private int[] kinds = new int[64];
+    private String[] texts = new String[64];
+    private double[] values = new double[64];
+    private int head;
+    private int count;
+
+    // 读一项时得到的系数和变量, variable 为 -1 表示常数项
+    private double termValue;
+    private int termVariable;
+
+    public LpFileReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+    }
+
+    public static void read(Path path, MathModel model) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            new LpFileReader(reader).read(model);
+        }
+    }
+
+    // 把 LP 文件中的模型读入 model, 原有内容被清空
+    public void read(MathModel model) throws IOException {
+        int section = NONE;
+        while (true) {
+            int kind = peek(0);
+            if (kind == EOF) {
+                break;
+            }
+            if (kind == SECTION) {
+                section = (int) values[head];
+                next();
+                if (section == END) {
+                    break;
+                }
+                continue;
+            }
+            switch (section) {
+                case OBJECTIVE:
+                    readObjective();
+                    break;
+                case CONSTRAINTS:
+                    readConstraint();
+                    break;
+                case BOUNDS:
+                    readBound();
+                    break;
+                case GENERALS:
+                    builder.setInteger(builder.column(expectName()));
+                    break;
+                case BINARIES:
+                    int j = builder.column(expectName());
+                    builder.setInteger(j);
+                    builder.setLower(j, 0);
+                    builder.setUpper(j, 1);
+                    break;
+                default:
+                    throw error("Expected an objective section");
+            }
+        }
+        builder.build(model);
+    }
+
+    // [名字:] 项 {+|- 项}
+    private void readObjective() throws IOException {
+        skipLabel();
+        boolean first = true;
+        while (readTerm(first)) {
+            first = false;
+            if (termVariable >= 0) {
+                builder.addCost(termVariable, termValue);
+            }
+        }
+        if (peek(0) != SECTION && peek(0) != EOF) {
+            throw error("Unexpected " + describe(0) + " in the objective");
+        }
+    }
+
+    // [名字:] 项 {+|- 项} 关系符 常数, 或 [名字:] 常数 关系符 项 {+|- 项} 关系符 常数
+    private void readConstraint() throws IOException {
+        skipLabel();
+        double lower = Double.NEGATIVE_INFINITY;
+        double upper = Double.POSITIVE_INFINITY;
+        boolean ranged = isConstantBeforeOperator();
+        if (ranged) {
+            double left = readConstant();
+            int operator = readOperator();
+            if (operator == LE) {
+                lower = left;
+            } else if (operator == GE) {
+                upper = left;
+            } else {
+                throw error("A ranged constraint cannot use '='");
+            }
+        }
+        ModelBuilder.Row row = builder.addRow(lower, upper);
+        double offset = 0; // 左边的常数项移到右边
+        boolean first = true;
+        while (readTerm(first)) {
+            first = false;
+            if (termVariable >= 0) {
+                row.add(termVariable, termValue);
+            } else {
+                offset += termValue;
+            }
+        }
+        if (first) {
+            throw error("Expected a linear expression but found " + describe(0));
+        }
+        int operator = readOperator();
+        double right = readConstant() - offset;
+        if (ranged && operator == (row.lower > Double.NEGATIVE_INFINITY ? GE : LE)) {
+            throw error("Both sides of a ranged constraint must use the same direction");
+        }
+        if (operator == LE || operator == EQ) {
+            row.upper = Math.min(row.upper, right);
+        }
+        if (operator == GE || operator == EQ) {
+            row.lower = Math.max(row.lower, right);
+        }
+    }
+
+    // x free | x 关系符 值 | 值 关系符 x [关系符 值]
+    private void readBound() throws IOException {
+        if (peek(0) == NAME && !isInfinity(0)) {
+            String name = expectName();
+            int j = builder.column(name);
+            if (peek(0) == NAME && texts[head].equalsIgnoreCase("free")) {
+                next();
+                builder.setLower(j, Double.NEGATIVE_INFINITY);
+                builder.setUpper(j, Double.POSITIVE_INFINITY);
+                return;
+            }
+            int operator = readOperator();
+            setBound(j, name, operator, readConstant());
+            return;
+        }
+        double left = readConstant();
+        int operator = readOperator();
+        String name = expectName();
+        int j = builder.column(name);
+        // 值 <= x 是下界, 值 >= x 是上界
+        setBound(j, name, operator == LE ? GE : operator == GE ? LE : EQ, left);
+        if (peek(0) == OPERATOR) {
+            operator = readOperator();
+            setBound(j, name, operator, readConstant());
+        }
+    }
+
+    // x 关系符 value; 下界大于上界时报告所在的行
+    private void setBound(int j, String name, int operator, double value) throws IOException {
+        if (operator == LE || operator == EQ) {
+            builder.setUpper(j, value);
+        }
+        if (operator == GE || operator == EQ) {
+            builder.setLower(j, value);
+        }
+        if (builder.getLower(j) > builder.getUpper(j)) {
+            throw error("Lower bound " + builder.getLower(j) + " of " + name + " exceeds upper bound " + builder.getUpper(j));
+        }
+    }
+
+    // 读一项 [+|-]... [系数] [变量]; 除第一项外必须有符号, 否则说明表达式已经结束, 返回 false
+    private boolean readTerm(boolean first) throws IOException {
+        double sign = 1;
+        boolean signed = false;
+        while (peek(0) == SIGN) {
+            if (texts[head].equals("-")) {
+                sign = -sign;
+            }
+            signed = true;
+            next();
+        }
+        if (!first && !signed) {
+            return false;
+        }
+        double coefficient = sign;
+        boolean hasNumber = false;
+        if (peek(0) == NUMBER) {
+            coefficient *= values[head];
+            hasNumber = true;
+            next();
+        }
+        if (peek(0) == NAME && peek(1) != COLON && !isInfinity(0)) {
+            termVariable = builder.column(texts[head]);
+            termValue = coefficient;
+            next();
+            return true;
+        }
+        if (!hasNumber) {
+            if (signed) {
+                throw error("Expected a term but found " + describe(0));
+            }
+            return false;
+        }
+        termVariable = -1;
+        termValue = coefficient;
+        return true;
+    }
+
+    // 区间约束以 "常数 关系符" 开头
+    private boolean isConstantBeforeOperator() throws IOException {
+        int k = peek(0) == SIGN ? 1 : 0;
+        return (peek(k) == NUMBER || (peek(k) == NAME && isInfinity(k))) && peek(k + 1) == OPERATOR;
+    }
+
+    // [+|-] 数字 或 [+|-] inf
+    private double readConstant() throws IOException {
+        double sign = 1;
+        if (peek(0) == SIGN) {
+            sign = texts[head].equals("-") ? -1 : 1;
+            next();
+        }
+        if (peek(0) == NUMBER) {
+            double value = values[head];
+            next();
+            return sign * value;
+        }
+        if (peek(0) == NAME && isInfinity(0)) {
+            next();
+            return sign * Double.POSITIVE_INFINITY;
+        }
+        throw error("Expected a number but found " + describe(0));
+    }
+
+    private int readOperator() throws IOException {
+        if (peek(0) != OPERATOR) {
+            throw error("Expected '<=', '>=' or '=' but found " + describe(0));
+        }
+        int operator = (int) values[head];
+        next();
+        return operator;
+    }
+
+    private String expectName() throws IOException {
+        if (peek(0) != NAME) {
+            throw error("Expected a variable name but found " + describe(0));
+        }
+        String name = texts[head];
+        next();
+        return name;
+    }
+
+    // 跳过 "名字:" 标签
+    private void skipLabel() throws IOException {
+        if (peek(0) == NAME && peek(1) == COLON) {
+            next();
+            next();
+        }
+    }
+
+    private boolean isInfinity(int k) {
+        String text = texts[head + k];
+        return text.equalsIgnoreCase("inf") || text.equalsIgnoreCase("infinity");
+    }
+
+    private String describe(int k) throws IOException {
+        switch (peek(k)) {
+            case EOF:
+                return "end of file";
+            case NUMBER:
+                return "number " + values[head + k];
+            case SECTION:
+                return "section keyword";
+            default:
+                return "'" + texts[head + k] + "'";
+        }
+    }
+
+    // 第 k 个未读记号的种类, 不够时读入后续行
+    private int peek(int k) throws IOException {
+        while (head + k >= count) {
+            if (endOfInput || !tokenizeLine()) {
+                endOfInput = true;
+                return EOF;
+            }
+        }
+        return kinds[head + k];
+    }
+
+    private void next() {
+        head++;
+    }
+
+    // 切分下一行, 行首的节关键字变成 SECTION 记号; 文件结束时返回 false
+    private boolean tokenizeLine() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return false;
+        }
+        lineNumber++;
+        // 未读的记号移到数组开头
+        System.arraycopy(kinds, head, kinds, 0, count - head);
+        System.arraycopy(texts, head, texts, 0, count - head);
+        System.arraycopy(values, head, values, 0, count - head);
+        count -= head;
+        head = 0;
+
+        int comment = line.indexOf('\\');
+        if (comment >= 0) {
+            line = line.substring(0, comment);
+        }
+        int k = 0;
+        int keywordEnd = sectionKeyword(line);
+        if (keywordEnd > 0) {
+            k = keywordEnd;
+        }
+        int length = line.length();
+        while (k < length) {
+            char c = line.charAt(k);
+            if (Character.isWhitespace(c)) {
+                k++;
+            } else if (c >= '0' && c <= '9' || c == '.') {
+                int begin = k;
+                while (k < length && (Character.isDigit(line.charAt(k)) || line.charAt(k) == '.')) {
+                    k++;
+                }
+                // 指数部分只在后面确实跟着数字时才算数
+                if (k < length && (line.charAt(k) == 'e' || line.charAt(k) == 'E')) {
+                    int exponent = k + 1;
+                    if (exponent < length && (line.charAt(exponent) == '+' || line.charAt(exponent) == '-')) {
+                        exponent++;
+                    }
+                    if (exponent < length && Character.isDigit(line.charAt(exponent))) {
+                        k = exponent;
+                        while (k < length && Character.isDigit(line.charAt(k))) {
+                            k++;
+                        }
+                    }
+                }
+                String text = line.substring(begin, k);
+                try {
+                    add(NUMBER, text, Double.parseDouble(text));
+                } catch (NumberFormatException e) {
+                    throw error("Malformed number " + text);
+                }
+            } else if (c == '<' || c == '>' || c == '=') {
+                int begin = k++;
+                if (k < length && (line.charAt(k) == '=' || (c == '=' && (line.charAt(k) == '<' || line.charAt(k) == '>')))) {
+                    k++;
+                }
+                String text = line.substring(begin, k);
+                add(OPERATOR, text, text.indexOf('<') >= 0 ? LE : text.indexOf('>') >= 0 ? GE : EQ);
+            } else if (c == '+' || c == '-') {
+                add(SIGN, c == '+' ? "+" : "-", 0);
+                k++;
+            } else if (c == ':') {
+                add(COLON, ":", 0);
+                k++;
+            } else if (c == '[' || c == '^') {
+                throw error("Quadratic terms are not supported");
+            } else if (isNameChar(c)) {
+                int begin = k;
+                while (k < length && (isNameChar(line.charAt(k)) || Character.isDigit(line.charAt(k)) || line.charAt(k) == '.')) {
+                    k++;
+                }
+                add(NAME, line.substring(begin, k), 0);
+            } else {
+                throw error("Unexpected character '" + c + "'");
+            }
+        }
+        return true;
+    }
+
+    // 行首是节关键字时记下 SECTION 记号并返回关键字之后的位置, 否则返回 0
+    private int sectionKeyword(String line) throws IOException {
+        int begin = 0;
+        while (begin < line.length() && Character.isWhitespace(line.charAt(begin))) {
+            begin++;
+        }
+        int end = begin;
+        while (end < line.length() && !Character.isWhitespace(line.charAt(end)) && line.charAt(end) != ':') {
+            end++;
+        }
+        if (end < line.length() && line.charAt(end) == ':') {
+            return 0; // 以该词为名字的标签
+        }
+        String word = line.substring(begin, end).toLowerCase();
+        int section;
+        switch (word) {
+            case "max":
+            case "maximize":
+            case "maximise":
+            case "maximum":
+                builder.setMaximize(true);
+                section = OBJECTIVE;
+                break;
+            case "min":
+            case "minimize":
+            case "minimise":
+            case "minimum":
+                builder.setMaximize(false);
+                section = OBJECTIVE;
+                break;
+            case "subject":
+            case "such":
+                // "subject to" / "such that"
+                String rest = line.substring(end).trim().toLowerCase();
+                String second = word.equals("subject") ? "to" : "that";
+                if (!rest.startsWith(second) || (rest.length() > second.length()
+                        && !Character.isWhitespace(rest.charAt(second.length())))) {
+                    return 0;
+                }
+                end = line.toLowerCase().indexOf(second, end) + second.length();
+                section = CONSTRAINTS;
+                break;
+            case "st":
+            case "st.":
+            case "s.t.":
+                section = CONSTRAINTS;
+                break;
+            case "bound":
+            case "bounds":
+                section = BOUNDS;
+                break;
+            case "gen":
+            case "general":
+            case "generals":
+            case "integer":
+            case "integers":
+                section = GENERALS;
+                break;
+            case "bin":
+            case "binary":
+            case "binaries":
+                section = BINARIES;
+                break;
+            case "semi":
+            case "semis":
+            case "semi-continuous":
+            case "sos":
+                throw error("Section '" + word + "' is not supported");
+            case "end":
+                section = END;
+                break;
+            default:
+                return 0;
+        }
+        add(SECTION, word, section);
+        return end;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetter(c) || "!\"#$%&()/,;?@_`'{}|~".indexOf(c) >= 0;
+    }
+
+    private void add(int kind, String text, double value) {
+        if (count == kinds.length) {
+            kinds = Arrays.copyOf(kinds, count * 2);
+            texts = Arrays.copyOf(texts, count * 2);
+            values = Arrays.copyOf(values, count * 2);
+        }
+        kinds[count] = kind;
+        texts[count] = text;
+        values[count] = value;
+        count++;
+    }
+
+    private IOException error(String message) {
+        return new IOException("Invalid LP file at line " + lineNumber + ": " + message);
+    }
+}
@@ -0,0 +1,61 @@
+package com.scuse.io;
+
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+// .lpb 二进制模型格式, 小端序, 所有节按 8 字节对齐:
+//   文件头 64 字节: magic "LPB\0", 版本 (short), 标志 (short), 变量个数, 约束个数 (int),
+//                   非零元个数 (long), 解的个数 (int), 优化类型 (byte), 文件总长度 (long, 偏移 32)
+//   目标函数系数 double[n], 右端项 double[m], 约束符号 byte[m]
+//   稠密布局: 系数 double[m * n], 按行存放
+//   稀疏布局: 行起点 long[m + 1], 列号 int[nnz], 值 double[nnz]
+//   有变量界时 (版本 2): 下界 double[n], 上界 double[n]
+//   有整数变量时 (版本 3): 每个变量一个字节, 1 表示整数变量
+//   每个解: 变量个数 (long), 目标值 (double), 变量值 double[k]
+final class LpbFormat {
+    static final int MAGIC = 0x0042504C; // "LPB\0"
+    static final short VERSION = 3; // 版本 1 没有变量界, 版本 2 没有整数变量, 仍然可以读取
+    static final short FLAG_SPARSE = 1;
+    static final short FLAG_BOUNDS = 2;
+    static final short FLAG_INTEGERS = 4;
+    static final int HEADER_SIZE = 64;
+
+    static final long OFFSET_MAGIC = 0;
+    static final long OFFSET_VERSION = 4;
+    static final long OFFSET_FLAGS = 6;
+    static final long OFFSET_VARIABLES = 8;
+    static final long OFFSET_CONSTRAINTS = 12;
+    static final long OFFSET_NONZEROS = 16;
+    static final long OFFSET_SOLUTIONS = 24;
+    static final long OFFSET_OPTIMIZATION = 28;
+    static final long OFFSET_FILE_SIZE = 32;
+
+    static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+    static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    // 约束符号和优化类型按下标编码, 0 表示未设置
+    static final String[] SIGNS = {null, "<=", ">=", "=", "<", ">"};
+    static final String[] OPTIMIZATIONS = {"", "Maximize", "Minimize"};
+
+    private LpbFormat() {
+    }
+
+    static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    static byte encode(String[] table, String value, String what) {
+        for (int k = 1; k < table.length; k++) {
+            if (table[k].equals(value)) {
+                return (byte) k;
+            }
+        }
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        throw new IllegalArgumentException("Unsupported " + what + " " + value);
+    }
+}
@@ -0,0 +1,139 @@
+package com.scuse.io;
+
+import com.scuse.model.ConstraintEquation;
+import com.scuse.model.MathModel;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.scuse.io.LpbFormat.*;
+
+// 读取 .lpb 二进制模型文件: 整个文件映射为 MemorySegment, 各节按偏移整块复制到数组, 不逐个解析数值
+public class ModelBinaryReader {
+    private ModelBinaryReader() {
+    }
+
+    // 把文件中的模型读入 model, 原有内容被清空
+    public static void read(Path path, MathModel model) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             Arena arena = Arena.ofConfined()) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw invalid(path, "file is shorter than the header");
+            }
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            if (file.get(INT, OFFSET_MAGIC) != MAGIC) {
+                throw invalid(path, "not an .lpb file");
+            }
+            short version = file.get(SHORT, OFFSET_VERSION);
+            if (version < 1 || version > VERSION) {
+                throw invalid(path, "unsupported version " + version);
+            }
+            if (file.get(LONG, OFFSET_FILE_SIZE) != size) {
+                throw invalid(path, "file is truncated");
+            }
+            short flags = file.get(SHORT, OFFSET_FLAGS);
+            boolean sparse = (flags & FLAG_SPARSE) != 0;
+            boolean hasBounds = (flags & FLAG_BOUNDS) != 0;
+            boolean hasIntegers = (flags & FLAG_INTEGERS) != 0;
+            int n = file.get(INT, OFFSET_VARIABLES);
+            int m = file.get(INT, OFFSET_CONSTRAINTS);
+            long nonzeros = file.get(LONG, OFFSET_NONZEROS);
+            int numSolutions = file.get(INT, OFFSET_SOLUTIONS);
+            int optimization = file.get(BYTE, OFFSET_OPTIMIZATION);
+            if (n < 0 || m < 0 || nonzeros < 0 || numSolutions < 0
+                    || optimization < 0 || optimization >= OPTIMIZATIONS.length) {
+                throw invalid(path, "corrupt header");
+            }
+
+            long objectiveOffset = HEADER_SIZE;
+            long constantOffset = objectiveOffset + 8L * n;
+            long signOffset = constantOffset + 8L * m;
+            long matrixOffset = align(signOffset + m);
+            long columnOffset = matrixOffset + 8L * (m + 1);
+            long valueOffset = align(columnOffset + 4 * nonzeros);
+            long boundOffset = sparse ? valueOffset + 8 * nonzeros : matrixOffset + 8L * m * n;
+            long integerOffset = hasBounds ? boundOffset + 16L * n : boundOffset;
+            long solutionOffset = hasIntegers ? align(integerOffset + n) : integerOffset;
+            if (solutionOffset > size) {
+                throw invalid(path, "sections exceed the file size");
+            }
+
+            model.clear();
+            double[] objective = new double[n];
+            MemorySegment.copy(file, DOUBLE, objectiveOffset, objective, 0, n);
+            model.getObjectiveFunction().setCoefficients(objective);
+            model.getObjectiveFunction().setOptimizationType(OPTIMIZATIONS[optimization]);
+
+            for (int i = 0; i < m; i++) {
+                double constant = file.get(DOUBLE, constantOffset + 8L * i);
+                int sign = file.get(BYTE, signOffset + i);
+                if (sign <= 0 || sign >= SIGNS.length) {
+                    throw invalid(path, "constraint " + (i + 1) + " has no valid sign");
+                }
+                ConstraintEquation constraint;
+                if (sparse) {
+                    long start = file.get(LONG, matrixOffset + 8L * i);
+                    long end = file.get(LONG, matrixOffset + 8L * (i + 1));
+                    if (start < 0 || end < start || end > nonzeros || end - start > n) {
+                        throw invalid(path, "corrupt row index of constraint " + (i + 1));
+                    }
+                    int count = (int) (end - start);
+                    int[] indices = new int[count];
+                    double[] values = new double[count];
+                    MemorySegment.copy(file, INT, columnOffset + 4 * start, indices, 0, count);
+                    MemorySegment.copy(file, DOUBLE, valueOffset + 8 * start, values, 0, count);
+                    constraint = new ConstraintEquation(n, indices, values, constant, SIGNS[sign]);
+                } else {
+                    double[] row = new double[n];
+                    MemorySegment.copy(file, DOUBLE, matrixOffset + 8L * i * n, row, 0, n);
+                    constraint = new ConstraintEquation();
+                    constraint.setCoefficients(row);
+                    constraint.setConstant(constant);
+                    constraint.setSign(SIGNS[sign]);
+                }
+                model.addConstraint(constraint);
+            }
+
+            if (hasBounds) {
+                for (int j = 0; j < n; j++) {
+                    model.getBounds().setBounds(j, file.get(DOUBLE, boundOffset + 8L * j),
+                            file.get(DOUBLE, boundOffset + 8L * (n + j)));
+                }
+            }
+
+            if (hasIntegers) {
+                for (int j = 0; j < n; j++) {
+                    if (file.get(BYTE, integerOffset + j) != 0) {
+                        model.getObjectiveFunction().setInteger(j, true);
+                    }
+                }
+            }
+
+            long offset = solutionOffset;
+            for (int k = 0; k < numSolutions; k++) {
+                if (offset + 16 > size) {
+                    throw invalid(path, "file is truncated");
+                }
+                long length = file.get(LONG, offset);
+                if (length < 0 || length > (size - offset - 16) / 8) {
+                    throw invalid(path, "corrupt solution " + (k + 1));
+                }
+                double[] variables = new double[(int) length];
+                MemorySegment.copy(file, DOUBLE, offset + 16, variables, 0, variables.length);
+                model.getLPQ().addSolution(file.get(DOUBLE, offset + 8), variables);
+                offset += 16 + 8 * length;
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw invalid(path, e.getMessage());
+        }
+    }
+
+    private static IOException invalid(Path path, String message) {
+        return new IOException("Invalid model file " + path.getFileName() + ": " + message);
+    }
+}
@@ -0,0 +1,149 @@
+package com.scuse.io;
+
+import com.scuse.model.ConstraintEquation;
+import com.scuse.model.MathModel;
+import com.scuse.model.Solution;
+import com.scuse.model.VariableBounds;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+
+import static com.scuse.io.LpbFormat.*;
+
+// 把模型写成 .lpb 二进制文件: 先算出文件长度, 映射整个文件后把基本类型数组整块复制进去.
+// 非零元较少时使用稀疏布局. 超出目标函数变量个数的约束系数和求解时一样被忽略
+public class ModelBinaryWriter {
+    private ModelBinaryWriter() {
+    }
+
+    public static void write(MathModel model, Path path) throws IOException {
+        double[] objective = model.getObjectiveFunction().getCoefficientArray();
+        int n = model.getObjectiveFunction().getNumVariables();
+        List<ConstraintEquation> constraints = model.getConstraints();
+        int m = constraints.size();
+        List<Solution> solutions = model.getLPQ().getSolutions();
+
+        long nonzeros = 0;
+        for (ConstraintEquation constraint : constraints) {
+            nonzeros += rowLength(constraint, n);
+        }
+        // 稀疏布局每个非零元 12 字节, 另加行起点
+        boolean sparse = 12 * nonzeros + 8L * (m + 1) < 8L * m * n;
+
+        long objectiveOffset = HEADER_SIZE;
+        long constantOffset = objectiveOffset + 8L * n;
+        long signOffset = constantOffset + 8L * m;
+        long matrixOffset = align(signOffset + m);
+        long solutionOffset;
+        if (sparse) {
+            solutionOffset = align(matrixOffset + 8L * (m + 1) + 4 * nonzeros) + 8 * nonzeros;
+        } else {
+            solutionOffset = matrixOffset + 8L * m * n;
+        }
+        VariableBounds bounds = model.getBounds();
+        boolean hasBounds = !bounds.isDefault(n);
+        long boundOffset = solutionOffset;
+        if (hasBounds) {
+            solutionOffset += 16L * n;
+        }
+        boolean hasIntegers = model.getObjectiveFunction().hasIntegers(n);
+        long integerOffset = solutionOffset;
+        if (hasIntegers) {
+            solutionOffset = align(solutionOffset + n);
+        }
+        long size = solutionOffset;
+        for (Solution solution : solutions) {
+            size += 16 + 8L * solution.getVariableArray().length;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+
+            file.set(INT, OFFSET_MAGIC, MAGIC);
+            file.set(SHORT, OFFSET_VERSION, VERSION);
+            file.set(SHORT, OFFSET_FLAGS, (short) ((sparse ? FLAG_SPARSE : 0) | (hasBounds ? FLAG_BOUNDS : 0)
+                    | (hasIntegers ? FLAG_INTEGERS : 0)));
+            file.set(INT, OFFSET_VARIABLES, n);
+            file.set(INT, OFFSET_CONSTRAINTS, m);
+            file.set(LONG, OFFSET_NONZEROS, nonzeros);
+            file.set(INT, OFFSET_SOLUTIONS, solutions.size());
+            file.set(BYTE, OFFSET_OPTIMIZATION,
+                    encode(OPTIMIZATIONS, model.getObjectiveFunction().getOptimizationType(), "optimization type"));
+            file.set(LONG, OFFSET_FILE_SIZE, size);
+
+            MemorySegment.copy(objective, 0, file, DOUBLE, objectiveOffset, n);
+            for (int i = 0; i < m; i++) {
+                ConstraintEquation constraint = constraints.get(i);
+                file.set(DOUBLE, constantOffset + 8L * i, constraint.getConstant());
+                file.set(BYTE, signOffset + i, encode(SIGNS, constraint.getSign(), "constraint sign"));
+            }
+
+            if (sparse) {
+                long columnOffset = matrixOffset + 8L * (m + 1);
+                long valueOffset = align(columnOffset + 4 * nonzeros);
+                long start = 0;
+                for (int i = 0; i < m; i++) {
+                    ConstraintEquation constraint = constraints.get(i);
+                    int count = rowLength(constraint, n);
+                    file.set(LONG, matrixOffset + 8L * i, start);
+                    MemorySegment.copy(constraint.getIndices(), 0, file, INT, columnOffset + 4 * start, count);
+                    MemorySegment.copy(constraint.getValues(), 0, file, DOUBLE, valueOffset + 8 * start, count);
+                    start += count;
+                }
+                file.set(LONG, matrixOffset + 8L * m, start);
+            } else {
+                // 映射的新文件内容全为零, 只需写入非零元
+                for (int i = 0; i < m; i++) {
+                    ConstraintEquation constraint = constraints.get(i);
+                    int[] indices = constraint.getIndices();
+                    double[] values = constraint.getValues();
+                    long rowOffset = matrixOffset + 8L * i * n;
+                    for (int e = 0; e < rowLength(constraint, n); e++) {
+                        file.set(DOUBLE, rowOffset + 8L * indices[e], values[e]);
+                    }
+                }
+            }
+
+            if (hasBounds) {
+                for (int j = 0; j < n; j++) {
+                    file.set(DOUBLE, boundOffset + 8L * j, bounds.getLower(j));
+                    file.set(DOUBLE, boundOffset + 8L * (n + j), bounds.getUpper(j));
+                }
+            }
+
+            if (hasIntegers) {
+                BitSet integers = model.getObjectiveFunction().getIntegers();
+                for (int j = integers.nextSetBit(0); j >= 0 && j < n; j = integers.nextSetBit(j + 1)) {
+                    file.set(BYTE, integerOffset + j, (byte) 1);
+                }
+            }
+
+            long offset = solutionOffset;
+            for (Solution solution : solutions) {
+                double[] variables = solution.getVariableArray();
+                file.set(LONG, offset, variables.length);
+                file.set(DOUBLE, offset + 8, solution.getObjectiveValue());
+                MemorySegment.copy(variables, 0, file, DOUBLE, offset + 16, variables.length);
+                offset += 16 + 8L * variables.length;
+            }
+        }
+    }
+
+    // 列号小于 n 的非零元个数 (列号升序)
+    private static int rowLength(ConstraintEquation constraint, int n) {
+        int[] indices = constraint.getIndices();
+        int count = constraint.getNonzeroCount();
+        while (count > 0 && indices[count - 1] >= n) {
+            count--;
+        }
+        return count;
+    }
+}
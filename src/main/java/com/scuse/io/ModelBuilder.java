@@ -0,0 +1,165 @@
+package com.scuse.io;
+
+import com.scuse.model.ConstraintEquation;
+import com.scuse.model.DoubleList;
+import com.scuse.model.MathModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 导入 MPS/LP 文件时逐个收集变量和约束, 最后一次性填入 MathModel.
+// 约束行用 lower <= a^T x <= upper 表示, 两端都有限且不相等时拆成 >= 和 <= 两个约束
+final class ModelBuilder {
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final DoubleList cost = new DoubleList();
+    private final DoubleList colLower = new DoubleList();
+    private final DoubleList colUpper = new DoubleList();
+    private final List<Row> rows = new ArrayList<>();
+    private final BitSet integers = new BitSet();
+    private boolean maximize;
+
+    // 约束行, 系数按加入顺序保存
+    static final class Row {
+        private int[] indices = new int[4];
+        private double[] values = new double[4];
+        private int size;
+        double lower;
+        double upper;
+
+        Row(double lower, double upper) {
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        void add(int column, double value) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            indices[size] = column;
+            values[size] = value;
+            size++;
+        }
+
+        // 按列号排序并合并重复的列
+        private void normalize() {
+            boolean ascending = true;
+            for (int e = 1; e < size && ascending; e++) {
+                ascending = indices[e - 1] < indices[e];
+            }
+            if (ascending) {
+                return;
+            }
+            Integer[] order = new Integer[size];
+            for (int e = 0; e < size; e++) {
+                order[e] = e;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(indices[a], indices[b]));
+            int[] sortedIndices = new int[size];
+            double[] sortedValues = new double[size];
+            int count = 0;
+            for (int e : order) {
+                if (count > 0 && sortedIndices[count - 1] == indices[e]) {
+                    sortedValues[count - 1] += values[e];
+                } else {
+                    sortedIndices[count] = indices[e];
+                    sortedValues[count] = values[e];
+                    count++;
+                }
+            }
+            indices = sortedIndices;
+            values = sortedValues;
+            size = count;
+        }
+    }
+
+    void setMaximize(boolean maximize) {
+        this.maximize = maximize;
+    }
+
+    // 变量的下标, 第一次出现时新建 (费用 0, 界 [0, +inf))
+    int column(String name) {
+        Integer index = columns.get(name);
+        if (index != null) {
+            return index;
+        }
+        int j = cost.size();
+        columns.put(name, j);
+        cost.addDouble(0);
+        colLower.addDouble(0);
+        colUpper.addDouble(Double.POSITIVE_INFINITY);
+        return j;
+    }
+
+    int getNumColumns() {
+        return cost.size();
+    }
+
+    // 同一变量多次出现时系数相加
+    void addCost(int j, double value) {
+        cost.setDouble(j, cost.getDouble(j) + value);
+    }
+
+    double getLower(int j) {
+        return colLower.getDouble(j);
+    }
+
+    double getUpper(int j) {
+        return colUpper.getDouble(j);
+    }
+
+    void setLower(int j, double value) {
+        colLower.setDouble(j, value);
+    }
+
+    void setUpper(int j, double value) {
+        colUpper.setDouble(j, value);
+    }
+
+    void setInteger(int j) {
+        integers.set(j);
+    }
+
+    Row addRow(double lower, double upper) {
+        Row row = new Row(lower, upper);
+        rows.add(row);
+        return row;
+    }
+
+    // 把收集到的模型填入 model, 原有内容被清空; 两端都无穷的自由行被丢弃
+    void build(MathModel model) {
+        int n = cost.size();
+        model.clear();
+        model.getObjectiveFunction().setCoefficients(cost.array());
+        model.getObjectiveFunction().setOptimizationType(maximize ? "Maximize" : "Minimize");
+        for (Row row : rows) {
+            row.normalize();
+            int[] indices = Arrays.copyOf(row.indices, row.size);
+            double[] values = Arrays.copyOf(row.values, row.size);
+            boolean hasLower = row.lower > Double.NEGATIVE_INFINITY;
+            boolean hasUpper = row.upper < Double.POSITIVE_INFINITY;
+            if (hasLower && hasUpper && row.lower == row.upper) {
+                model.addConstraint(new ConstraintEquation(n, indices, values, row.lower, "="));
+            } else {
+                if (hasLower) {
+                    model.addConstraint(new ConstraintEquation(n, indices, values, row.lower, ">="));
+                }
+                if (hasUpper) {
+                    model.addConstraint(new ConstraintEquation(n, indices, values, row.upper, "<="));
+                }
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            double lower = colLower.getDouble(j);
+            double upper = colUpper.getDouble(j);
+            if (lower != 0 || upper != Double.POSITIVE_INFINITY) {
+                model.getBounds().setBounds(j, lower, upper);
+            }
+        }
+        model.getObjectiveFunction().getIntegers().or(integers);
+    }
+}
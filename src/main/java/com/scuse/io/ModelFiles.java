@@ -0,0 +1,48 @@
+package com.scuse.io;
+
+import com.scuse.model.MathModel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// 按扩展名选择模型文件的读写方式
+public class ModelFiles {
+    // 打开对话框和批量求解接受的扩展名
+    public static final String[] EXTENSIONS = {"json", "lpb", "mps", "lp"};
+
+    private ModelFiles() {
+    }
+
+    public static void read(Path path, MathModel model) throws IOException {
+        switch (extension(path)) {
+            case "lpb":
+                ModelBinaryReader.read(path, model);
+                break;
+            case "mps":
+                MpsReader.read(path, model);
+                break;
+            case "lp":
+                LpFileReader.read(path, model);
+                break;
+            default:
+                ModelJsonReader.read(path, model);
+                break;
+        }
+    }
+
+    // 只能保存为 JSON 或 .lpb, 其他扩展名按 JSON 写出
+    public static void write(MathModel model, Path path) throws IOException {
+        if (extension(path).equals("lpb")) {
+            ModelBinaryWriter.write(model, path);
+        } else {
+            ModelJsonWriter.write(model, path);
+        }
+    }
+
+    private static String extension(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+}
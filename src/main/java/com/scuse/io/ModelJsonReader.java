@@ -0,0 +1,502 @@
+package com.scuse.io;
+
+import com.scuse.model.ConstraintEquation;
+import com.scuse.model.DoubleList;
+import com.scuse.model.MathModel;
+import com.scuse.solver.Sensitivity;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// 流式读取模型 JSON (格式与界面的 Save/Open 相同), 不建立 JSONObject 树;
+// 系数直接读入基本类型数组, 约束行只保存非零元. 键的顺序任意, 不认识的键被跳过
+public class ModelJsonReader {
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int k = 1; k < POWERS_OF_TEN.length; k++) {
+            POWERS_OF_TEN[k] = POWERS_OF_TEN[k - 1] * 10;
+        }
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[1 << 16];
+    private int position;
+    private int limit;
+    private int line = 1;
+    private final StringBuilder token = new StringBuilder();
+
+    // 当前读入的数组: 稠密值, 以及其中非零元的位置和值
+    private double[] dense = new double[16];
+    private int denseLength;
+    private int[] nonzeroIndex = new int[16];
+    private double[] nonzeroValue = new double[16];
+    private int nonzeroCount;
+
+    public ModelJsonReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public static void read(Path path, MathModel model) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+            new ModelJsonReader(reader).read(model);
+        }
+    }
+
+    // 把 JSON 中的模型读入 model, 原有内容被清空
+    public void read(MathModel model) throws IOException {
+        model.clear();
+        expect('{');
+        if (!consume('}')) {
+            do {
+                String key = readString();
+                expect(':');
+                switch (key) {
+                    case "objectiveFunction":
+                        readObjectiveFunction(model);
+                        break;
+                    case "constraints":
+                        expect('[');
+                        if (!consume(']')) {
+                            do {
+                                model.addConstraint(readConstraint());
+                            } while (consume(','));
+                            expect(']');
+                        }
+                        break;
+                    case "bounds":
+                        readBounds(model);
+                        break;
+                    case "solutions":
+                        expect('[');
+                        if (!consume(']')) {
+                            do {
+                                readSolution(model);
+                            } while (consume(','));
+                            expect(']');
+                        }
+                        break;
+                    default:
+                        // numVariables 和 numConstraints 可以由数组长度得到
+                        skipValue();
+                        break;
+                }
+            } while (consume(','));
+            expect('}');
+        }
+    }
+
+    private void readObjectiveFunction(MathModel model) throws IOException {
+        expect('{');
+        if (consume('}')) {
+            return;
+        }
+        do {
+            String key = readString();
+            expect(':');
+            switch (key) {
+                case "coefficients":
+                    readArray(false);
+                    model.getObjectiveFunction().setCoefficients(Arrays.copyOf(dense, denseLength));
+                    break;
+                case "optimization":
+                    model.getObjectiveFunction().setOptimizationType(readString());
+                    break;
+                case "integers":
+                    // 整数变量的下标, 从 0 开始
+                    readArray(false);
+                    for (int k = 0; k < denseLength; k++) {
+                        double j = dense[k];
+                        if (j < 0 || j != Math.rint(j) || j > Integer.MAX_VALUE) {
+                            throw error("Invalid integer variable index " + j);
+                        }
+                        model.getObjectiveFunction().setInteger((int) j, true);
+                    }
+                    break;
+                default:
+                    skipValue();
+                    break;
+            }
+        } while (consume(','));
+        expect('}');
+    }
+
+    // {"lower": [...], "upper": [...]}, null 表示无穷
+    private void readBounds(MathModel model) throws IOException {
+        expect('{');
+        if (consume('}')) {
+            return;
+        }
+        do {
+            String key = readString();
+            expect(':');
+            switch (key) {
+                case "lower":
+                    double[] lower = readBoundArray(Double.NEGATIVE_INFINITY);
+                    for (int j = 0; j < lower.length; j++) {
+                        model.getBounds().setLower(j, lower[j]);
+                    }
+                    break;
+                case "upper":
+                    double[] upper = readBoundArray(Double.POSITIVE_INFINITY);
+                    for (int j = 0; j < upper.length; j++) {
+                        model.getBounds().setUpper(j, upper[j]);
+                    }
+                    break;
+                default:
+                    skipValue();
+                    break;
+            }
+        } while (consume(','));
+        expect('}');
+    }
+
+    private double[] readBoundArray(double infinity) throws IOException {
+        DoubleList values = new DoubleList();
+        expect('[');
+        if (!consume(']')) {
+            do {
+                skipWhitespace();
+                if (peek() == 'n') {
+                    skipValue();
+                    values.addDouble(infinity);
+                } else {
+                    values.addDouble(readNumber());
+                }
+            } while (consume(','));
+            expect(']');
+        }
+        return values.array();
+    }
+
+    private ConstraintEquation readConstraint() throws IOException {
+        int length = 0;
+        int[] indices = new int[0];
+        double[] values = new double[0];
+        String sign = null;
+        double constant = 0;
+        expect('{');
+        if (!consume('}')) {
+            do {
+                String key = readString();
+                expect(':');
+                switch (key) {
+                    case "coefficients":
+                        readArray(true);
+                        length = denseLength;
+                        indices = Arrays.copyOf(nonzeroIndex, nonzeroCount);
+                        values = Arrays.copyOf(nonzeroValue, nonzeroCount);
+                        break;
+                    case "symbol":
+                        sign = readString();
+                        break;
+                    case "constant":
+                        constant = readNumber();
+                        break;
+                    default:
+                        skipValue();
+                        break;
+                }
+            } while (consume(','));
+            expect('}');
+        }
+        if (sign == null) {
+            throw error("Constraint without symbol");
+        }
+        return new ConstraintEquation(length, indices, values, constant, sign);
+    }
+
+    private void readSolution(MathModel model) throws IOException {
+        double objectiveValue = 0;
+        double[] variables = new double[0];
+        Sensitivity sensitivity = null;
+        expect('{');
+        if (!consume('}')) {
+            do {
+                String key = readString();
+                expect(':');
+                switch (key) {
+                    case "Variables":
+                        readArray(false);
+                        variables = Arrays.copyOf(dense, denseLength);
+                        break;
+                    case "objectiveValue":
+                        objectiveValue = readNumber();
+                        break;
+                    case "sensitivity":
+                        sensitivity = readSensitivity();
+                        break;
+                    default:
+                        skipValue();
+                        break;
+                }
+            } while (consume(','));
+            expect('}');
+        }
+        model.getLPQ().addSolution(objectiveValue, variables, sensitivity);
+    }
+
+    private Sensitivity readSensitivity() throws IOException {
+        double[] shadowPrices = null;
+        double[] constantLower = null;
+        double[] constantUpper = null;
+        double[] reducedCosts = null;
+        double[] costLower = null;
+        double[] costUpper = null;
+        expect('{');
+        if (!consume('}')) {
+            do {
+                String key = readString();
+                expect(':');
+                switch (key) {
+                    case "shadowPrices":
+                        readArray(false);
+                        shadowPrices = Arrays.copyOf(dense, denseLength);
+                        break;
+                    case "constantLower":
+                        constantLower = readBoundArray(Double.NEGATIVE_INFINITY);
+                        break;
+                    case "constantUpper":
+                        constantUpper = readBoundArray(Double.POSITIVE_INFINITY);
+                        break;
+                    case "reducedCosts":
+                        readArray(false);
+                        reducedCosts = Arrays.copyOf(dense, denseLength);
+                        break;
+                    case "costLower":
+                        costLower = readBoundArray(Double.NEGATIVE_INFINITY);
+                        break;
+                    case "costUpper":
+                        costUpper = readBoundArray(Double.POSITIVE_INFINITY);
+                        break;
+                    default:
+                        skipValue();
+                        break;
+                }
+            } while (consume(','));
+            expect('}');
+        }
+        if (shadowPrices == null || constantLower == null || constantUpper == null
+                || reducedCosts == null || costLower == null || costUpper == null) {
+            throw error("Incomplete sensitivity analysis");
+        }
+        if (constantLower.length != shadowPrices.length || constantUpper.length != shadowPrices.length
+                || costLower.length != reducedCosts.length || costUpper.length != reducedCosts.length) {
+            throw error("Sensitivity arrays of different lengths");
+        }
+        return new Sensitivity(shadowPrices, constantLower, constantUpper, reducedCosts, costLower, costUpper);
+    }
+
+    // 读一个数字数组; sparse 为 true 时只记录非零元, 否则记录全部值
+    private void readArray(boolean sparse) throws IOException {
+        denseLength = 0;
+        nonzeroCount = 0;
+        expect('[');
+        if (consume(']')) {
+            return;
+        }
+        do {
+            double value = readNumber();
+            if (sparse) {
+                if (value != 0) {
+                    if (nonzeroCount == nonzeroIndex.length) {
+                        nonzeroIndex = Arrays.copyOf(nonzeroIndex, nonzeroCount * 2);
+                        nonzeroValue = Arrays.copyOf(nonzeroValue, nonzeroCount * 2);
+                    }
+                    nonzeroIndex[nonzeroCount] = denseLength;
+                    nonzeroValue[nonzeroCount] = value;
+                    nonzeroCount++;
+                }
+            } else {
+                if (denseLength == dense.length) {
+                    dense = Arrays.copyOf(dense, denseLength * 2);
+                }
+                dense[denseLength] = value;
+            }
+            denseLength++;
+        } while (consume(','));
+        expect(']');
+    }
+
+    // 不超过 15 位有效数字且没有指数的十进制数直接算出: 尾数和 10 的幂都能精确表示, 一次除法即正确舍入;
+    // 其余情况交给 Double.parseDouble
+    private double readNumber() throws IOException {
+        skipWhitespace();
+        token.setLength(0);
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1; // 小数点后的位数, -1 表示还没有小数点
+        boolean simple = true;
+        while (true) {
+            int c = peek();
+            if (c >= '0' && c <= '9') {
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fraction >= 0) {
+                    fraction++;
+                }
+            } else if (c == '.' && fraction < 0) {
+                fraction = 0;
+            } else if (c == '-' && token.length() == 0) {
+                // 符号最后处理
+            } else if (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                simple = false;
+            } else {
+                break;
+            }
+            token.append((char) c);
+            position++;
+        }
+        if (token.length() == 0) {
+            throw error("Expected a number");
+        }
+        if (simple && digits <= 15 && fraction <= 22 && token.charAt(token.length() - 1) != '.') {
+            double value = fraction > 0 ? mantissa / POWERS_OF_TEN[fraction] : mantissa;
+            return token.charAt(0) == '-' ? -value : value;
+        }
+        try {
+            return Double.parseDouble(token.toString());
+        } catch (NumberFormatException e) {
+            throw error("Malformed number " + token);
+        }
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        token.setLength(0);
+        while (true) {
+            int c = next();
+            if (c == '"') {
+                return token.toString();
+            }
+            if (c == '\\') {
+                c = next();
+                switch (c) {
+                    case 'b':
+                        token.append('\b');
+                        break;
+                    case 'f':
+                        token.append('\f');
+                        break;
+                    case 'n':
+                        token.append('\n');
+                        break;
+                    case 'r':
+                        token.append('\r');
+                        break;
+                    case 't':
+                        token.append('\t');
+                        break;
+                    case 'u':
+                        int code = 0;
+                        for (int k = 0; k < 4; k++) {
+                            code = code * 16 + Character.digit(next(), 16);
+                        }
+                        token.append((char) code);
+                        break;
+                    default:
+                        token.append((char) c);
+                        break;
+                }
+            } else {
+                token.append((char) c);
+            }
+        }
+    }
+
+    // 跳过任意一个值 (对象, 数组, 字符串, 数字, true/false/null)
+    private void skipValue() throws IOException {
+        skipWhitespace();
+        int c = peek();
+        if (c == '{') {
+            expect('{');
+            if (!consume('}')) {
+                do {
+                    readString();
+                    expect(':');
+                    skipValue();
+                } while (consume(','));
+                expect('}');
+            }
+        } else if (c == '[') {
+            expect('[');
+            if (!consume(']')) {
+                do {
+                    skipValue();
+                } while (consume(','));
+                expect(']');
+            }
+        } else if (c == '"') {
+            readString();
+        } else if (c == 't' || c == 'f' || c == 'n') {
+            while (Character.isLetter(peek())) {
+                position++;
+            }
+        } else {
+            readNumber();
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        skipWhitespace();
+        int c = next();
+        if (c != expected) {
+            throw error("Expected '" + expected + "' but found " + (c < 0 ? "end of input" : "'" + (char) c + "'"));
+        }
+    }
+
+    // 下一个非空白字符是 expected 时读掉它并返回 true
+    private boolean consume(char expected) throws IOException {
+        skipWhitespace();
+        if (peek() == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c == '\n') {
+                line++;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    private int next() throws IOException {
+        int c = peek();
+        if (c < 0) {
+            throw error("Unexpected end of input");
+        }
+        position++;
+        return c;
+    }
+
+    private IOException error(String message) {
+        return new IOException("Invalid model JSON at line " + line + ": " + message);
+    }
+}
@@ -0,0 +1,214 @@
+package com.scuse.io;
+
+import com.scuse.model.ConstraintEquation;
+import com.scuse.model.MathModel;
+import com.scuse.model.Solution;
+import com.scuse.model.VariableBounds;
+import com.scuse.solver.Sensitivity;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+// 流式写出模型 JSON, 格式与 ModelJsonReader 读入的相同; 边生成边经缓冲写入文件通道, 不在内存中拼出整个文档
+public class ModelJsonWriter {
+    private final Writer out;
+
+    public ModelJsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public static void write(MathModel model, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), 1 << 16)) {
+            new ModelJsonWriter(writer).write(model);
+        }
+    }
+
+    public void write(MathModel model) throws IOException {
+        out.write("{\n  \"numVariables\": ");
+        out.write(Integer.toString(model.getObjectiveFunction().getNumVariables()));
+        out.write(",\n  \"numConstraints\": ");
+        out.write(Integer.toString(model.getConstraints().size()));
+
+        // 目标方程
+        out.write(",\n  \"objectiveFunction\": {\"coefficients\": ");
+        writeArray(model.getObjectiveFunction().getCoefficientArray());
+        out.write(", \"optimization\": ");
+        writeString(model.getObjectiveFunction().getOptimizationType());
+        // 整数变量的下标 (从 0 开始), 没有时不写
+        int numVariables = model.getObjectiveFunction().getNumVariables();
+        if (model.getObjectiveFunction().hasIntegers(numVariables)) {
+            out.write(", \"integers\": [");
+            BitSet integers = model.getObjectiveFunction().getIntegers();
+            boolean firstInteger = true;
+            for (int j = integers.nextSetBit(0); j >= 0 && j < numVariables; j = integers.nextSetBit(j + 1)) {
+                if (!firstInteger) {
+                    out.write(", ");
+                }
+                firstInteger = false;
+                out.write(Integer.toString(j));
+            }
+            out.write(']');
+        }
+        out.write('}');
+
+        // 约束方程, 每行一个
+        out.write(",\n  \"constraints\": [");
+        boolean first = true;
+        for (ConstraintEquation constraint : model.getConstraints()) {
+            out.write(first ? "\n    " : ",\n    ");
+            first = false;
+            out.write("{\"coefficients\": ");
+            writeRow(constraint);
+            out.write(", \"symbol\": ");
+            writeString(constraint.getSign());
+            out.write(", \"constant\": ");
+            writeNumber(constraint.getConstant());
+            out.write('}');
+        }
+        out.write(first ? "]" : "\n  ]");
+
+        // 变量的上下界, 只在不是默认的 x >= 0 时写出; 无穷写成 null
+        int n = model.getObjectiveFunction().getNumVariables();
+        VariableBounds bounds = model.getBounds();
+        if (!bounds.isDefault(n)) {
+            out.write(",\n  \"bounds\": {\"lower\": [");
+            for (int j = 0; j < n; j++) {
+                if (j > 0) {
+                    out.write(", ");
+                }
+                writeBound(bounds.getLower(j));
+            }
+            out.write("], \"upper\": [");
+            for (int j = 0; j < n; j++) {
+                if (j > 0) {
+                    out.write(", ");
+                }
+                writeBound(bounds.getUpper(j));
+            }
+            out.write("]}");
+        }
+
+        // 解
+        out.write(",\n  \"solutions\": [");
+        first = true;
+        for (Solution solution : model.getLPQ().getSolutions()) {
+            out.write(first ? "\n    " : ",\n    ");
+            first = false;
+            out.write("{\"Variables\": ");
+            writeArray(solution.getVariableArray());
+            out.write(", \"objectiveValue\": ");
+            writeNumber(solution.getObjectiveValue());
+            if (solution.getSensitivity() != null) {
+                writeSensitivity(solution.getSensitivity());
+            }
+            out.write('}');
+        }
+        out.write(first ? "]" : "\n  ]");
+        out.write("\n}\n");
+        out.flush();
+    }
+
+    // 灵敏度分析; 范围可以是无穷, 和变量界一样写成 null
+    private void writeSensitivity(Sensitivity sensitivity) throws IOException {
+        out.write(", \"sensitivity\": {\"shadowPrices\": ");
+        writeArray(sensitivity.getShadowPrices());
+        out.write(", \"constantLower\": ");
+        writeBoundArray(sensitivity.getConstantLower());
+        out.write(", \"constantUpper\": ");
+        writeBoundArray(sensitivity.getConstantUpper());
+        out.write(", \"reducedCosts\": ");
+        writeArray(sensitivity.getReducedCosts());
+        out.write(", \"costLower\": ");
+        writeBoundArray(sensitivity.getCostLower());
+        out.write(", \"costUpper\": ");
+        writeBoundArray(sensitivity.getCostUpper());
+        out.write('}');
+    }
+
+    private void writeBoundArray(double[] values) throws IOException {
+        out.write('[');
+        for (int j = 0; j < values.length; j++) {
+            if (j > 0) {
+                out.write(", ");
+            }
+            writeBound(values[j]);
+        }
+        out.write(']');
+    }
+
+    private void writeArray(double[] values) throws IOException {
+        out.write('[');
+        for (int j = 0; j < values.length; j++) {
+            if (j > 0) {
+                out.write(", ");
+            }
+            writeNumber(values[j]);
+        }
+        out.write(']');
+    }
+
+    // 稀疏行按稠密数组写出, 零系数补 0
+    private void writeRow(ConstraintEquation constraint) throws IOException {
+        int[] indices = constraint.getIndices();
+        double[] values = constraint.getValues();
+        int e = 0;
+        out.write('[');
+        for (int j = 0; j < constraint.getLength(); j++) {
+            if (j > 0) {
+                out.write(", ");
+            }
+            if (e < constraint.getNonzeroCount() && indices[e] == j) {
+                writeNumber(values[e++]);
+            } else {
+                out.write('0');
+            }
+        }
+        out.write(']');
+    }
+
+    private void writeBound(double value) throws IOException {
+        if (Double.isInfinite(value)) {
+            out.write("null");
+        } else {
+            writeNumber(value);
+        }
+    }
+
+    private void writeNumber(double value) throws IOException {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("JSON does not allow non-finite number " + value);
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.write(Long.toString((long) value));
+        } else {
+            out.write(Double.toString(value));
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        if (value != null) {
+            for (int k = 0; k < value.length(); k++) {
+                char c = value.charAt(k);
+                if (c == '"' || c == '\\') {
+                    out.write('\\');
+                    out.write(c);
+                } else if (c < 0x20) {
+                    out.write(String.format("\\u%04x", (int) c));
+                } else {
+                    out.write(c);
+                }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,399 @@
+package com.scuse.io;
+
+import com.scuse.model.MathModel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 逐行读取 MPS 文件 (定长或自由格式), 支持 OBJSENSE, ROWS, COLUMNS, RHS, RANGES 和 BOUNDS 节.
+// 只使用第一个 RHS/RANGES/BOUNDS 集合; 目标行的常数项被忽略. INTORG/INTEND 标记之间的列和 BV, LI, UI 界的列是整数变量
+public class MpsReader {
+    private static final int TYPE_N = -1; // 目标行或其他自由行
+
+    private final BufferedReader reader;
+    private final boolean fixed;
+    private final ModelBuilder builder = new ModelBuilder();
+    private final Map<String, Integer> rowIndex = new HashMap<>();
+    private final List<ModelBuilder.Row> rows = new ArrayList<>();
+    private final String[] fields = new String[6];
+    private int fieldCount;
+    private int lineNumber;
+    private String objectiveRow;
+    private String rhsSet;
+    private String rangeSet;
+    private String boundSet;
+    private boolean integerColumns; // 在 INTORG 和 INTEND 标记之间
+
+    // 当前列: COLUMNS 节中同一列的系数是连续的, 记住上一列避免重复查找
+    private String lastColumnName;
+    private int lastColumn;
+
+    public MpsReader(Reader reader, boolean fixed) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+        this.fixed = fixed;
+    }
+
+    // 自由格式也能读取名字中不含空格的定长格式文件
+    public static void read(Path path, MathModel model) throws IOException {
+        read(path, model, false);
+    }
+
+    public static void read(Path path, MathModel model, boolean fixed) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            new MpsReader(reader, fixed).read(model);
+        }
+    }
+
+    // 把 MPS 中的模型读入 model, 原有内容被清空
+    public void read(MathModel model) throws IOException {
+        String section = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.charAt(0) == '*') {
+                continue;
+            }
+            if (line.charAt(0) != ' ' && line.charAt(0) != '\t') {
+                // 节名从第一列开始
+                String[] header = line.trim().split("\\s+");
+                section = header[0].toUpperCase();
+                switch (section) {
+                    case "NAME":
+                    case "ROWS":
+                    case "COLUMNS":
+                    case "RHS":
+                    case "RANGES":
+                    case "BOUNDS":
+                        break;
+                    case "OBJSENSE":
+                        if (header.length > 1) {
+                            setObjectiveSense(header[1]);
+                        }
+                        break;
+                    case "ENDATA":
+                        builder.build(model);
+                        return;
+                    default:
+                        throw error("Unsupported section " + section);
+                }
+                continue;
+            }
+            if (section == null) {
+                throw error("Data line before the first section");
+            }
+            split(line);
+            if (fieldCount == 0) {
+                continue;
+            }
+            switch (section) {
+                case "OBJSENSE":
+                    setObjectiveSense(fields[0]);
+                    break;
+                case "ROWS":
+                    readRow();
+                    break;
+                case "COLUMNS":
+                    readColumn();
+                    break;
+                case "RHS":
+                    readRhs();
+                    break;
+                case "RANGES":
+                    readRange();
+                    break;
+                case "BOUNDS":
+                    readBound();
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw error("Missing ENDATA");
+    }
+
+    private void setObjectiveSense(String sense) throws IOException {
+        switch (sense.toUpperCase()) {
+            case "MAX":
+            case "MAXIMIZE":
+                builder.setMaximize(true);
+                break;
+            case "MIN":
+            case "MINIMIZE":
+                builder.setMaximize(false);
+                break;
+            default:
+                throw error("Unknown objective sense " + sense);
+        }
+    }
+
+    // 类型 行名
+    private void readRow() throws IOException {
+        if (fieldCount < 2) {
+            throw error("Expected row type and name");
+        }
+        String name = fields[1];
+        if (rowIndex.containsKey(name)) {
+            throw error("Duplicate row " + name);
+        }
+        switch (fields[0].toUpperCase()) {
+            case "N":
+                if (objectiveRow == null) {
+                    objectiveRow = name;
+                }
+                rowIndex.put(name, TYPE_N);
+                break;
+            case "L":
+                addRow(name, Double.NEGATIVE_INFINITY, 0);
+                break;
+            case "G":
+                addRow(name, 0, Double.POSITIVE_INFINITY);
+                break;
+            case "E":
+                addRow(name, 0, 0);
+                break;
+            default:
+                throw error("Unknown row type " + fields[0]);
+        }
+    }
+
+    private void addRow(String name, double lower, double upper) {
+        rowIndex.put(name, rows.size());
+        rows.add(builder.addRow(lower, upper));
+    }
+
+    // 列名 行名 值 [行名 值]; 标记行: 标记名 'MARKER' 'INTORG' | 'INTEND'
+    private void readColumn() throws IOException {
+        if (fieldCount >= 2 && fields[1].equals("'MARKER'")) {
+            if (fieldCount >= 3 && fields[2].equals("'INTORG'")) {
+                integerColumns = true;
+            } else if (fieldCount >= 3 && fields[2].equals("'INTEND'")) {
+                integerColumns = false;
+            }
+            return;
+        }
+        if (fieldCount != 3 && fieldCount != 5) {
+            throw error("Expected column, row and value");
+        }
+        String name = fields[0];
+        if (!name.equals(lastColumnName)) {
+            lastColumnName = name;
+            lastColumn = builder.column(name);
+            if (integerColumns) {
+                builder.setInteger(lastColumn);
+            }
+        }
+        for (int f = 1; f < fieldCount; f += 2) {
+            String row = fields[f];
+            double value = parseNumber(fields[f + 1]);
+            if (row.equals(objectiveRow)) {
+                builder.addCost(lastColumn, value);
+            } else if (value != 0) {
+                int i = findRow(row);
+                if (i != TYPE_N) {
+                    rows.get(i).add(lastColumn, value);
+                }
+            }
+        }
+    }
+
+    // [集合名] 行名 值 [行名 值]
+    private void readRhs() throws IOException {
+        int first = setNameCount();
+        if (first == 1) {
+            if (rhsSet == null) {
+                rhsSet = fields[0];
+            } else if (!rhsSet.equals(fields[0])) {
+                return;
+            }
+        }
+        for (int f = first; f + 1 < fieldCount; f += 2) {
+            int i = findRow(fields[f]);
+            double value = parseNumber(fields[f + 1]);
+            if (i == TYPE_N) {
+                continue; // 目标行的常数项
+            }
+            ModelBuilder.Row row = rows.get(i);
+            // 先于 RANGES 节, 行的两端中有限的一端就是右端项
+            if (row.lower > Double.NEGATIVE_INFINITY) {
+                row.lower = value;
+            }
+            if (row.upper < Double.POSITIVE_INFINITY) {
+                row.upper = value;
+            }
+        }
+    }
+
+    // [集合名] 行名 R [行名 R]: G 行 [rhs, rhs+|R|], L 行 [rhs-|R|, rhs], E 行按 R 的符号向一侧扩展
+    private void readRange() throws IOException {
+        int first = setNameCount();
+        if (first == 1) {
+            if (rangeSet == null) {
+                rangeSet = fields[0];
+            } else if (!rangeSet.equals(fields[0])) {
+                return;
+            }
+        }
+        for (int f = first; f + 1 < fieldCount; f += 2) {
+            int i = findRow(fields[f]);
+            double range = parseNumber(fields[f + 1]);
+            if (i == TYPE_N) {
+                throw error("RANGES entry for objective row " + fields[f]);
+            }
+            ModelBuilder.Row row = rows.get(i);
+            if (row.lower == row.upper) {
+                if (range >= 0) {
+                    row.upper = row.lower + range;
+                } else {
+                    row.lower = row.upper + range;
+                }
+            } else if (row.upper == Double.POSITIVE_INFINITY) {
+                row.upper = row.lower + Math.abs(range);
+            } else {
+                row.lower = row.upper - Math.abs(range);
+            }
+        }
+    }
+
+    // 类型 [集合名] 列名 [值]
+    private void readBound() throws IOException {
+        String type = fields[0].toUpperCase();
+        boolean needsValue = !(type.equals("FR") || type.equals("MI") || type.equals("PL") || type.equals("BV"));
+        String set;
+        String columnName;
+        String value = null;
+        if (fieldCount == 4 || (fieldCount == 3 && !needsValue)) {
+            set = fields[1];
+            columnName = fields[2];
+            value = fieldCount == 4 ? fields[3] : null;
+        } else if (fieldCount == 3 || fieldCount == 2) {
+            set = null;
+            columnName = fields[1];
+            value = fieldCount == 3 ? fields[2] : null;
+        } else {
+            throw error("Expected bound type, column and value");
+        }
+        if (set != null) {
+            if (boundSet == null) {
+                boundSet = set;
+            } else if (!boundSet.equals(set)) {
+                return;
+            }
+        }
+        if (needsValue && value == null) {
+            throw error("Bound " + type + " needs a value");
+        }
+        int j = builder.column(columnName);
+        double bound = value != null ? parseNumber(value) : 0;
+        switch (type) {
+            case "UP":
+            case "UI":
+                if (type.equals("UI")) {
+                    builder.setInteger(j);
+                }
+                builder.setUpper(j, bound);
+                // 上界为负而下界仍是默认的 0 时, 按惯例下界取 -inf
+                if (bound < 0 && builder.getLower(j) == 0) {
+                    builder.setLower(j, Double.NEGATIVE_INFINITY);
+                }
+                break;
+            case "LO":
+            case "LI":
+                if (type.equals("LI")) {
+                    builder.setInteger(j);
+                }
+                builder.setLower(j, bound);
+                break;
+            case "FX":
+                builder.setLower(j, bound);
+                builder.setUpper(j, bound);
+                break;
+            case "FR":
+                builder.setLower(j, Double.NEGATIVE_INFINITY);
+                builder.setUpper(j, Double.POSITIVE_INFINITY);
+                break;
+            case "MI":
+                builder.setLower(j, Double.NEGATIVE_INFINITY);
+                break;
+            case "PL":
+                builder.setUpper(j, Double.POSITIVE_INFINITY);
+                break;
+            case "BV":
+                builder.setInteger(j);
+                builder.setLower(j, 0);
+                builder.setUpper(j, 1);
+                break;
+            default:
+                throw error("Unsupported bound type " + type);
+        }
+        if (builder.getLower(j) > builder.getUpper(j)) {
+            throw error("Lower bound " + builder.getLower(j) + " of " + columnName
+                    + " exceeds upper bound " + builder.getUpper(j));
+        }
+    }
+
+    // 自由格式中 RHS/RANGES 行的集合名可以省略: 字段个数为奇数时第一个字段是集合名
+    private int setNameCount() throws IOException {
+        if (fieldCount < 2) {
+            throw error("Expected row and value");
+        }
+        return fieldCount % 2 == 1 ? 1 : 0;
+    }
+
+    private int findRow(String name) throws IOException {
+        Integer i = rowIndex.get(name);
+        if (i == null) {
+            throw error("Unknown row " + name);
+        }
+        return i;
+    }
+
+    // 把数据行拆成字段, 空字段不计入
+    private void split(String line) {
+        fieldCount = 0;
+        if (fixed) {
+            // 定长格式的字段位置: 2-3, 5-12, 15-22, 25-36, 40-47, 50-61
+            int[] start = {1, 4, 14, 24, 39, 49};
+            int[] end = {3, 12, 22, 36, 47, 61};
+            for (int f = 0; f < start.length && start[f] < line.length(); f++) {
+                String field = line.substring(start[f], Math.min(end[f], line.length())).trim();
+                if (!field.isEmpty()) {
+                    fields[fieldCount++] = field;
+                }
+            }
+            return;
+        }
+        int k = 0;
+        while (k < line.length() && fieldCount < fields.length) {
+            while (k < line.length() && Character.isWhitespace(line.charAt(k))) {
+                k++;
+            }
+            int begin = k;
+            while (k < line.length() && !Character.isWhitespace(line.charAt(k))) {
+                k++;
+            }
+            if (k > begin) {
+                fields[fieldCount++] = line.substring(begin, k);
+            }
+        }
+    }
+
+    private double parseNumber(String text) throws IOException {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw error("Malformed number " + text);
+        }
+    }
+
+    private IOException error(String message) {
+        return new IOException("Invalid MPS file at line " + lineNumber + ": " + message);
+    }
+}
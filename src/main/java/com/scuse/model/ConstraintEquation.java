@@ -1,27 +1,105 @@
 package com.scuse.model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
+// 约束方程, 系数按稀疏行存储: 只保存非零元的列号 (升序) 和值
 public class ConstraintEquation {
-    private final List<Double> coefficients;
+    private int[] indices;
+    private double[] values;
+    private int nonzeroCount;
+    private int length; // 变量个数 (包括零系数)
+    private final List<Double> coefficients = new CoefficientList();
     private String sign;
     private double constant;
 
     public ConstraintEquation() {
-        coefficients = new ArrayList<>();
+        indices = new int[4];
+        values = new double[4];
     }
 
     public ConstraintEquation(List<Double> coefficients, double constant, String sign) {
-        this.coefficients = coefficients;
+        this();
+        // 不调用可被子类覆盖的 setCoefficients
+        for (Double coefficient : coefficients) {
+            appendCoefficient(coefficient);
+        }
         this.constant = constant;
         this.sign = sign;
     }
 
+    // 直接由稀疏行构造, indices 可以无序但不能重复
+    public ConstraintEquation(int length, int[] indices, double[] values, double constant, String sign) {
+        this.length = length;
+        this.constant = constant;
+        this.sign = sign;
+        this.indices = new int[indices.length];
+        this.values = new double[indices.length];
+        int[] order = new int[indices.length];
+        boolean sorted = true;
+        for (int e = 0; e < order.length; e++) {
+            order[e] = e;
+            sorted &= e == 0 || indices[e - 1] <= indices[e];
+        }
+        // 已经升序时 (文件读入的行) 不需要排序
+        if (!sorted) {
+            Integer[] boxed = new Integer[indices.length];
+            for (int e = 0; e < boxed.length; e++) {
+                boxed[e] = e;
+            }
+            Arrays.sort(boxed, (a, b) -> Integer.compare(indices[a], indices[b]));
+            for (int e = 0; e < boxed.length; e++) {
+                order[e] = boxed[e];
+            }
+        }
+        for (int e : order) {
+            if (indices[e] < 0 || indices[e] >= length) {
+                throw new IndexOutOfBoundsException("Coefficient index " + indices[e] + " outside 0.." + (length - 1));
+            }
+            if (nonzeroCount > 0 && this.indices[nonzeroCount - 1] == indices[e]) {
+                throw new IllegalArgumentException("Duplicate coefficient index " + indices[e]);
+            }
+            if (values[e] != 0) {
+                this.indices[nonzeroCount] = indices[e];
+                this.values[nonzeroCount] = values[e];
+                nonzeroCount++;
+            }
+        }
+    }
+
+    // 稠密视图, 供仍然需要 List 的代码使用
     public List<Double> getCoefficients() {
         return coefficients;
     }
 
+    // 非零元的列号, 有效长度为 getNonzeroCount()
+    public int[] getIndices() {
+        return indices;
+    }
+
+    // 非零元的值, 有效长度为 getNonzeroCount()
+    public double[] getValues() {
+        return values;
+    }
+
+    public int getNonzeroCount() {
+        return nonzeroCount;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    // 改变变量个数: 变长时新增的系数为 0, 变短时丢弃多出的列
+    public void setLength(int length) {
+        while (nonzeroCount > 0 && indices[nonzeroCount - 1] >= length) {
+            nonzeroCount--;
+        }
+        this.length = length;
+    }
+
     public String getSign() {
         return sign;
     }
@@ -39,7 +117,138 @@ public class ConstraintEquation {
     }
 
     public void setCoefficients(List<Double> constraintCoefficients) {
-        coefficients.clear();
-        coefficients.addAll(constraintCoefficients);
+        nonzeroCount = 0;
+        length = 0;
+        for (Double coefficient : constraintCoefficients) {
+            appendCoefficient(coefficient);
+        }
+    }
+
+    // 由稠密系数数组设置, 零系数不保存
+    public void setCoefficients(double[] constraintCoefficients) {
+        nonzeroCount = 0;
+        length = 0;
+        for (double coefficient : constraintCoefficients) {
+            appendCoefficient(coefficient);
+        }
+    }
+
+    public double getCoefficient(int index) {
+        int at = search(index);
+        return at >= 0 ? values[at] : 0;
+    }
+
+    private void appendCoefficient(double value) {
+        if (value != 0) {
+            ensureCapacity(nonzeroCount + 1);
+            indices[nonzeroCount] = length;
+            values[nonzeroCount] = value;
+            nonzeroCount++;
+        }
+        length++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > indices.length) {
+            int size = Math.max(capacity, indices.length * 2);
+            indices = Arrays.copyOf(indices, size);
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    // 二分查找列号, 找不到时返回 -(插入位置) - 1
+    private int search(int index) {
+        return Arrays.binarySearch(indices, 0, nonzeroCount, index);
+    }
+
+    private class CoefficientList extends AbstractList<Double> implements RandomAccess {
+        @Override
+        public Double get(int index) {
+            checkIndex(index, length);
+            int at = search(index);
+            return at >= 0 ? values[at] : 0.0;
+        }
+
+        @Override
+        public Double set(int index, Double value) {
+            checkIndex(index, length);
+            int at = search(index);
+            double old = at >= 0 ? values[at] : 0.0;
+            if (at >= 0) {
+                if (value != 0) {
+                    values[at] = value;
+                } else {
+                    System.arraycopy(indices, at + 1, indices, at, nonzeroCount - at - 1);
+                    System.arraycopy(values, at + 1, values, at, nonzeroCount - at - 1);
+                    nonzeroCount--;
+                }
+            } else if (value != 0) {
+                insertAt(-at - 1, index, value);
+            }
+            return old;
+        }
+
+        @Override
+        public void add(int index, Double value) {
+            checkIndex(index, length + 1);
+            int at = search(index);
+            int from = at >= 0 ? at : -at - 1;
+            for (int e = from; e < nonzeroCount; e++) {
+                indices[e]++;
+            }
+            length++;
+            if (value != 0) {
+                insertAt(from, index, value);
+            }
+            modCount++;
+        }
+
+        @Override
+        public Double remove(int index) {
+            checkIndex(index, length);
+            int at = search(index);
+            double old = at >= 0 ? values[at] : 0.0;
+            int from = at;
+            if (at >= 0) {
+                System.arraycopy(indices, at + 1, indices, at, nonzeroCount - at - 1);
+                System.arraycopy(values, at + 1, values, at, nonzeroCount - at - 1);
+                nonzeroCount--;
+            } else {
+                from = -at - 1;
+            }
+            for (int e = from; e < nonzeroCount; e++) {
+                indices[e]--;
+            }
+            length--;
+            modCount++;
+            return old;
+        }
+
+        @Override
+        public void clear() {
+            nonzeroCount = 0;
+            length = 0;
+            modCount++;
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+
+        private void insertAt(int at, int index, double value) {
+            ensureCapacity(nonzeroCount + 1);
+            System.arraycopy(indices, at, indices, at + 1, nonzeroCount - at);
+            System.arraycopy(values, at, values, at + 1, nonzeroCount - at);
+            indices[at] = index;
+            values[at] = value;
+            nonzeroCount++;
+        }
+
+        private void checkIndex(int index, int size) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+        }
     }
 }
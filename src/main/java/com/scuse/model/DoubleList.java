@@ -0,0 +1,105 @@
+package com.scuse.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+// 以 double[] 为底层存储的 List<Double> 视图, 供仍然需要 List 的代码使用
+public class DoubleList extends AbstractList<Double> implements RandomAccess {
+    private double[] elements;
+    private int size;
+
+    public DoubleList() {
+        elements = new double[8];
+    }
+
+    // 直接包装数组, 不复制
+    public DoubleList(double[] elements) {
+        this.elements = elements;
+        this.size = elements.length;
+    }
+
+    public double getDouble(int index) {
+        checkIndex(index, size);
+        return elements[index];
+    }
+
+    public void setDouble(int index, double value) {
+        checkIndex(index, size);
+        elements[index] = value;
+    }
+
+    public void addDouble(double value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(8, size * 2));
+        }
+        elements[size++] = value;
+        modCount++;
+    }
+
+    // 底层数组, 长度恰好等于 size(); 只有容量多余时才会复制一次
+    public double[] array() {
+        if (elements.length != size) {
+            elements = Arrays.copyOf(elements, size);
+        }
+        return elements;
+    }
+
+    public void setAll(double[] values) {
+        elements = Arrays.copyOf(values, values.length);
+        size = values.length;
+        modCount++;
+    }
+
+    @Override
+    public Double get(int index) {
+        return getDouble(index);
+    }
+
+    @Override
+    public Double set(int index, Double value) {
+        double old = getDouble(index);
+        elements[index] = value;
+        return old;
+    }
+
+    @Override
+    public boolean add(Double value) {
+        addDouble(value);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Double value) {
+        checkIndex(index, size + 1);
+        addDouble(0);
+        System.arraycopy(elements, index, elements, index + 1, size - index - 1);
+        elements[index] = value;
+    }
+
+    @Override
+    public Double remove(int index) {
+        double old = getDouble(index);
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.scuse.model;
 
+import com.scuse.solver.Sensitivity;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,6 +25,18 @@ public class LPQ {
         solutions.add(new Solution(objectiveValue, variableValues));
     }
 
+    public void addSolution(double objectiveValue, double[] variableValues) {
+        solutions.add(new Solution(objectiveValue, variableValues));
+    }
+
+    public void addSolution(double objectiveValue, double[] variableValues, Sensitivity sensitivity) {
+        solutions.add(new Solution(objectiveValue, variableValues, sensitivity));
+    }
+
+    public void addSolution(Solution solution) {
+        solutions.add(solution);
+    }
+
     @Override
     public String toString() {
         if (solutions.isEmpty()) {
@@ -1,17 +1,45 @@
 package com.scuse.model;
 
+import com.scuse.solver.AlternativeOptima;
+import com.scuse.solver.Basis;
+import com.scuse.solver.BranchAndBound;
+import com.scuse.solver.LpProblem;
+import com.scuse.solver.ModelFingerprint;
+import com.scuse.solver.ParametricAnalysis;
+import com.scuse.solver.Presolve;
+import com.scuse.solver.RevisedSimplex;
+import com.scuse.solver.Scaling;
+import com.scuse.solver.Sensitivity;
+import com.scuse.solver.SimplexResult;
+import com.scuse.solver.SolutionCache;
+import com.scuse.solver.SolveStatus;
+import com.scuse.solver.SolverOptions;
+import com.scuse.solver.TableauSimplex;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class MathModel {
     private ObjectiveFunction objectiveFunction;
     private final List<ConstraintEquation> constraints;
     private LPQ lpq;
+    private final VariableBounds bounds = new VariableBounds(); // 导入的模型可能带有变量上下界
+    private SolverOptions solverOptions;
+    private Basis basis; // 上一次最优解的基, 修改右端项或目标函数后从它开始重新求解
+    private final ModelChanges changes = new ModelChanges();
+    private LpProblem problem; // 上一次修正单纯形法用的标准形式, 下次求解时只写入 changes 中的改动
+    private int boundsModCount;
 
     public MathModel() {
         objectiveFunction = new ObjectiveFunction();
         constraints = new ArrayList<>();
         lpq = new LPQ();
+        solverOptions = new SolverOptions();
     }
 
     public ObjectiveFunction getObjectiveFunction() {
@@ -20,6 +48,7 @@ public class MathModel {
 
     public void setObjectiveFunction(ObjectiveFunction objectiveFunction) {
         this.objectiveFunction = objectiveFunction;
+        changes.markStructural();
     }
 
     public List<ConstraintEquation> getConstraints() {
@@ -28,145 +57,277 @@ public class MathModel {
 
     public void addConstraint(ConstraintEquation constraint) {
         constraints.add(constraint);
+        changes.markStructural();
+    }
+
+    // 以下修改方法记录改动的位置, 下一次求解只更新这些位置. 直接修改 getConstraints() 等返回的对象后
+    // 需要调用 markChanged(), 否则求解器可能沿用过期的标准形式
+    public void setObjectiveCoefficient(int j, double value) {
+        if (objectiveFunction.getCoefficientArray()[j] != value) {
+            objectiveFunction.getCoefficients().set(j, value);
+            changes.markCost(j);
+        }
+    }
+
+    public void setCoefficient(int row, int column, double value) {
+        ConstraintEquation constraint = constraints.get(row);
+        if (constraint.getCoefficient(column) != value) {
+            constraint.getCoefficients().set(column, value);
+            changes.markCell(row, column);
+        }
+    }
+
+    public void setConstant(int row, double value) {
+        ConstraintEquation constraint = constraints.get(row);
+        if (constraint.getConstant() != value) {
+            constraint.setConstant(value);
+            changes.markRowBounds(row);
+        }
+    }
+
+    public void setSign(int row, String sign) {
+        ConstraintEquation constraint = constraints.get(row);
+        if (!sign.equals(constraint.getSign())) {
+            constraint.setSign(sign);
+            changes.markRowBounds(row);
+        }
+    }
+
+    public void setOptimizationType(String optimizationType) {
+        if (!optimizationType.equals(objectiveFunction.getOptimizationType())) {
+            objectiveFunction.setOptimizationType(optimizationType);
+            changes.markStructural();
+        }
+    }
+
+    // 模型被直接修改过, 下一次求解重新组装标准形式
+    public void markChanged() {
+        changes.markStructural();
+    }
+
+    // 上一次求解以来记录的改动
+    public ModelChanges getChanges() {
+        return changes;
+    }
+
+    // 调整变量和约束的个数, 保留已有的系数; 新增的系数为 0, 新增的约束为 0 <= 0
+    public void resize(int numVariables, int numConstraints) {
+        if (objectiveFunction.getNumVariables() != numVariables || constraints.size() != numConstraints) {
+            changes.markStructural();
+        }
+        if (objectiveFunction.getNumVariables() != numVariables) {
+            objectiveFunction.setCoefficients(Arrays.copyOf(objectiveFunction.getCoefficientArray(), numVariables));
+            // 去掉的变量的整数要求不留给以后新增的变量
+            objectiveFunction.getIntegers().clear(numVariables, Integer.MAX_VALUE);
+        }
+        if (constraints.size() > numConstraints) {
+            constraints.subList(numConstraints, constraints.size()).clear();
+        }
+        for (ConstraintEquation constraint : constraints) {
+            constraint.setLength(numVariables);
+        }
+        while (constraints.size() < numConstraints) {
+            constraints.add(new ConstraintEquation(numVariables, new int[0], new double[0], 0, "<="));
+        }
+    }
+
+    // 把约束方程组装成稀疏矩阵, 只遍历非零元; 超出目标函数变量个数的系数被忽略
+    public SparseMatrix getConstraintMatrix() {
+        int numVariables = objectiveFunction.getNumVariables();
+        SparseMatrix.Builder builder = SparseMatrix.builder(constraints.size(), numVariables);
+        for (int i = 0; i < constraints.size(); i++) {
+            ConstraintEquation constraint = constraints.get(i);
+            int[] indices = constraint.getIndices();
+            double[] values = constraint.getValues();
+            for (int e = 0; e < constraint.getNonzeroCount() && indices[e] < numVariables; e++) {
+                builder.add(i, indices[e], values[e]);
+            }
+        }
+        return builder.build();
+    }
+
+    public VariableBounds getBounds() {
+        return bounds;
     }
 
     public LPQ getLPQ() {
         return lpq;
     }
 
+    // 换成另一个模型之前调用, 同时丢弃上一个模型的基
     public void clear() {
         objectiveFunction.clear();
         constraints.clear();
+        bounds.clear();
         lpq.getSolutions().clear();
+        basis = null;
+        changes.markStructural();
     }
 
-    public void solve() {
-        int numVariables = objectiveFunction.getCoefficients().size();
-        int numConstraints = constraints.size();
-        boolean isMaximize = objectiveFunction.getOptimizationType().equals("Maximize");
-        int flag = isMaximize ? -1 : 1;
+    // 丢弃保存的基, 下一次从松弛基开始求解
+    public void resetBasis() {
+        basis = null;
+    }
 
-        // 创建单纯形表
-        int rows = numConstraints + 1; // 包含目标函数行
-        int cols = numVariables + numConstraints + 1; // 包含松弛变量和常数列
+    public SolverOptions getSolverOptions() {
+        return solverOptions;
+    }
 
-        double[][] tableau = new double[rows][cols];
+    public void setSolverOptions(SolverOptions solverOptions) {
+        this.solverOptions = solverOptions;
+    }
 
-        // 填充约束方程
-        for (int i = 0; i < numConstraints; i++) {
-            ConstraintEquation constraint = constraints.get(i);
-            if (constraint.getSign().equals("<")) {
-                constraint.setSign("<=");
-                constraint.setConstant(constraint.getConstant() + 1e-6);
-            }
-            if (constraint.getSign().equals(">")) {
-                constraint.setSign(">=");
-                constraint.setConstant(constraint.getConstant() - 1e-6);
-            }
-            tableau[i + 1][numVariables + numConstraints] = constraint.getConstant();
-            for (int j = 0; j < numVariables; j++) {
-                tableau[i + 1][j] = constraint.getCoefficients().get(j);
-                tableau[0][j] = flag * objectiveFunction.getCoefficients().get(j);
-            }
-            // 根据约束符号处理松弛变量
-            switch (constraint.getSign()) {
-                case "<=":
-                    tableau[i + 1][numVariables + i] = 1;  // 添加松弛变量
-                    break;
-                case ">=":
-                    tableau[i + 1][numVariables + i] = -1; // 添加松弛变量 (负号)
-                    break;
-                case "=":
-                    tableau[i + 1][numVariables + i] = 0;  // 不添加松弛变量
-                    break;
-                default:
-                    throw new IllegalArgumentException("Unsupported constraint operator: " + constraint.getSign());
+    // 求解并返回引擎的原始结果; 只有最优时才把解加入 LPQ, 不打印也不抛出异常.
+    // 设置了解缓存时先按模型指纹查找, 命中就不再求解; 未记录的改动留到下一次真正求解时再写入标准形式
+    public SimplexResult optimize() {
+        SolutionCache cache = solverOptions.getCache();
+        ModelFingerprint fingerprint = null;
+        SimplexResult result = null;
+        if (cache != null) {
+            fingerprint = ModelFingerprint.of(this);
+            // 缓存里没有基, 灵敏度分析需要真正求解
+            if (!solverOptions.isSensitivity()) {
+                result = cache.get(fingerprint);
             }
-            tableau[i + 1][cols - 1] = constraint.getConstant();
-        }
-
-        // 开始单纯形法求解
-        while (true) {
-            // 找到主列 (pivot column)
-            int pivotCol = -1;
-            double extremumValue = isMaximize ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
-
-            for (int j = 0; j < cols - 1; j++) {
-                if (isMaximize && tableau[0][j] < extremumValue) {
-                    extremumValue = tableau[0][j];
-                    pivotCol = j;
-                } else if (!isMaximize && tableau[0][j] > extremumValue) {
-                    extremumValue = tableau[0][j];
-                    pivotCol = j;
-                }
+        }
+        if (result == null) {
+            result = solveModel();
+            if (cache != null) {
+                cache.put(fingerprint, result);
             }
+        }
+        if (result.getStatus() == SolveStatus.OPTIMAL) {
+            lpq.addSolution(result.getObjectiveValue(), result.getVariableValues(), sensitivity());
+        }
+        return result;
+    }
 
-            if ((isMaximize && extremumValue >= 0) || (!isMaximize && extremumValue <= 0)) {
-                // 已经达到最优解
-                break;
-            }
+    // 要求灵敏度分析时在完整的标准形式上从最优基算出; 这时总是用修正单纯形法求解, 不做预处理,
+    // 最优基可以直接使用, 分析的就是返回的那个顶点. 整数规划的最优解不在 LP 松弛的最优基上, 不做分析
+    private Sensitivity sensitivity() {
+        if (!solverOptions.isSensitivity() || objectiveFunction.hasIntegers(objectiveFunction.getNumVariables())) {
+            return null;
+        }
+        return Sensitivity.analyze(problem(), solverOptions, basis);
+    }
 
-            // 找到主行 (pivot row)
-            int pivotRow = -1;
-            double minRatio = Double.MAX_VALUE;
-            for (int i = 1; i < rows; i++) {
-                if (tableau[i][pivotCol] > 0) {
-                    double ratio = tableau[i][cols - 1] / tableau[i][pivotCol];
-                    if (ratio < minRatio) {
-                        minRatio = ratio;
-                        pivotRow = i;
-                    }
-                }
-            }
-            if (pivotRow == -1) {
-                System.out.println("Unbounded solution");
-                throw new IllegalArgumentException("Unbounded solution");
-            }
+    // 按需枚举所有最优顶点, 最多 maxSolutions 个, 每个顶点在从流中取出时加入 LPQ. 先求一次最优解,
+    // 其余顶点在取用时才转轴得到. 在完整的标准形式上枚举, 不做预处理, 预处理可能去掉最优面上的列;
+    // 流建立时复制模型, 之后修改模型不影响它. 整数要求被忽略, 枚举的是 LP 松弛的最优顶点. 没有最优解时流为空
+    public Stream<Solution> optimalSolutions(int maxSolutions) {
+        LpProblem lp = LpProblem.fromModel(this);
+        RevisedSimplex simplex = new RevisedSimplex(lp, solverOptions);
+        if (solverOptions.isWarmStart()) {
+            simplex.setStartingBasis(basis);
+        }
+        if (simplex.solve().getStatus() != SolveStatus.OPTIMAL) {
+            return Stream.empty();
+        }
+        AlternativeOptima optima = new AlternativeOptima(lp, solverOptions, simplex.getBasis(), maxSolutions);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(optima, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(result -> {
+                    Solution solution = new Solution(result.getObjectiveValue(), result.getVariableValues());
+                    lpq.addSolution(solution);
+                    return solution;
+                });
+    }
 
-            // 主元归一化
-            double pivotValue = tableau[pivotRow][pivotCol];
-            for (int j = 0; j < cols; j++) {
-                tableau[pivotRow][j] /= pivotValue;
-            }
+    // 把第 index 行的常数项 (CONSTANT) 或第 index 个目标系数 (COST) 作为参数的分析. 建立时复制模型,
+    // 从上一次的最优基出发; 和枚举最优顶点一样在完整的标准形式上进行, 整数要求被忽略
+    public ParametricAnalysis parametric(ParametricAnalysis.Parameter parameter, int index) {
+        ParametricAnalysis analysis = new ParametricAnalysis(LpProblem.fromModel(this), solverOptions, parameter, index);
+        if (solverOptions.isWarmStart()) {
+            analysis.setStartingBasis(basis);
+        }
+        return analysis;
+    }
 
-            // 消元
-            for (int i = 0; i < rows; i++) {
-                if (i != pivotRow) {
-                    double factor = tableau[i][pivotCol];
-                    for (int j = 0; j < cols; j++) {
-                        tableau[i][j] -= factor * tableau[pivotRow][j];
-                    }
-                }
+    private SimplexResult solveModel() {
+        if (objectiveFunction.hasIntegers(objectiveFunction.getNumVariables())) {
+            return solveInteger();
+        }
+        SimplexResult result;
+        if (solverOptions.getAlgorithm() == SolverOptions.Algorithm.TABLEAU && !solverOptions.isSensitivity()) {
+            result = new TableauSimplex(this, solverOptions).solve();
+        } else {
+            LpProblem lp = problem();
+            if (solverOptions.isPresolve() && !solverOptions.isSensitivity()) {
+                Presolve presolve = new Presolve(lp);
+                LpProblem reduced = presolve.apply();
+                result = presolve.isInfeasible()
+                        ? new SimplexResult(SolveStatus.INFEASIBLE, 0, new double[lp.getNumCols()], 0)
+                        : presolve.postsolve(solveRevised(reduced, presolve));
+            } else {
+                result = solveRevised(lp, null);
             }
         }
+        return result;
+    }
 
-        boolean isFeasible = true;
-        for (int i = 1; i <= numConstraints; i++) {
-            if (tableau[i][numConstraints + numVariables] < 0) {
-                isFeasible = false;
-                break;
-            }
+    // 上一次的标准形式加上记录的改动; 第一次求解, 结构改变或变量界改变时重新组装
+    private LpProblem problem() {
+        if (problem == null || changes.isStructural() || boundsModCount != bounds.getModCount()
+                || problem.getNumRows() != constraints.size() || problem.getNumCols() != objectiveFunction.getNumVariables()) {
+            problem = null; // 组装失败 (例如不支持的符号) 时下次仍然重新组装
+            problem = LpProblem.fromModel(this);
+        } else if (!changes.isEmpty()) {
+            problem = problem.update(this, changes);
         }
-        if (!isFeasible) {
-            System.out.println("Feasible solution");
-            throw new IllegalArgumentException("Infeasible solution");
+        boundsModCount = bounds.getModCount();
+        changes.clear();
+        return problem;
+    }
+
+    // 有整数变量时用分支定界, 节点总是用修正单纯形法求解, 不做预处理 (节点之间只有变量界不同);
+    // 根节点的最优基留给下一次求解热启动
+    private SimplexResult solveInteger() {
+        BranchAndBound branchAndBound = new BranchAndBound(problem(), objectiveFunction.getIntegers(), solverOptions);
+        SimplexResult result = branchAndBound.solve(solverOptions.isWarmStart() ? basis : null);
+        if (branchAndBound.getRootBasis() != null) {
+            basis = branchAndBound.getRootBasis();
         }
+        return result;
+    }
 
-        // 提取解
-        List<Double> variableValues = new ArrayList<>();
-        for (int i = 0; i < numVariables; i++) {
-            double value = 0;
-            for (int j = 1; j < rows; j++) {
-                if (tableau[j][i] == 1) {
-                    value = tableau[j][cols - 1];
-                    break;
-                }
-            }
-            variableValues.add(value);
+    // 预处理过的问题的最优基映射回完整的标准形式再保存, 其他求解路径 (整数规划, 灵敏度, 参数分析) 可以直接使用;
+    // 上一次的基只有在预处理没有删除任何行和列时才适合缩小后的问题
+    private SimplexResult solveRevised(LpProblem lp, Presolve presolve) {
+        Scaling scaling = solverOptions.isScaling() ? new Scaling(lp.getMatrix()) : null;
+        RevisedSimplex simplex = new RevisedSimplex(scaling != null ? scaling.scale(lp) : lp, solverOptions);
+        if (solverOptions.isWarmStart()) {
+            simplex.setStartingBasis(basis);
+        }
+        SimplexResult result = simplex.solve();
+        if (result.getStatus() == SolveStatus.OPTIMAL) {
+            basis = presolve != null ? presolve.postsolve(simplex.getBasis()) : simplex.getBasis();
         }
+        return scaling != null ? scaling.unscale(result) : result;
+    }
 
-        double objectiveValue = tableau[0][cols - 1];
-        lpq.addSolution(objectiveValue, variableValues);
+    public void solve() {
+        SimplexResult result = optimize();
+        switch (result.getStatus()) {
+            case UNBOUNDED:
+                System.out.println("Unbounded solution");
+                throw new IllegalArgumentException("Unbounded solution");
+            case INFEASIBLE:
+                System.out.println("Infeasible solution");
+                throw new IllegalArgumentException("Infeasible solution");
+            case ITERATION_LIMIT:
+                System.out.println("Iteration limit reached");
+                throw new IllegalArgumentException("Iteration limit reached after " + result.getIterations() + " iterations");
+            case TIME_LIMIT:
+                System.out.println("Time limit reached");
+                throw new IllegalArgumentException("Time limit reached after " + result.getIterations() + " iterations");
+            case CANCELLED:
+                System.out.println("Solve cancelled");
+                throw new IllegalArgumentException("Solve cancelled after " + result.getIterations() + " iterations");
+            case NODE_LIMIT:
+                System.out.println("Node limit reached");
+                throw new IllegalArgumentException("Node limit reached after " + result.getIterations() + " iterations");
+            default:
+                break;
+        }
     }
 
     public void printFunction() {
@@ -0,0 +1,74 @@
+package com.scuse.model;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+// 上一次修正单纯形法求解以来, 通过 MathModel 的修改方法做的改动. 求解时据此只更新上一次的标准形式中
+// 变化的部分, 并从上一次的最优基热启动
+public class ModelChanges {
+    private final BitSet costs = new BitSet();          // 改过的目标函数系数
+    private final BitSet rowBounds = new BitSet();      // 改过常数项或符号的约束
+    private final Set<Long> cells = new HashSet<>();    // 改过的约束系数, 行号在高 32 位
+    private boolean structural = true;                  // 行列数, 优化方向或整个模型变了, 需要重新组装
+
+    public boolean isEmpty() {
+        return !structural && costs.isEmpty() && rowBounds.isEmpty() && cells.isEmpty();
+    }
+
+    public boolean isStructural() {
+        return structural;
+    }
+
+    public BitSet getCosts() {
+        return costs;
+    }
+
+    public BitSet getRowBounds() {
+        return rowBounds;
+    }
+
+    public Set<Long> getCells() {
+        return cells;
+    }
+
+    public static int cellRow(long cell) {
+        return (int) (cell >>> 32);
+    }
+
+    public static int cellColumn(long cell) {
+        return (int) cell;
+    }
+
+    void markCost(int j) {
+        costs.set(j);
+    }
+
+    void markRowBounds(int i) {
+        rowBounds.set(i);
+    }
+
+    void markCell(int i, int j) {
+        cells.add(((long) i << 32) | j);
+    }
+
+    void markStructural() {
+        structural = true;
+    }
+
+    void clear() {
+        costs.clear();
+        rowBounds.clear();
+        cells.clear();
+        structural = false;
+    }
+
+    @Override
+    public String toString() {
+        if (structural) {
+            return "rebuild";
+        }
+        return costs.cardinality() + " costs, " + rowBounds.cardinality() + " constraint constants or signs, "
+                + cells.size() + " coefficients";
+    }
+}
@@ -1,20 +1,30 @@
 package com.scuse.model;
 
-import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 public class ObjectiveFunction {
-    private final List<Double> coefficients;
+    private final DoubleList coefficients;
     private String optimizationType;
+    private final BitSet integers = new BitSet(); // 要求取整数值的变量
 
     public ObjectiveFunction() {
-        coefficients = new ArrayList<>();
+        coefficients = new DoubleList();
     }
 
     public List<Double> getCoefficients() {
         return coefficients;
     }
 
+    // 系数数组, 不复制
+    public double[] getCoefficientArray() {
+        return coefficients.array();
+    }
+
+    public int getNumVariables() {
+        return coefficients.size();
+    }
+
     public String getOptimizationType() {
         return optimizationType;
     }
@@ -23,13 +33,37 @@ public class ObjectiveFunction {
         this.optimizationType = optimizationType;
     }
 
+    public boolean isInteger(int j) {
+        return integers.get(j);
+    }
+
+    public void setInteger(int j, boolean integer) {
+        integers.set(j, integer);
+    }
+
+    // 整数变量的下标, 不复制; 可能包含超出变量个数的下标
+    public BitSet getIntegers() {
+        return integers;
+    }
+
+    // 前 n 个变量中是否有整数变量
+    public boolean hasIntegers(int n) {
+        int j = integers.nextSetBit(0);
+        return j >= 0 && j < n;
+    }
+
     public void clear() {
         coefficients.clear();
         optimizationType = "";
+        integers.clear();
     }
 
     public void setCoefficients(List<Double> objCoefficients) {
         coefficients.clear();
         coefficients.addAll(objCoefficients);
     }
+
+    public void setCoefficients(double[] objCoefficients) {
+        coefficients.setAll(objCoefficients);
+    }
 }
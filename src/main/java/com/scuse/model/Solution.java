@@ -1,16 +1,32 @@
 package com.scuse.model;
 
-import java.util.ArrayList;
+import com.scuse.solver.Sensitivity;
+
 import java.util.List;
 
 // 单个解
 public class Solution {
     private double objectiveValue; // 目标函数值
-    private List<Double> variableValues; // 变量值
+    private double[] variableValues; // 变量值
+    private Sensitivity sensitivity; // 灵敏度分析, 没有计算时为 null
 
     public Solution(double objectiveValue, List<Double> variableValues) {
         this.objectiveValue = objectiveValue;
-        this.variableValues = new ArrayList<>(variableValues);
+        this.variableValues = new double[variableValues.size()];
+        for (int i = 0; i < this.variableValues.length; i++) {
+            this.variableValues[i] = variableValues.get(i);
+        }
+    }
+
+    // 直接使用传入的数组, 不复制
+    public Solution(double objectiveValue, double[] variableValues) {
+        this.objectiveValue = objectiveValue;
+        this.variableValues = variableValues;
+    }
+
+    public Solution(double objectiveValue, double[] variableValues, Sensitivity sensitivity) {
+        this(objectiveValue, variableValues);
+        this.sensitivity = sensitivity;
     }
 
     public double getObjectiveValue() {
@@ -18,16 +34,31 @@ public class Solution {
     }
 
     public List<Double> getVariableValues() {
+        return new DoubleList(variableValues);
+    }
+
+    public double[] getVariableArray() {
         return variableValues;
     }
 
+    public Sensitivity getSensitivity() {
+        return sensitivity;
+    }
+
+    public void setSensitivity(Sensitivity sensitivity) {
+        this.sensitivity = sensitivity;
+    }
+
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder();
         result.append("Objective Value: ").append(objectiveValue).append("\n");
         result.append("Variable Values: ");
-        for (int i = 0; i < variableValues.size(); i++) {
-            result.append("x").append(i + 1).append("=").append(variableValues.get(i)).append(" ");
+        for (int i = 0; i < variableValues.length; i++) {
+            result.append("x").append(i + 1).append("=").append(variableValues[i]).append(" ");
+        }
+        if (sensitivity != null) {
+            result.append("\n").append(sensitivity);
         }
         return result.toString();
     }
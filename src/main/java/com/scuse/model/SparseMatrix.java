@@ -0,0 +1,221 @@
+package com.scuse.model;
+
+import java.util.Arrays;
+
+// 稀疏矩阵, 同时保存按列压缩 (CSC) 和按行压缩 (CSR) 两份索引
+public class SparseMatrix {
+    private final int numRows;
+    private final int numCols;
+
+    // CSC: 第 j 列的非零元为 [colStart[j], colStart[j + 1])
+    private final int[] colStart;
+    private final int[] rowIndex;
+    private final double[] colValue;
+
+    // CSR: 第 i 行的非零元为 [rowStart[i], rowStart[i + 1])
+    private final int[] rowStart;
+    private final int[] colIndex;
+    private final double[] rowValue;
+
+    private SparseMatrix(int numRows, int numCols, int[] colStart, int[] rowIndex, double[] colValue) {
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.colStart = colStart;
+        this.rowIndex = rowIndex;
+        this.colValue = colValue;
+
+        // 转置得到 CSR
+        int nonzeros = colStart[numCols];
+        rowStart = new int[numRows + 1];
+        for (int e = 0; e < nonzeros; e++) {
+            rowStart[rowIndex[e] + 1]++;
+        }
+        for (int i = 0; i < numRows; i++) {
+            rowStart[i + 1] += rowStart[i];
+        }
+        colIndex = new int[nonzeros];
+        rowValue = new double[nonzeros];
+        int[] next = Arrays.copyOf(rowStart, numRows);
+        for (int j = 0; j < numCols; j++) {
+            for (int e = colStart[j]; e < colStart[j + 1]; e++) {
+                int at = next[rowIndex[e]]++;
+                colIndex[at] = j;
+                rowValue[at] = colValue[e];
+            }
+        }
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    public int getNumCols() {
+        return numCols;
+    }
+
+    public int getNonzeroCount() {
+        return colStart[numCols];
+    }
+
+    public int[] getColStart() {
+        return colStart;
+    }
+
+    public int[] getRowIndex() {
+        return rowIndex;
+    }
+
+    public double[] getColValue() {
+        return colValue;
+    }
+
+    public int[] getRowStart() {
+        return rowStart;
+    }
+
+    public int[] getColIndex() {
+        return colIndex;
+    }
+
+    public double[] getRowValue() {
+        return rowValue;
+    }
+
+    public int getColumnLength(int j) {
+        return colStart[j + 1] - colStart[j];
+    }
+
+    // 第 j 列与稠密向量 y 的内积
+    public double columnDot(int j, double[] y) {
+        double sum = 0;
+        for (int e = colStart[j]; e < colStart[j + 1]; e++) {
+            sum += colValue[e] * y[rowIndex[e]];
+        }
+        return sum;
+    }
+
+    // 第 i 行与稠密向量 x 的内积
+    public double rowDot(int i, double[] x) {
+        double sum = 0;
+        for (int e = rowStart[i]; e < rowStart[i + 1]; e++) {
+            sum += rowValue[e] * x[colIndex[e]];
+        }
+        return sum;
+    }
+
+    // 改写已有非零元的值, CSC 和 CSR 同时更新. 该位置原来是零或新值为零 (稀疏结构改变) 时不修改并返回 false
+    public boolean setValue(int row, int col, double value) {
+        int c = Arrays.binarySearch(rowIndex, colStart[col], colStart[col + 1], row);
+        if (c < 0 || value == 0) {
+            return c < 0 && value == 0;
+        }
+        int r = Arrays.binarySearch(colIndex, rowStart[row], rowStart[row + 1], col);
+        colValue[c] = value;
+        rowValue[r] = value;
+        return true;
+    }
+
+    public static Builder builder(int numRows, int numCols) {
+        return new Builder(numRows, numCols);
+    }
+
+    // 按三元组 (行, 列, 值) 逐个添加, 重复位置的值相加, 零元被丢弃
+    public static class Builder {
+        private final int numRows;
+        private final int numCols;
+        private int[] rows = new int[16];
+        private int[] cols = new int[16];
+        private double[] values = new double[16];
+        private int size;
+
+        private Builder(int numRows, int numCols) {
+            this.numRows = numRows;
+            this.numCols = numCols;
+        }
+
+        public Builder add(int row, int col, double value) {
+            if (row < 0 || row >= numRows || col < 0 || col >= numCols) {
+                throw new IndexOutOfBoundsException("Entry (" + row + ", " + col + ") outside " + numRows + "x" + numCols);
+            }
+            if (value == 0) {
+                return this;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                cols = Arrays.copyOf(cols, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            rows[size] = row;
+            cols[size] = col;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        // 添加一整行, indices 为列号
+        public Builder addRow(int row, int[] indices, double[] rowValues, int length) {
+            for (int e = 0; e < length; e++) {
+                add(row, indices[e], rowValues[e]);
+            }
+            return this;
+        }
+
+        public SparseMatrix build() {
+            // 按列计数排序, 列内再按行排序并合并重复项
+            int[] start = new int[numCols + 1];
+            for (int e = 0; e < size; e++) {
+                start[cols[e] + 1]++;
+            }
+            for (int j = 0; j < numCols; j++) {
+                start[j + 1] += start[j];
+            }
+            int[] order = new int[size];
+            int[] next = Arrays.copyOf(start, numCols);
+            for (int e = 0; e < size; e++) {
+                order[next[cols[e]]++] = e;
+            }
+
+            int[] colStart = new int[numCols + 1];
+            int[] rowIndex = new int[size];
+            double[] colValue = new double[size];
+            int count = 0;
+            long[] keys = new long[0];
+            for (int j = 0; j < numCols; j++) {
+                colStart[j] = count;
+                int length = start[j + 1] - start[j];
+                if (keys.length < length) {
+                    keys = new long[length];
+                }
+                for (int k = 0; k < length; k++) {
+                    int e = order[start[j] + k];
+                    keys[k] = ((long) rows[e] << 32) | e;
+                }
+                Arrays.sort(keys, 0, length);
+                int columnBegin = count;
+                for (int k = 0; k < length; k++) {
+                    int e = (int) keys[k];
+                    if (count > columnBegin && rowIndex[count - 1] == rows[e]) {
+                        colValue[count - 1] += values[e];
+                    } else {
+                        rowIndex[count] = rows[e];
+                        colValue[count] = values[e];
+                        count++;
+                    }
+                }
+                // 合并后恰好抵消的项
+                int kept = columnBegin;
+                for (int e = columnBegin; e < count; e++) {
+                    if (colValue[e] != 0) {
+                        rowIndex[kept] = rowIndex[e];
+                        colValue[kept] = colValue[e];
+                        kept++;
+                    }
+                }
+                count = kept;
+            }
+            colStart[numCols] = count;
+            return new SparseMatrix(numRows, numCols, colStart,
+                    Arrays.copyOf(rowIndex, count), Arrays.copyOf(colValue, count));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.scuse.model;
+
+import java.util.Arrays;
+
+// 变量的上下界, 默认 0 <= x_j < +inf; 只有设置过界的变量才占用数组空间
+public class VariableBounds {
+    private double[] lower = new double[0];
+    private double[] upper = new double[0];
+    private int modCount; // 每次修改加一, 求解器据此判断缓存的标准形式是否过期
+
+    public double getLower(int j) {
+        return j < lower.length ? lower[j] : 0;
+    }
+
+    public double getUpper(int j) {
+        return j < upper.length ? upper[j] : Double.POSITIVE_INFINITY;
+    }
+
+    public void setBounds(int j, double lower, double upper) {
+        if (Double.isNaN(lower) || Double.isNaN(upper) || lower == Double.POSITIVE_INFINITY
+                || upper == Double.NEGATIVE_INFINITY) {
+            throw new IllegalArgumentException("Invalid bounds for x" + (j + 1) + ": [" + lower + ", " + upper + "]");
+        }
+        if (j >= this.lower.length) {
+            int size = Math.max(j + 1, this.lower.length * 2);
+            int old = this.lower.length;
+            this.lower = Arrays.copyOf(this.lower, size);
+            this.upper = Arrays.copyOf(this.upper, size);
+            Arrays.fill(this.upper, old, size, Double.POSITIVE_INFINITY);
+        }
+        this.lower[j] = lower;
+        this.upper[j] = upper;
+        modCount++;
+    }
+
+    public void setLower(int j, double lower) {
+        setBounds(j, lower, getUpper(j));
+    }
+
+    public void setUpper(int j, double upper) {
+        setBounds(j, getLower(j), upper);
+    }
+
+    // 前 n 个变量是否都是默认界
+    public boolean isDefault(int n) {
+        for (int j = 0; j < Math.min(n, lower.length); j++) {
+            if (lower[j] != 0 || upper[j] != Double.POSITIVE_INFINITY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        lower = new double[0];
+        upper = new double[0];
+        modCount++;
+    }
+
+    int getModCount() {
+        return modCount;
+    }
+}
@@ -0,0 +1,115 @@
+package com.scuse.solver;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// 按需枚举最优面上的顶点: 从一个最优基出发, 沿约化费用为 0 的非基变量转轴, 广度优先地访问所有最优基.
+// 访问过的基记在哈希集合里; 退化顶点对应多个基, 每个顶点只返回一次. 只在调用 next() 时才向前搜索,
+// 调用方取够了就可以停下. 访问的基的个数受 SolverOptions 的迭代次数和时间限制, 也可以通过中断停止
+public class AlternativeOptima implements Iterator<SimplexResult> {
+    private static final double VERTEX_RESOLUTION = 1e-7; // 比较顶点时的取整精度
+
+    private final RevisedSimplex simplex;
+    private final SolveLimits limits;
+    private final int maxSolutions;
+    private final ArrayDeque<Basis> pending = new ArrayDeque<>();
+    private final Set<Basis> visited = new HashSet<>();
+    private final Set<VertexKey> vertices = new HashSet<>();
+    private SimplexResult next;
+    private int returned;
+    private SolveStatus stopStatus;
+
+    // optimal 必须是 simplex 求解 lp 得到的最优基
+    public AlternativeOptima(LpProblem lp, SolverOptions options, Basis optimal, int maxSolutions) {
+        if (maxSolutions < 1) {
+            throw new IllegalArgumentException("Maximum number of solutions must be positive: " + maxSolutions);
+        }
+        this.simplex = new RevisedSimplex(lp, options);
+        this.limits = new SolveLimits(options, Math.max(1000, 20 * (lp.getNumRows() + lp.getNumCols())));
+        this.maxSolutions = maxSolutions;
+        pending.add(optimal);
+        visited.add(optimal);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && returned < maxSolutions) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public SimplexResult next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SimplexResult result = next;
+        next = null;
+        returned++;
+        return result;
+    }
+
+    // 搜索因为迭代次数, 时间或取消而提前结束时返回对应的状态; 搜索完整个最优面或还没结束时为 null
+    public SolveStatus getStopStatus() {
+        return stopStatus;
+    }
+
+    public int getVisitedBases() {
+        return visited.size();
+    }
+
+    private SimplexResult advance() {
+        while (!pending.isEmpty()) {
+            SolveStatus stop = limits.check(visited.size() - pending.size());
+            if (stop != null) {
+                stopStatus = stop;
+                pending.clear();
+                return null;
+            }
+            Basis basis = pending.poll();
+            // 数值误差使相邻基失去最优性时不再从它继续
+            if (!simplex.reload(basis)) {
+                continue;
+            }
+            for (Basis neighbour : simplex.optimalNeighbours()) {
+                if (visited.add(neighbour)) {
+                    pending.add(neighbour);
+                }
+            }
+            SimplexResult result = simplex.currentResult();
+            if (vertices.add(new VertexKey(result.getVariableValues()))) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    // 按 VERTEX_RESOLUTION 取整后的变量值, 同一个顶点的不同基得到相同的键
+    private static final class VertexKey {
+        private final long[] rounded;
+        private final int hash;
+
+        VertexKey(double[] values) {
+            rounded = new long[values.length];
+            for (int j = 0; j < values.length; j++) {
+                rounded[j] = Math.round(values[j] / VERTEX_RESOLUTION);
+            }
+            hash = Arrays.hashCode(rounded);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof VertexKey other && Arrays.equals(rounded, other.rounded);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
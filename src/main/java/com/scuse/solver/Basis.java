@@ -0,0 +1,50 @@
+package com.scuse.solver;
+
+import java.util.Arrays;
+
+// 一次求解结束时的基, 可以作为下一次求解的初始基 (热启动)
+public class Basis {
+    private final int numRows;
+    private final int numCols;
+    private final int[] status; // 每个变量 (包括逻辑变量) 的状态
+    private final int[] header; // 基位置 -> 变量
+
+    Basis(int numRows, int numCols, int[] status, int[] header) {
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.status = status;
+        this.header = header;
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    public int getNumCols() {
+        return numCols;
+    }
+
+    int[] getStatus() {
+        return status;
+    }
+
+    int[] getHeader() {
+        return header;
+    }
+
+    // 状态数组已经确定了哪些变量在基中以及非基变量在哪个界上, 基位置的排列不影响相等
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Basis other && numCols == other.numCols && Arrays.equals(status, other.status);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(status);
+    }
+
+    // 行数和列数相同的问题才能使用这个基
+    public boolean fits(LpProblem lp) {
+        return lp.getNumRows() == numRows && lp.getNumCols() == numCols;
+    }
+}
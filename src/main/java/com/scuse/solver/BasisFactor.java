@@ -0,0 +1,460 @@
+package com.scuse.solver;
+
+import java.util.Arrays;
+
+// 基矩阵 B 的 LU 分解, 之后的换基用乘积形式 (eta 矩阵) 追加, 定期重新分解
+// 行号指约束行, 列号指基中的位置
+class BasisFactor {
+    private static final double DROP_TOLERANCE = 1e-14;
+    private static final double SINGULAR_TOLERANCE = 1e-11;
+    private static final double PIVOT_THRESHOLD = 0.1; // 门槛主元: |a| >= 0.1 * 列最大值
+    private static final int SEARCH_COLUMNS = 4;
+
+    private final int m;
+
+    // L: 按消元顺序存储的列 eta, 第 k 个 eta 表示 x[i] -= l[i] * x[lPivotRow[k]]
+    private int[] lPivotRow = new int[0];
+    private int[] lStart = new int[1];
+    private int[] lIndex = new int[0];
+    private double[] lValue = new double[0];
+    private int lCount;
+
+    // U: 按主元顺序存储的行, 非对角元的列号都在之后才被选为主元
+    private final int[] uRow;
+    private final int[] uCol;
+    private final double[] uPivot;
+    private int[] uStart;
+    private int[] uIndex = new int[0];
+    private double[] uValue = new double[0];
+    private int rank;
+
+    // 换基产生的 eta
+    private int[] etaPosition = new int[0];
+    private double[] etaPivot = new double[0];
+    private int[] etaStart = new int[1];
+    private int[] etaIndex = new int[0];
+    private double[] etaValue = new double[0];
+    private int etaCount;
+
+    // 分解过程中的活动子矩阵, 按行存储值, 按列只存行号 (可能含已失效的行)
+    private int[][] rowCols;
+    private double[][] rowVals;
+    private int[] rowLength;
+    private int[][] colRows;
+    private int[] colRowsLength;
+    private int[] colCount;
+    private boolean[] rowDone;
+    private boolean[] colDone;
+    private boolean[] colRejected;
+    private int bestRow;
+    private int bestCol;
+    private double bestPivot;
+    private long bestCost;
+
+    private int[] singularPositions = new int[0];
+    private int[] unpivotedRows = new int[0];
+
+    BasisFactor(int m) {
+        this.m = m;
+        uRow = new int[m];
+        uCol = new int[m];
+        uPivot = new double[m];
+        uStart = new int[m + 1];
+    }
+
+    // 分解 B, 第 k 列的非零元为 colIndex[k][0..colLength[k]), 返回秩
+    int factorize(int[][] colIndex, double[][] colValue, int[] colLength) {
+        lCount = 0;
+        lStart[0] = 0;
+        rank = 0;
+        uStart[0] = 0;
+        etaCount = 0;
+        etaStart[0] = 0;
+
+        // 按行存储活动子矩阵
+        rowLength = new int[m];
+        for (int k = 0; k < m; k++) {
+            for (int e = 0; e < colLength[k]; e++) {
+                rowLength[colIndex[k][e]]++;
+            }
+        }
+        rowCols = new int[m][];
+        rowVals = new double[m][];
+        for (int i = 0; i < m; i++) {
+            rowCols[i] = new int[rowLength[i] + 4];
+            rowVals[i] = new double[rowLength[i] + 4];
+            rowLength[i] = 0;
+        }
+        colRows = new int[m][];
+        colRowsLength = new int[m];
+        colCount = new int[m];
+        for (int k = 0; k < m; k++) {
+            colRows[k] = new int[colLength[k] + 4];
+            for (int e = 0; e < colLength[k]; e++) {
+                int i = colIndex[k][e];
+                double v = colValue[k][e];
+                if (Math.abs(v) <= DROP_TOLERANCE) {
+                    continue;
+                }
+                rowCols[i][rowLength[i]] = k;
+                rowVals[i][rowLength[i]] = v;
+                rowLength[i]++;
+                colRows[k][colRowsLength[k]++] = i;
+                colCount[k]++;
+            }
+        }
+
+        rowDone = new boolean[m];
+        colDone = new boolean[m];
+        colRejected = new boolean[m];
+        double[] work = new double[m];
+        int[] inPivotRow = new int[m];
+        int[] inCurrentRow = new int[m];
+        Arrays.fill(inPivotRow, -1);
+        Arrays.fill(inCurrentRow, -1);
+        int stamp = 0;
+
+        int[] candidates = new int[SEARCH_COLUMNS];
+        while (true) {
+            bestRow = -1;
+            bestCol = -1;
+            bestPivot = 0;
+            bestCost = Long.MAX_VALUE;
+
+            // 列单元素无填充, 直接选取; 同时记下非零元最少的几列
+            int found = 0;
+            boolean active = false;
+            for (int k = 0; k < m && bestCost > 0; k++) {
+                if (colDone[k] || colRejected[k]) {
+                    continue;
+                }
+                active = true;
+                if (colCount[k] <= 1) {
+                    evaluateColumn(k);
+                    continue;
+                }
+                int at = Math.min(found, SEARCH_COLUMNS - 1);
+                if (found == SEARCH_COLUMNS && colCount[k] >= colCount[candidates[at]]) {
+                    continue;
+                }
+                while (at > 0 && colCount[candidates[at - 1]] > colCount[k]) {
+                    candidates[at] = candidates[at - 1];
+                    at--;
+                }
+                candidates[at] = k;
+                found = Math.min(found + 1, SEARCH_COLUMNS);
+            }
+            if (!active) {
+                break;
+            }
+            // 行单元素同样无填充
+            for (int i = 0; i < m && bestCost > 0; i++) {
+                if (!rowDone[i] && rowLength[i] == 1 && !colDone[rowCols[i][0]] && !colRejected[rowCols[i][0]]) {
+                    evaluateColumn(rowCols[i][0]);
+                }
+            }
+            // 一般情况: 在候选列中取 Markowitz 代价最小的主元
+            for (int k = 0; k < found && bestCost > 0; k++) {
+                if (!colRejected[candidates[k]]) {
+                    evaluateColumn(candidates[k]);
+                }
+            }
+            if (bestCol < 0) {
+                continue;
+            }
+            int r = bestRow;
+            int c = bestCol;
+            double pivot = bestPivot;
+
+            // 记录 U 的一行
+            uRow[rank] = r;
+            uCol[rank] = c;
+            uPivot[rank] = pivot;
+            int uCount = uStart[rank];
+            ensureU(uCount + rowLength[r]);
+            for (int e = 0; e < rowLength[r]; e++) {
+                int j = rowCols[r][e];
+                inPivotRow[j] = rank;
+                work[j] = rowVals[r][e];
+                if (j != c) {
+                    uIndex[uCount] = j;
+                    uValue[uCount] = rowVals[r][e];
+                    uCount++;
+                }
+            }
+            uStart[rank + 1] = uCount;
+
+            // 消去主列中其余活动行
+            ensureLPivots(lCount + 1);
+            lPivotRow[lCount] = r;
+            int lEnd = lStart[lCount];
+            for (int e = 0; e < colRowsLength[c]; e++) {
+                int i = colRows[c][e];
+                if (rowDone[i] || i == r) {
+                    continue;
+                }
+                int at = indexOf(rowCols[i], rowLength[i], c);
+                if (at < 0) {
+                    continue;
+                }
+                double multiplier = rowVals[i][at] / pivot;
+                removeAt(rowCols[i], rowVals[i], rowLength[i], at);
+                rowLength[i]--;
+                ensureL(lEnd + 1);
+                lIndex[lEnd] = i;
+                lValue[lEnd] = multiplier;
+                lEnd++;
+
+                stamp++;
+                int e2 = 0;
+                while (e2 < rowLength[i]) {
+                    int j = rowCols[i][e2];
+                    if (inPivotRow[j] == rank) {
+                        inCurrentRow[j] = stamp;
+                        double v = rowVals[i][e2] - multiplier * work[j];
+                        if (Math.abs(v) <= DROP_TOLERANCE) {
+                            removeAt(rowCols[i], rowVals[i], rowLength[i], e2);
+                            rowLength[i]--;
+                            colCount[j]--;
+                            continue;
+                        }
+                        rowVals[i][e2] = v;
+                    }
+                    e2++;
+                }
+                // 填充元
+                for (int e3 = 0; e3 < rowLength[r]; e3++) {
+                    int j = rowCols[r][e3];
+                    if (j == c || inCurrentRow[j] == stamp) {
+                        continue;
+                    }
+                    double v = -multiplier * work[j];
+                    if (Math.abs(v) <= DROP_TOLERANCE) {
+                        continue;
+                    }
+                    if (rowLength[i] == rowCols[i].length) {
+                        rowCols[i] = Arrays.copyOf(rowCols[i], rowLength[i] * 2 + 4);
+                        rowVals[i] = Arrays.copyOf(rowVals[i], rowLength[i] * 2 + 4);
+                    }
+                    rowCols[i][rowLength[i]] = j;
+                    rowVals[i][rowLength[i]] = v;
+                    rowLength[i]++;
+                    if (colRowsLength[j] == colRows[j].length) {
+                        colRows[j] = Arrays.copyOf(colRows[j], colRowsLength[j] * 2 + 4);
+                    }
+                    colRows[j][colRowsLength[j]++] = i;
+                    colCount[j]++;
+                }
+            }
+            if (lEnd > lStart[lCount]) {
+                lStart[lCount + 1] = lEnd;
+                lCount++;
+            }
+
+            for (int e = 0; e < rowLength[r]; e++) {
+                colCount[rowCols[r][e]]--;
+            }
+            rowDone[r] = true;
+            colDone[c] = true;
+            rank++;
+        }
+
+        int missing = m - rank;
+        singularPositions = new int[missing];
+        unpivotedRows = new int[missing];
+        int s = 0;
+        int t = 0;
+        for (int k = 0; k < m; k++) {
+            if (!colDone[k]) {
+                singularPositions[s++] = k;
+            }
+            if (!rowDone[k]) {
+                unpivotedRows[t++] = k;
+            }
+        }
+        rowCols = null;
+        rowVals = null;
+        colRows = null;
+        return rank;
+    }
+
+    // 在第 k 列中寻找满足门槛条件且 Markowitz 代价 (行长-1)*(列长-1) 更小的主元
+    private void evaluateColumn(int k) {
+        double maxAbs = 0;
+        for (int e = 0; e < colRowsLength[k]; e++) {
+            int i = colRows[k][e];
+            if (!rowDone[i]) {
+                maxAbs = Math.max(maxAbs, Math.abs(find(rowCols[i], rowVals[i], rowLength[i], k)));
+            }
+        }
+        if (maxAbs < SINGULAR_TOLERANCE) {
+            colRejected[k] = true;
+            return;
+        }
+        for (int e = 0; e < colRowsLength[k]; e++) {
+            int i = colRows[k][e];
+            if (rowDone[i]) {
+                continue;
+            }
+            double v = find(rowCols[i], rowVals[i], rowLength[i], k);
+            if (Math.abs(v) < PIVOT_THRESHOLD * maxAbs) {
+                continue;
+            }
+            long cost = (long) (rowLength[i] - 1) * (colCount[k] - 1);
+            if (cost < bestCost || (cost == bestCost && Math.abs(v) > Math.abs(bestPivot))) {
+                bestRow = i;
+                bestCol = k;
+                bestPivot = v;
+                bestCost = cost;
+            }
+        }
+    }
+
+    boolean isSingular() {
+        return rank < m;
+    }
+
+    int[] getSingularPositions() {
+        return singularPositions;
+    }
+
+    int[] getUnpivotedRows() {
+        return unpivotedRows;
+    }
+
+    int getUpdateCount() {
+        return etaCount;
+    }
+
+    // 解 B x = rhs, rhs 按行索引, 结果按基位置索引
+    double[] ftran(double[] rhs) {
+        double[] y = Arrays.copyOf(rhs, m);
+        for (int k = 0; k < lCount; k++) {
+            double v = y[lPivotRow[k]];
+            if (v != 0) {
+                for (int e = lStart[k]; e < lStart[k + 1]; e++) {
+                    y[lIndex[e]] -= lValue[e] * v;
+                }
+            }
+        }
+        double[] x = new double[m];
+        for (int k = rank - 1; k >= 0; k--) {
+            double s = y[uRow[k]];
+            for (int e = uStart[k]; e < uStart[k + 1]; e++) {
+                s -= uValue[e] * x[uIndex[e]];
+            }
+            x[uCol[k]] = s / uPivot[k];
+        }
+        for (int k = 0; k < etaCount; k++) {
+            int p = etaPosition[k];
+            double v = x[p] / etaPivot[k];
+            x[p] = v;
+            if (v != 0) {
+                for (int e = etaStart[k]; e < etaStart[k + 1]; e++) {
+                    x[etaIndex[e]] -= etaValue[e] * v;
+                }
+            }
+        }
+        return x;
+    }
+
+    // 解 B^T y = rhs, rhs 按基位置索引, 结果按行索引
+    double[] btran(double[] rhs) {
+        double[] z = Arrays.copyOf(rhs, m);
+        for (int k = etaCount - 1; k >= 0; k--) {
+            int p = etaPosition[k];
+            double s = z[p];
+            for (int e = etaStart[k]; e < etaStart[k + 1]; e++) {
+                s -= etaValue[e] * z[etaIndex[e]];
+            }
+            z[p] = s / etaPivot[k];
+        }
+        double[] y = new double[m];
+        for (int k = 0; k < rank; k++) {
+            double w = z[uCol[k]] / uPivot[k];
+            y[uRow[k]] = w;
+            if (w != 0) {
+                for (int e = uStart[k]; e < uStart[k + 1]; e++) {
+                    z[uIndex[e]] -= uValue[e] * w;
+                }
+            }
+        }
+        for (int k = lCount - 1; k >= 0; k--) {
+            double s = y[lPivotRow[k]];
+            for (int e = lStart[k]; e < lStart[k + 1]; e++) {
+                s -= lValue[e] * y[lIndex[e]];
+            }
+            y[lPivotRow[k]] = s;
+        }
+        return y;
+    }
+
+    // 基位置 p 被新列替换, alpha = B^{-1} a_q
+    void update(int p, double[] alpha) {
+        if (etaCount + 1 >= etaPosition.length) {
+            int capacity = etaPosition.length * 2 + 8;
+            etaPosition = Arrays.copyOf(etaPosition, capacity);
+            etaPivot = Arrays.copyOf(etaPivot, capacity);
+            etaStart = Arrays.copyOf(etaStart, capacity + 1);
+        }
+        int count = etaStart[etaCount];
+        for (int i = 0; i < m; i++) {
+            if (i != p && Math.abs(alpha[i]) > DROP_TOLERANCE) {
+                if (count == etaIndex.length) {
+                    etaIndex = Arrays.copyOf(etaIndex, count * 2 + m);
+                    etaValue = Arrays.copyOf(etaValue, count * 2 + m);
+                }
+                etaIndex[count] = i;
+                etaValue[count] = alpha[i];
+                count++;
+            }
+        }
+        etaPosition[etaCount] = p;
+        etaPivot[etaCount] = alpha[p];
+        etaCount++;
+        etaStart[etaCount] = count;
+    }
+
+    private void ensureU(int capacity) {
+        if (capacity > uIndex.length) {
+            int size = Math.max(capacity, uIndex.length * 2 + m);
+            uIndex = Arrays.copyOf(uIndex, size);
+            uValue = Arrays.copyOf(uValue, size);
+        }
+    }
+
+    private void ensureL(int capacity) {
+        if (capacity > lIndex.length) {
+            int size = Math.max(capacity, lIndex.length * 2 + m);
+            lIndex = Arrays.copyOf(lIndex, size);
+            lValue = Arrays.copyOf(lValue, size);
+        }
+    }
+
+    private void ensureLPivots(int capacity) {
+        if (capacity >= lPivotRow.length) {
+            int size = Math.max(capacity + 1, lPivotRow.length * 2 + 8);
+            lPivotRow = Arrays.copyOf(lPivotRow, size);
+            lStart = Arrays.copyOf(lStart, size + 1);
+        }
+    }
+
+    private static int indexOf(int[] cols, int length, int c) {
+        for (int e = 0; e < length; e++) {
+            if (cols[e] == c) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    private static double find(int[] cols, double[] vals, int length, int c) {
+        int e = indexOf(cols, length, c);
+        return e < 0 ? 0 : vals[e];
+    }
+
+    private static void removeAt(int[] cols, double[] vals, int length, int e) {
+        cols[e] = cols[length - 1];
+        vals[e] = vals[length - 1];
+    }
+}
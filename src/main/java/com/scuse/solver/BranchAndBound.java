@@ -0,0 +1,398 @@
+package com.scuse.solver;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 整数和混合整数规划的分支定界. 每个节点是只改了变量界的 LP, 从父节点的最优基热启动: 分支只让一个基变量越界,
+// 对偶单纯形法几步就能恢复最优.
+// 节点选择是深度优先和最好界优先的混合: 工作线程从一个节点沿取整较近的子节点一直向下 (尽快找到整数解),
+// 另一个子节点放入按界排序的公共队列; 一次下潜结束 (剪枝, 不可行或得到整数解) 后从队列中取界最好的节点.
+// 工作线程在 work-stealing 线程池中运行, 共享目前最好的整数解 (incumbent) 的目标值用于剪枝
+public class BranchAndBound {
+    private static final double INTEGER_TOLERANCE = 1e-6;
+    private static final double ABSOLUTE_GAP = 1e-9;
+
+    // 界小的先处理, 界相同时先处理更深的节点
+    private static final Comparator<Node> NODE_ORDER = Comparator.comparingDouble((Node node) -> node.bound)
+            .thenComparing(Comparator.comparingInt((Node node) -> node.depth).reversed());
+
+    private final LpProblem lp;
+    private final SolverOptions options;
+    private final int[] integers;    // 整数列
+    private final double[] colLower; // 整数列的界已经取整
+    private final double[] colUpper;
+    private final double sense;      // 内部统一为最小化
+    private final long deadline;     // System.nanoTime() 时刻, 不限时为 Long.MAX_VALUE
+    private final AtomicInteger nodes = new AtomicInteger();
+    private final AtomicLong iterations = new AtomicLong();
+
+    // 以下由 lock 保护
+    private final ReentrantLock lock = new ReentrantLock(); // synchronized 会钉住虚拟线程的载体线程
+    private final Condition work = lock.newCondition();
+    private final PriorityQueue<Node> open = new PriorityQueue<>(NODE_ORDER);
+    private int active; // 正在下潜的工作线程数
+    private double[] incumbent;
+    private SolveStatus stopStatus;
+    private RuntimeException failure;
+    private Basis rootBasis;
+
+    private volatile double incumbentValue = Double.POSITIVE_INFINITY; // 最小化意义下, 剪枝时不加锁读取
+    private volatile boolean stopped; // 已经停止或失败, 其他线程结束当前的下潜
+
+    public BranchAndBound(LpProblem lp, BitSet integerColumns, SolverOptions options) {
+        this.lp = lp;
+        this.options = options;
+        int n = lp.getNumCols();
+        integers = integerColumns.stream().takeWhile(j -> j < n).toArray();
+        colLower = new double[n];
+        colUpper = new double[n];
+        for (int j = 0; j < n; j++) {
+            colLower[j] = lp.getColLower(j);
+            colUpper[j] = lp.getColUpper(j);
+        }
+        for (int j : integers) {
+            colLower[j] = Math.ceil(colLower[j] - INTEGER_TOLERANCE);
+            colUpper[j] = Math.floor(colUpper[j] + INTEGER_TOLERANCE);
+        }
+        sense = lp.isMaximize() ? -1 : 1;
+        deadline = options.getTimeLimit() > 0
+                ? System.nanoTime() + options.getTimeLimit() * 1_000_000
+                : Long.MAX_VALUE;
+    }
+
+    // start 为根节点的初始基, 可以为 null
+    public SimplexResult solve(Basis start) {
+        // 整数列的界之间没有整数时取整后下界大于上界, 不用求解根节点
+        for (int j : integers) {
+            if (colLower[j] > colUpper[j]) {
+                return new SimplexResult(SolveStatus.INFEASIBLE, 0, new double[lp.getNumCols()], 0);
+            }
+        }
+        open.add(new Node(null, -1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, start, 0));
+        int threads = options.getThreads();
+        if (threads == 1) {
+            work();
+            return result();
+        }
+        ExecutorService pool = Executors.newWorkStealingPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(this::work));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            // 调用线程被中断时停止所有工作线程, 返回目前最好的解
+            stop(SolveStatus.CANCELLED);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return result();
+    }
+
+    public int getNodes() {
+        return nodes.get();
+    }
+
+    // 根节点 LP 的最优基, 可以作为下一次求解的初始基; 根节点没有求出最优解时为 null
+    public Basis getRootBasis() {
+        lock.lock();
+        try {
+            return rootBasis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        Node node = null;
+        try {
+            while (true) {
+                if (node == null) {
+                    node = take();
+                    if (node == null) {
+                        return;
+                    }
+                }
+                node = process(node);
+                if (node == null) {
+                    endDive();
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                failure = e;
+                stopped = true;
+                work.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    // 取界最好的节点开始一次下潜; 队列空但还有线程在下潜时等待它们产生新节点, 全部结束时返回 null
+    private Node take() {
+        lock.lock();
+        try {
+            while (stopStatus == null && failure == null) {
+                Node node = open.poll();
+                if (node != null) {
+                    if (isPruned(node.bound)) {
+                        continue;
+                    }
+                    active++;
+                    return node;
+                }
+                if (active == 0) {
+                    break;
+                }
+                try {
+                    work.await();
+                } catch (InterruptedException e) {
+                    stopStatus = SolveStatus.CANCELLED;
+                    stopped = true;
+                }
+            }
+            work.signalAll();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void endDive() {
+        lock.lock();
+        try {
+            active--;
+            if (active == 0 && open.isEmpty()) {
+                work.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void push(Node node) {
+        lock.lock();
+        try {
+            open.add(node);
+            work.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void stop(SolveStatus status) {
+        lock.lock();
+        try {
+            if (stopStatus == null) {
+                stopStatus = status;
+            }
+            stopped = true;
+            work.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 求解一个节点, 返回继续下潜的子节点; 剪枝, 不可行, 得到整数解或应当停止时返回 null
+    private Node process(Node node) {
+        SolveStatus limit = checkLimits();
+        if (limit != null) {
+            stop(limit);
+            return null;
+        }
+        if (stopped || isPruned(node.bound)) {
+            return null;
+        }
+        nodes.incrementAndGet();
+
+        // 沿到根的路径收集分支的界, 越深的分支越紧
+        double[] lower = colLower.clone();
+        double[] upper = colUpper.clone();
+        for (Node branch = node; branch.parent != null; branch = branch.parent) {
+            lower[branch.column] = Math.max(lower[branch.column], branch.lower);
+            upper[branch.column] = Math.min(upper[branch.column], branch.upper);
+        }
+        RevisedSimplex simplex = new RevisedSimplex(lp.withColumnBounds(lower, upper), nodeOptions());
+        simplex.setStartingBasis(node.basis);
+        SimplexResult result = simplex.solve();
+        iterations.addAndGet(result.getIterations());
+        switch (result.getStatus()) {
+            case OPTIMAL:
+                break;
+            case INFEASIBLE:
+                return null;
+            case UNBOUNDED:
+                // 根节点有界时子节点的可行域更小, 也有界; 这里只会是根节点
+                stop(SolveStatus.UNBOUNDED);
+                return null;
+            default:
+                stop(result.getStatus());
+                return null;
+        }
+
+        double bound = sense * result.getObjectiveValue();
+        if (node.parent == null) {
+            lock.lock();
+            try {
+                rootBasis = simplex.getBasis();
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (isPruned(bound)) {
+            return null;
+        }
+
+        // 选小数部分最接近 0.5 的整数变量分支
+        double[] x = result.getVariableValues();
+        int column = -1;
+        double bestScore = INTEGER_TOLERANCE;
+        for (int j : integers) {
+            double fraction = x[j] - Math.floor(x[j]);
+            double score = Math.min(fraction, 1 - fraction);
+            if (score > bestScore) {
+                bestScore = score;
+                column = j;
+            }
+        }
+        if (column < 0) {
+            updateIncumbent(x);
+            return null;
+        }
+
+        double value = x[column];
+        Basis basis = simplex.getBasis();
+        Node down = new Node(node, column, Double.NEGATIVE_INFINITY, Math.floor(value), bound, basis, node.depth + 1);
+        Node up = new Node(node, column, Math.ceil(value), Double.POSITIVE_INFINITY, bound, basis, node.depth + 1);
+        if (value - Math.floor(value) >= 0.5) {
+            push(down);
+            return up;
+        }
+        push(up);
+        return down;
+    }
+
+    private SolveStatus checkLimits() {
+        if (Thread.currentThread().isInterrupted()) {
+            return SolveStatus.CANCELLED;
+        }
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+            return SolveStatus.TIME_LIMIT;
+        }
+        if (options.getNodeLimit() > 0 && nodes.get() >= options.getNodeLimit()) {
+            return SolveStatus.NODE_LIMIT;
+        }
+        return null;
+    }
+
+    // 节点的界不比目前最好的整数解好出 mipGap (相对) 以上时剪枝
+    private boolean isPruned(double bound) {
+        double best = incumbentValue;
+        if (best == Double.POSITIVE_INFINITY) {
+            return false;
+        }
+        return bound >= best - Math.max(ABSOLUTE_GAP, options.getMipGap() * Math.abs(best));
+    }
+
+    // 整数变量取整后作为整数解, 目标值按取整后的值重新计算; 加 0.0 把 -0.0 变成 0.0
+    private void updateIncumbent(double[] x) {
+        for (int j : integers) {
+            x[j] = Math.rint(x[j]) + 0.0;
+        }
+        double value = sense * objective(x);
+        lock.lock();
+        try {
+            if (value < incumbentValue) {
+                incumbent = x;
+                incumbentValue = value;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 节点 LP 的求解参数: 不调用监听器, 时间限制取剩余时间
+    private SolverOptions nodeOptions() {
+        SolverOptions nodeOptions = new SolverOptions();
+        nodeOptions.setPricing(options.getPricing());
+        nodeOptions.setRefactorFrequency(options.getRefactorFrequency());
+        nodeOptions.setMaxIterations(options.getMaxIterations());
+        nodeOptions.setCrash(options.isCrash());
+        if (deadline != Long.MAX_VALUE) {
+            nodeOptions.setTimeLimit(Math.max(1, (deadline - System.nanoTime()) / 1_000_000));
+        }
+        return nodeOptions;
+    }
+
+    private double objective(double[] x) {
+        double objective = 0;
+        for (int j = 0; j < x.length; j++) {
+            objective += lp.getCost(j) * x[j];
+        }
+        return objective;
+    }
+
+    // 提前停止时返回目前最好的整数解 (如果有)
+    private SimplexResult result() {
+        lock.lock();
+        try {
+            int totalIterations = (int) Math.min(Integer.MAX_VALUE, iterations.get());
+            double[] values = incumbent != null ? incumbent.clone() : new double[lp.getNumCols()];
+            double objective = incumbent != null ? objective(values) : 0;
+            if (stopStatus == SolveStatus.UNBOUNDED) {
+                return new SimplexResult(SolveStatus.UNBOUNDED, 0, new double[lp.getNumCols()], totalIterations);
+            }
+            if (stopStatus != null) {
+                return new SimplexResult(stopStatus, objective, values, totalIterations, incumbent != null);
+            }
+            if (incumbent == null) {
+                return new SimplexResult(SolveStatus.INFEASIBLE, 0, values, totalIterations);
+            }
+            return new SimplexResult(SolveStatus.OPTIMAL, objective, values, totalIterations);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 分支树的节点, 只记录相对父节点改变的一个变量界
+    private static final class Node {
+        final Node parent;
+        final int column;   // 分支的变量, 根节点为 -1
+        final double lower; // 该变量的新界, 另一端不变时为无穷
+        final double upper;
+        final double bound; // 父节点 LP 的目标值 (最小化), 子节点不会更好
+        final Basis basis;  // 父节点的最优基
+        final int depth;
+
+        Node(Node parent, int column, double lower, double upper, double bound, Basis basis, int depth) {
+            this.parent = parent;
+            this.column = column;
+            this.lower = lower;
+            this.upper = upper;
+            this.bound = bound;
+            this.basis = basis;
+            this.depth = depth;
+        }
+    }
+}
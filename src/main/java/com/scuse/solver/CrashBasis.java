@@ -0,0 +1,93 @@
+package com.scuse.solver;
+
+import com.scuse.model.SparseMatrix;
+
+import java.util.Arrays;
+
+// 三角形 crash: 在给定的行上用结构列替换逻辑变量, 选出的列按选择顺序构成下三角, 所以基不会奇异.
+// 每次取剩余候选列最少的行 (LTSF 的思路), 在该行中按界的类型和系数大小选主元
+class CrashBasis {
+    private static final double PIVOT_THRESHOLD = 0.1; // 主元不小于该列最大绝对值的 0.1 倍
+
+    private CrashBasis() {
+    }
+
+    // 返回每行换入的结构列, -1 表示保留该行的逻辑变量; 固定的列不参与
+    static int[] crash(LpProblem lp, double[] lower, double[] upper, boolean[] rows) {
+        SparseMatrix matrix = lp.getMatrix();
+        int m = matrix.getNumRows();
+        int n = matrix.getNumCols();
+        int[] rowStart = matrix.getRowStart();
+        int[] colIndex = matrix.getColIndex();
+        double[] rowValue = matrix.getRowValue();
+        int[] colStart = matrix.getColStart();
+        int[] rowIndex = matrix.getRowIndex();
+        double[] colValue = matrix.getColValue();
+
+        boolean[] rowActive = rows.clone();
+        boolean[] colActive = new boolean[n];
+        double[] colMax = new double[n];
+        int[] rowCount = new int[m];
+        for (int j = 0; j < n; j++) {
+            colActive[j] = lower[j] < upper[j];
+            for (int e = colStart[j]; e < colStart[j + 1]; e++) {
+                colMax[j] = Math.max(colMax[j], Math.abs(colValue[e]));
+                if (colActive[j]) {
+                    rowCount[rowIndex[e]]++;
+                }
+            }
+        }
+
+        int[] assigned = new int[m];
+        Arrays.fill(assigned, -1);
+        while (true) {
+            int row = -1;
+            for (int i = 0; i < m; i++) {
+                if (rowActive[i] && rowCount[i] > 0 && (row < 0 || rowCount[i] < rowCount[row])) {
+                    row = i;
+                }
+            }
+            if (row < 0) {
+                break;
+            }
+            rowActive[row] = false;
+
+            // 先按界的类型选 (自由列最好, 有上下界的列最差), 再选主元大的, 最后选非零元少的
+            int col = -1;
+            int bestPenalty = Integer.MAX_VALUE;
+            double bestPivot = 0;
+            for (int e = rowStart[row]; e < rowStart[row + 1]; e++) {
+                int j = colIndex[e];
+                double pivot = Math.abs(rowValue[e]);
+                if (!colActive[j] || pivot < PIVOT_THRESHOLD * colMax[j]) {
+                    continue;
+                }
+                int penalty = (lower[j] > Double.NEGATIVE_INFINITY ? 1 : 0) + (upper[j] < Double.POSITIVE_INFINITY ? 1 : 0);
+                boolean better = penalty != bestPenalty ? penalty < bestPenalty
+                        : pivot != bestPivot ? pivot > bestPivot
+                        : lp.getColumnLength(j) < lp.getColumnLength(col);
+                if (better) {
+                    bestPenalty = penalty;
+                    bestPivot = pivot;
+                    col = j;
+                }
+            }
+            if (col < 0) {
+                continue;
+            }
+            assigned[row] = col;
+
+            // 之后选出的列在这一行必须为零, 才能保持三角形
+            for (int e = rowStart[row]; e < rowStart[row + 1]; e++) {
+                int j = colIndex[e];
+                if (colActive[j]) {
+                    colActive[j] = false;
+                    for (int f = colStart[j]; f < colStart[j + 1]; f++) {
+                        rowCount[rowIndex[f]]--;
+                    }
+                }
+            }
+        }
+        return assigned;
+    }
+}
@@ -0,0 +1,26 @@
+package com.scuse.solver;
+
+// Dantzig 规则: 约化费用绝对值最大者, 相同时取下标最小者
+class DantzigPricing implements PricingRule {
+    @Override
+    public void reset(RevisedSimplex simplex) {
+    }
+
+    @Override
+    public int select(RevisedSimplex simplex, double[] y, boolean phase1) {
+        int best = -1;
+        double bestScore = 0;
+        for (int j = 0; j < simplex.getNumVariables(); j++) {
+            double score = simplex.pricingScore(j, y, phase1);
+            if (score > bestScore) {
+                bestScore = score;
+                best = j;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void update(RevisedSimplex simplex, int q, int p, double[] alpha) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.scuse.solver;
+
+import java.util.Arrays;
+
+// Devex 规则 (Forrest-Goldfarb): 用参考框架下的近似边长 w_j 归一化, 选 d_j^2 / w_j 最大者
+class DevexPricing implements PricingRule {
+    private static final double RESET_LIMIT = 1e6; // 权重增长过大时说明近似失效, 重置参考框架
+
+    private double[] weight;
+
+    @Override
+    public void reset(RevisedSimplex simplex) {
+        weight = new double[simplex.getNumVariables()];
+        Arrays.fill(weight, 1);
+    }
+
+    @Override
+    public int select(RevisedSimplex simplex, double[] y, boolean phase1) {
+        int best = -1;
+        double bestScore = 0;
+        for (int j = 0; j < weight.length; j++) {
+            double d = simplex.pricingScore(j, y, phase1);
+            if (d > 0 && d * d / weight[j] > bestScore) {
+                bestScore = d * d / weight[j];
+                best = j;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void update(RevisedSimplex simplex, int q, int p, double[] alpha) {
+        double[] unit = new double[alpha.length];
+        unit[p] = 1;
+        double[] rho = simplex.btran(unit);
+        double pivot = alpha[p];
+        double weightQ = weight[q];
+        double largest = 0;
+        for (int j = 0; j < weight.length; j++) {
+            if (j == q || !simplex.isNonbasic(j)) {
+                continue;
+            }
+            double ratio = simplex.columnDot(j, rho) / pivot;
+            if (ratio != 0) {
+                weight[j] = Math.max(weight[j], ratio * ratio * weightQ);
+                largest = Math.max(largest, weight[j]);
+            }
+        }
+        weight[simplex.getBasicVariable(p)] = Math.max(weightQ / (pivot * pivot), 1);
+        if (largest > RESET_LIMIT) {
+            reset(simplex);
+        }
+    }
+}
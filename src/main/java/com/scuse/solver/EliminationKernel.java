@@ -0,0 +1,29 @@
+package com.scuse.solver;
+
+// 单纯形表行运算内核, 行以 offset 定位在按行优先存放的 double[] 中
+interface EliminationKernel {
+    // t[row .. row + length) /= divisor
+    void divideRow(double[] t, int row, int length, double divisor);
+
+    // t[target .. target + length) -= factor * t[source .. source + length)
+    void subtractRow(double[] t, int target, int source, int length, double factor);
+
+    static EliminationKernel select(SolverOptions.Kernel kind) {
+        switch (kind) {
+            case SCALAR:
+                return new ScalarEliminationKernel();
+            case VECTOR:
+                if (!isVectorApiAvailable()) {
+                    throw new IllegalStateException("Vector kernel requires --add-modules jdk.incubator.vector");
+                }
+                return new VectorEliminationKernel();
+            default:
+                return isVectorApiAvailable() ? new VectorEliminationKernel() : new ScalarEliminationKernel();
+        }
+    }
+
+    // 运行时未加载 jdk.incubator.vector 模块时不能触碰 VectorEliminationKernel
+    static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+}
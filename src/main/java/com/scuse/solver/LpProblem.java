@@ -0,0 +1,196 @@
+package com.scuse.solver;
+
+import com.scuse.model.ConstraintEquation;
+import com.scuse.model.MathModel;
+import com.scuse.model.ModelChanges;
+import com.scuse.model.SparseMatrix;
+import com.scuse.model.VariableBounds;
+
+import java.util.BitSet;
+import java.util.List;
+
+// 求解器内部使用的标准形式:
+// min/max c^T x, s.t. Ax - r = 0, colLower <= x <= colUpper, rowLower <= r <= rowUpper
+public class LpProblem {
+    private final int numRows;
+    private final int numCols;
+    private final SparseMatrix matrix;
+    private final double[] cost;
+    private final double[] colLower;
+    private final double[] colUpper;
+    private final double[] rowLower;
+    private final double[] rowUpper;
+    private final boolean maximize;
+
+    public LpProblem(SparseMatrix matrix, double[] cost, boolean maximize,
+                     double[] colLower, double[] colUpper, double[] rowLower, double[] rowUpper) {
+        this.numRows = matrix.getNumRows();
+        this.numCols = matrix.getNumCols();
+        this.matrix = matrix;
+        this.cost = cost;
+        this.maximize = maximize;
+        this.colLower = colLower;
+        this.colUpper = colUpper;
+        this.rowLower = rowLower;
+        this.rowUpper = rowUpper;
+    }
+
+    public static LpProblem fromModel(MathModel model) {
+        List<ConstraintEquation> constraints = model.getConstraints();
+        double[] cost = model.getObjectiveFunction().getCoefficientArray().clone();
+        int numCols = cost.length;
+        int numRows = constraints.size();
+
+        double[] rowLower = new double[numRows];
+        double[] rowUpper = new double[numRows];
+        for (int i = 0; i < numRows; i++) {
+            setRowBounds(i, constraints.get(i), rowLower, rowUpper);
+        }
+
+        double[] colLower = new double[numCols];
+        double[] colUpper = new double[numCols];
+        VariableBounds bounds = model.getBounds();
+        for (int j = 0; j < numCols; j++) {
+            colLower[j] = bounds.getLower(j);
+            colUpper[j] = bounds.getUpper(j);
+        }
+
+        boolean maximize = "Maximize".equals(model.getObjectiveFunction().getOptimizationType());
+        return new LpProblem(model.getConstraintMatrix(), cost, maximize, colLower, colUpper, rowLower, rowUpper);
+    }
+
+    // 严格不等式的最优值一般取不到, 按非严格不等式求解 (可行域的闭包)
+    private static void setRowBounds(int i, ConstraintEquation constraint, double[] rowLower, double[] rowUpper) {
+        double constant = constraint.getConstant();
+        switch (constraint.getSign()) {
+            case "<":
+            case "<=":
+                rowLower[i] = Double.NEGATIVE_INFINITY;
+                rowUpper[i] = constant;
+                break;
+            case ">":
+            case ">=":
+                rowLower[i] = constant;
+                rowUpper[i] = Double.POSITIVE_INFINITY;
+                break;
+            case "=":
+                rowLower[i] = constant;
+                rowUpper[i] = constant;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported constraint operator: " + constraint.getSign());
+        }
+    }
+
+    // 把记录的改动写入这个问题: 费用和行的上下界原地改写, 只改了已有非零元的值时原地更新矩阵,
+    // 稀疏结构改变时才重新组装矩阵. 行列数必须和模型一致
+    public LpProblem update(MathModel model, ModelChanges changes) {
+        List<ConstraintEquation> constraints = model.getConstraints();
+        double[] objective = model.getObjectiveFunction().getCoefficientArray();
+        BitSet costs = changes.getCosts();
+        for (int j = costs.nextSetBit(0); j >= 0; j = costs.nextSetBit(j + 1)) {
+            cost[j] = objective[j];
+        }
+        BitSet rows = changes.getRowBounds();
+        for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+            setRowBounds(i, constraints.get(i), rowLower, rowUpper);
+        }
+        for (long cell : changes.getCells()) {
+            int i = ModelChanges.cellRow(cell);
+            int j = ModelChanges.cellColumn(cell);
+            if (!matrix.setValue(i, j, constraints.get(i).getCoefficient(j))) {
+                return new LpProblem(model.getConstraintMatrix(), cost, maximize, colLower, colUpper, rowLower, rowUpper);
+            }
+        }
+        return this;
+    }
+
+    // 只有变量界不同的问题, 共用矩阵, 费用和行的界 (分支定界的节点)
+    public LpProblem withColumnBounds(double[] colLower, double[] colUpper) {
+        return new LpProblem(matrix, cost, maximize, colLower, colUpper, rowLower, rowUpper);
+    }
+
+    // 第 i 行常数项改为 constant 的问题: 该行的有限界都移到 constant, 其余数据共用 (参数分析)
+    public LpProblem withRowConstant(int i, double constant) {
+        double[] lower = rowLower.clone();
+        double[] upper = rowUpper.clone();
+        if (lower[i] > Double.NEGATIVE_INFINITY) {
+            lower[i] = constant;
+        }
+        if (upper[i] < Double.POSITIVE_INFINITY) {
+            upper[i] = constant;
+        }
+        return new LpProblem(matrix, cost, maximize, colLower, colUpper, lower, upper);
+    }
+
+    // 目标函数第 j 个系数改为 value 的问题, 其余数据共用
+    public LpProblem withCost(int j, double value) {
+        double[] changed = cost.clone();
+        changed[j] = value;
+        return new LpProblem(matrix, changed, maximize, colLower, colUpper, rowLower, rowUpper);
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    public int getNumCols() {
+        return numCols;
+    }
+
+    public boolean isMaximize() {
+        return maximize;
+    }
+
+    public double getCost(int j) {
+        return cost[j];
+    }
+
+    public double getColLower(int j) {
+        return colLower[j];
+    }
+
+    public double getColUpper(int j) {
+        return colUpper[j];
+    }
+
+    public double getRowLower(int i) {
+        return rowLower[i];
+    }
+
+    public double getRowUpper(int i) {
+        return rowUpper[i];
+    }
+
+    public SparseMatrix getMatrix() {
+        return matrix;
+    }
+
+    // 列 j 与稠密向量 y 的内积
+    public double columnDot(int j, double[] y) {
+        return matrix.columnDot(j, y);
+    }
+
+    // target += scale * A_j
+    public void addColumn(int j, double scale, double[] target) {
+        int[] colStart = matrix.getColStart();
+        int[] rowIndex = matrix.getRowIndex();
+        double[] colValue = matrix.getColValue();
+        for (int e = colStart[j]; e < colStart[j + 1]; e++) {
+            target[rowIndex[e]] += scale * colValue[e];
+        }
+    }
+
+    // 把列 j 的非零元写入 index/value, 返回非零元个数
+    public int getColumnEntries(int j, int[] index, double[] value) {
+        int begin = matrix.getColStart()[j];
+        int length = matrix.getColumnLength(j);
+        System.arraycopy(matrix.getRowIndex(), begin, index, 0, length);
+        System.arraycopy(matrix.getColValue(), begin, value, 0, length);
+        return length;
+    }
+
+    public int getColumnLength(int j) {
+        return matrix.getColumnLength(j);
+    }
+}
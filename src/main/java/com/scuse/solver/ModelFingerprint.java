@@ -0,0 +1,139 @@
+package com.scuse.solver;
+
+import com.scuse.model.ConstraintEquation;
+import com.scuse.model.MathModel;
+import com.scuse.model.VariableBounds;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+
+// 模型的规范化指纹 (SHA-256), 覆盖变量和约束个数, 优化方向, 目标函数, 每行的非零元, 符号, 常数项, 变量界和整数要求.
+// 稠密和稀疏的写法, 严格和非严格不等式, -0.0 和 0.0 得到相同的指纹; 行的顺序保留, 因为解和对偶值按行对应
+public final class ModelFingerprint {
+    static final int LENGTH = 32;
+
+    private final byte[] digest;
+    private final int hash;
+
+    ModelFingerprint(byte[] digest) {
+        this.digest = digest;
+        this.hash = Arrays.hashCode(digest);
+    }
+
+    public static ModelFingerprint of(MathModel model) {
+        Hasher hasher = new Hasher();
+        double[] objective = model.getObjectiveFunction().getCoefficientArray();
+        int n = objective.length;
+        List<ConstraintEquation> constraints = model.getConstraints();
+        hasher.putInt(n);
+        hasher.putInt(constraints.size());
+        hasher.putInt("Maximize".equals(model.getObjectiveFunction().getOptimizationType()) ? 1 : 0);
+        for (double c : objective) {
+            hasher.putDouble(c);
+        }
+        for (ConstraintEquation constraint : constraints) {
+            int[] indices = constraint.getIndices();
+            double[] values = constraint.getValues();
+            // 超出变量个数的系数不参与求解, 也不参与指纹
+            for (int e = 0; e < constraint.getNonzeroCount() && indices[e] < n; e++) {
+                hasher.putInt(indices[e]);
+                hasher.putDouble(values[e]);
+            }
+            hasher.putInt(-1);
+            hasher.putInt(signCode(constraint.getSign()));
+            hasher.putDouble(constraint.getConstant());
+        }
+        VariableBounds bounds = model.getBounds();
+        for (int j = 0; j < n; j++) {
+            hasher.putDouble(bounds.getLower(j));
+            hasher.putDouble(bounds.getUpper(j));
+        }
+        // 没有整数变量的模型不写这一节, 指纹和以前保存的缓存一致
+        if (model.getObjectiveFunction().hasIntegers(n)) {
+            BitSet integers = model.getObjectiveFunction().getIntegers();
+            for (int j = integers.nextSetBit(0); j >= 0 && j < n; j = integers.nextSetBit(j + 1)) {
+                hasher.putInt(j);
+            }
+            hasher.putInt(-1);
+        }
+        return new ModelFingerprint(hasher.finish());
+    }
+
+    // 严格不等式按非严格求解, 两者的结果相同
+    private static int signCode(String sign) {
+        switch (sign) {
+            case "<":
+            case "<=":
+                return 1;
+            case ">":
+            case ">=":
+                return 2;
+            case "=":
+                return 3;
+            default:
+                return 0;
+        }
+    }
+
+    byte[] getDigest() {
+        return digest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ModelFingerprint other && Arrays.equals(digest, other.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    // 先写入缓冲区, 满了再一次交给 MessageDigest
+    private static final class Hasher {
+        private final MessageDigest digest;
+        private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        Hasher() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        void putInt(int value) {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void putDouble(double value) {
+            if (buffer.remaining() < Double.BYTES) {
+                flush();
+            }
+            buffer.putDouble(value == 0 ? 0.0 : value);
+        }
+
+        byte[] finish() {
+            flush();
+            return digest.digest();
+        }
+
+        private void flush() {
+            digest.update(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+    }
+}
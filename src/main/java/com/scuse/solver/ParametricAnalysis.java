@@ -0,0 +1,311 @@
+package com.scuse.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+// 参数线性规划: 把一行的常数项或一个目标系数看作参数 t, 求最优值和最优解随 t 变化的曲线.
+// trace() 沿参数跟踪最优基: 在一个基保持最优的区间上解和目标值都是 t 的线性函数, 区间的端点 (断点)
+// 由这个基的比值检验直接算出 (常数项看基变量何时越界, 目标系数看约化费用何时变号); 越过断点后从原来的基
+// 热启动, 几步转轴就得到下一个区间的基. 曲线由这些线性段组成, 段数通常远少于逐点求解的次数.
+// sweep() 在给定的一组参数值上求解: 参数值排序后分成几段连续的链, 每条链在一个线程中依次求解,
+// 每个点从前一个点的最优基热启动. 整数要求被忽略, 分析的是 LP 松弛
+public class ParametricAnalysis {
+    private static final double STEP = 1e-7; // 越过断点的相对步长
+    private static final int MAX_RETRIES = 6; // 越过断点后仍是原来的基时, 步长放大 10 倍重试的次数
+    private static final int PROBE_LEVELS = 6; // 寻找第一个最优点时二分的层数
+
+    public enum Parameter {
+        CONSTANT, // 约束的常数项
+        COST      // 目标函数系数
+    }
+
+    private final LpProblem lp;
+    private final SolverOptions options;
+    private final Parameter parameter;
+    private final int index;
+    private Basis startingBasis;
+
+    public ParametricAnalysis(LpProblem lp, SolverOptions options, Parameter parameter, int index) {
+        int count = parameter == Parameter.CONSTANT ? lp.getNumRows() : lp.getNumCols();
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException((parameter == Parameter.CONSTANT ? "Constraint" : "Variable")
+                    + " index out of range: " + index);
+        }
+        this.lp = lp;
+        this.options = options;
+        this.parameter = parameter;
+        this.index = index;
+    }
+
+    // 第一次求解的初始基, 一般是模型在参数原值上的最优基
+    public void setStartingBasis(Basis startingBasis) {
+        this.startingBasis = startingBasis;
+    }
+
+    // 参数在问题中的原值
+    public double getBaseValue() {
+        if (parameter == Parameter.COST) {
+            return lp.getCost(index);
+        }
+        double lower = lp.getRowLower(index);
+        return lower > Double.NEGATIVE_INFINITY ? lower : lp.getRowUpper(index);
+    }
+
+    // 参数从 from 变到 to (可以减小) 时的分段线性曲线. 有最优解的参数值构成一个区间, 先在 [from, to] 中找到
+    // 其中一点 (依次试参数原值, from, to 和逐层二分的中点), 再从它向两边跟踪; 两端变得不可行或无界时曲线在那里结束.
+    // 总迭代次数和时间受 SolverOptions 限制, 也可以通过中断停止
+    public ParametricCurve trace(double from, double to) {
+        checkValue(from);
+        checkValue(to);
+        SolveLimits limits = new SolveLimits(options, Integer.MAX_VALUE);
+        long deadline = deadline();
+        int[] iterations = new int[1];
+        Probe origin = findOptimal(from, to, limits, deadline, iterations);
+        if (origin.status != SolveStatus.OPTIMAL) {
+            return new ParametricCurve(parameter, index, from, to, List.of(), origin.status, origin.status, iterations[0]);
+        }
+        List<ParametricCurve.Segment> segments = new ArrayList<>();
+        SolveStatus startStatus = SolveStatus.OPTIMAL;
+        if (origin.theta != from) {
+            List<ParametricCurve.Segment> backward = new ArrayList<>();
+            startStatus = follow(origin.theta, from, origin.basis, limits, deadline, backward, iterations);
+            for (int k = backward.size() - 1; k >= 0; k--) {
+                segments.add(backward.get(k).reversed());
+            }
+        }
+        SolveStatus endStatus = SolveStatus.OPTIMAL;
+        if (origin.theta != to || from == to) {
+            endStatus = follow(origin.theta, to, origin.basis, limits, deadline, segments, iterations);
+        }
+        // 只在 origin 一点有最优解 (两边都是断点) 时曲线退化为一个点
+        if (segments.isEmpty()) {
+            follow(origin.theta, origin.theta, origin.basis, limits, deadline, segments, iterations);
+        }
+        return new ParametricCurve(parameter, index, from, to, segments, startStatus, endStatus, iterations[0]);
+    }
+
+    // [from, to] 中第一个求出最优解的试探点; 都没有最优解时返回在 from 处的状态, 达到限制时返回限制
+    private Probe findOptimal(double from, double to, SolveLimits limits, long deadline, int[] iterations) {
+        double low = Math.min(from, to);
+        double high = Math.max(from, to);
+        List<Double> points = new ArrayList<>(List.of(Math.max(low, Math.min(high, getBaseValue())), from, to));
+        for (int level = 1; level <= PROBE_LEVELS; level++) {
+            int parts = 1 << level;
+            for (int k = 1; k < parts; k += 2) {
+                points.add(from + (to - from) * k / parts);
+            }
+        }
+        SolveStatus fromStatus = null;
+        for (double theta : points) {
+            SolveStatus stop = limits.check(iterations[0]);
+            if (stop != null) {
+                return new Probe(theta, stop, null);
+            }
+            RevisedSimplex simplex = new RevisedSimplex(problemAt(theta), stepOptions(deadline));
+            simplex.setStartingBasis(startingBasis);
+            SimplexResult result = simplex.solve();
+            iterations[0] += result.getIterations();
+            if (result.getStatus() == SolveStatus.OPTIMAL) {
+                return new Probe(theta, SolveStatus.OPTIMAL, simplex.getBasis());
+            }
+            if (SolveLimits.isLimit(result.getStatus())) {
+                return new Probe(theta, result.getStatus(), null);
+            }
+            if (theta == from && fromStatus == null) {
+                fromStatus = result.getStatus();
+            }
+        }
+        return new Probe(from, fromStatus, null);
+    }
+
+    // 从 begin 处的最优基出发跟踪到 limit, 线性段按跟踪方向加入 segments; 返回 OPTIMAL (到达 limit) 或曲线结束的原因
+    private SolveStatus follow(double begin, double limit, Basis basis, SolveLimits limits, long deadline,
+                               List<ParametricCurve.Segment> segments, int[] iterations) {
+        double direction = limit >= begin ? 1 : -1;
+        Basis previous = null;
+        double start = begin;     // 当前段的起点
+        double theta = begin;     // 求解点, 越过断点一小步
+        double step = 0;
+        int retries = 0;
+        while (true) {
+            SolveStatus stop = limits.check(iterations[0]);
+            if (stop != null) {
+                return stop;
+            }
+            RevisedSimplex simplex = new RevisedSimplex(problemAt(theta), stepOptions(deadline));
+            simplex.setStartingBasis(basis);
+            SimplexResult result = simplex.solve();
+            iterations[0] += result.getIterations();
+            if (result.getStatus() != SolveStatus.OPTIMAL) {
+                return result.getStatus();
+            }
+            Basis current = simplex.getBasis();
+            double[] range = parameter == Parameter.CONSTANT ? simplex.rhsRange(index) : simplex.costRange(index);
+            double reach = direction > 0 ? range[1] : range[0];
+            // 步长在容差以内时旧基仍然算作最优, 放大步长再越过断点一次
+            if (current.equals(previous) && reach <= step && retries < MAX_RETRIES && theta != limit) {
+                step *= 10;
+                retries++;
+                theta = clamp(start + direction * step, limit, direction);
+                basis = current;
+                continue;
+            }
+            double end = clamp(theta + direction * reach, limit, direction);
+            if (end != start || begin == limit) {
+                segments.add(segment(simplex, result, theta, start, end));
+            }
+            if (end == limit) {
+                return SolveStatus.OPTIMAL;
+            }
+            basis = current;
+            previous = current;
+            start = end;
+            step = STEP * Math.max(1, Math.abs(end));
+            retries = 0;
+            theta = clamp(end + direction * step, limit, direction);
+        }
+    }
+
+    // 在每个参数值上求解, 结果和 values 一一对应. 排好序的参数值按 SolverOptions 的线程数分成连续的链,
+    // 链内热启动; 时间限制对整个扫描有效, 被中断时还没求解的点的状态为 CANCELLED
+    public SimplexResult[] sweep(double[] values) {
+        for (double value : values) {
+            checkValue(value);
+        }
+        int[] order = IntStream.range(0, values.length).boxed()
+                .sorted(Comparator.comparingDouble(k -> values[k]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long deadline = deadline();
+        SimplexResult[] results = new SimplexResult[values.length];
+        int chains = Math.min(options.getThreads(), values.length);
+        if (chains <= 1) {
+            solveChain(values, order, 0, values.length, deadline, results);
+            return results;
+        }
+        ExecutorService pool = Executors.newWorkStealingPool(chains);
+        try {
+            List<Future<SimplexResult[]>> workers = new ArrayList<>();
+            for (int c = 0; c < chains; c++) {
+                int begin = (int) ((long) c * values.length / chains);
+                int end = (int) ((long) (c + 1) * values.length / chains);
+                SimplexResult[] chain = new SimplexResult[values.length];
+                workers.add(pool.submit(() -> {
+                    solveChain(values, order, begin, end, deadline, chain);
+                    return chain;
+                }));
+            }
+            for (Future<SimplexResult[]> worker : workers) {
+                SimplexResult[] chain = worker.get();
+                for (int k = 0; k < chain.length; k++) {
+                    if (chain[k] != null) {
+                        results[k] = chain[k];
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        for (int k = 0; k < results.length; k++) {
+            if (results[k] == null) {
+                results[k] = new SimplexResult(SolveStatus.CANCELLED, 0, new double[lp.getNumCols()], 0);
+            }
+        }
+        return results;
+    }
+
+    // 依次求解 order[begin..end) 对应的参数值, 每个点从前一个点的基开始
+    private void solveChain(double[] values, int[] order, int begin, int end, long deadline, SimplexResult[] results) {
+        Basis basis = startingBasis;
+        for (int k = begin; k < end; k++) {
+            int point = order[k];
+            if (Thread.currentThread().isInterrupted()) {
+                results[point] = new SimplexResult(SolveStatus.CANCELLED, 0, new double[lp.getNumCols()], 0);
+                continue;
+            }
+            RevisedSimplex simplex = new RevisedSimplex(problemAt(values[point]), stepOptions(deadline));
+            simplex.setStartingBasis(basis);
+            results[point] = simplex.solve();
+            basis = simplex.getBasis();
+        }
+    }
+
+    // 以 theta 处的最优基为准, 把解和目标值外推到段的起点 start
+    private ParametricCurve.Segment segment(RevisedSimplex simplex, SimplexResult result, double theta, double start, double end) {
+        int n = lp.getNumCols();
+        double[] rates;
+        double slope = 0;
+        if (parameter == Parameter.CONSTANT) {
+            rates = Arrays.copyOf(simplex.rhsDirection(index), n);
+            for (int j = 0; j < n; j++) {
+                slope += lp.getCost(j) * rates[j];
+            }
+        } else {
+            // 目标系数变化时顶点不变, 目标值的斜率是这个变量的值
+            rates = new double[n];
+            slope = result.getVariableValues()[index];
+        }
+        double shift = start - theta;
+        double[] values = result.getVariableValues().clone();
+        for (int j = 0; j < n; j++) {
+            values[j] += shift * rates[j];
+        }
+        return new ParametricCurve.Segment(start, end, result.getObjectiveValue() + shift * slope, slope, values, rates);
+    }
+
+    private LpProblem problemAt(double value) {
+        return parameter == Parameter.CONSTANT ? lp.withRowConstant(index, value) : lp.withCost(index, value);
+    }
+
+    private static double clamp(double value, double to, double direction) {
+        return direction * (value - to) > 0 ? to : value;
+    }
+
+    private static void checkValue(double value) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Parameter value must be finite: " + value);
+        }
+    }
+
+    private long deadline() {
+        return options.getTimeLimit() > 0
+                ? System.nanoTime() + options.getTimeLimit() * 1_000_000
+                : Long.MAX_VALUE;
+    }
+
+    // 每次求解使用剩余的时间
+    private SolverOptions stepOptions(long deadline) {
+        SolverOptions stepOptions = new SolverOptions();
+        stepOptions.setPricing(options.getPricing());
+        stepOptions.setRefactorFrequency(options.getRefactorFrequency());
+        stepOptions.setCrash(options.isCrash());
+        if (deadline != Long.MAX_VALUE) {
+            stepOptions.setTimeLimit(Math.max(1, (deadline - System.nanoTime()) / 1_000_000));
+        }
+        return stepOptions;
+    }
+
+    // 寻找最优点的结果: status 为 OPTIMAL 时 basis 是 theta 处的最优基
+    private static final class Probe {
+        private final double theta;
+        private final SolveStatus status;
+        private final Basis basis;
+
+        Probe(double theta, SolveStatus status, Basis basis) {
+            this.theta = theta;
+            this.status = status;
+            this.basis = basis;
+        }
+    }
+}
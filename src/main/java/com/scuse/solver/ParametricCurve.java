@@ -0,0 +1,180 @@
+package com.scuse.solver;
+
+import java.util.List;
+
+// 参数分析的结果: 按参数变化方向 (from 到 to) 排列的线性段, 相邻段在断点处首尾相接.
+// 曲线覆盖 [getStart(), getEnd()], 是 [from, to] 中有最优解的那一段; 没有覆盖到 from 或 to 时
+// getStartStatus() 和 getEndStatus() 说明原因 (不可行, 无界或达到限制)
+public class ParametricCurve {
+    private final ParametricAnalysis.Parameter parameter;
+    private final int index;
+    private final double from;
+    private final double to;
+    private final List<Segment> segments;
+    private final SolveStatus startStatus;
+    private final SolveStatus endStatus;
+    private final int iterations;
+
+    ParametricCurve(ParametricAnalysis.Parameter parameter, int index, double from, double to,
+                    List<Segment> segments, SolveStatus startStatus, SolveStatus endStatus, int iterations) {
+        this.parameter = parameter;
+        this.index = index;
+        this.from = from;
+        this.to = to;
+        this.segments = List.copyOf(segments);
+        this.startStatus = startStatus;
+        this.endStatus = endStatus;
+        this.iterations = iterations;
+    }
+
+    public ParametricAnalysis.Parameter getParameter() {
+        return parameter;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    // 曲线内部的断点, 即相邻段的交界处
+    public double[] getBreakpoints() {
+        double[] breakpoints = new double[Math.max(0, segments.size() - 1)];
+        for (int k = 0; k < breakpoints.length; k++) {
+            breakpoints[k] = segments.get(k).getEnd();
+        }
+        return breakpoints;
+    }
+
+    // 第一段的起点; [from, to] 中找不到最优解时为 NaN
+    public double getStart() {
+        return segments.isEmpty() ? Double.NaN : segments.get(0).getStart();
+    }
+
+    // 最后一段的终点; [from, to] 中找不到最优解时为 NaN
+    public double getEnd() {
+        return segments.isEmpty() ? Double.NaN : segments.get(segments.size() - 1).getEnd();
+    }
+
+    // 曲线覆盖到 from 时为 OPTIMAL, 否则是曲线起点之前 (朝 from 一侧) 的状态
+    public SolveStatus getStartStatus() {
+        return startStatus;
+    }
+
+    // 曲线覆盖到 to 时为 OPTIMAL, 否则是曲线终点之后的状态
+    public SolveStatus getEndStatus() {
+        return endStatus;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public double objectiveAt(double theta) {
+        Segment segment = find(theta);
+        return segment == null ? Double.NaN : segment.objectiveAt(theta);
+    }
+
+    // 参数为 theta 时的最优解; 不在曲线范围内时返回 null
+    public double[] solutionAt(double theta) {
+        Segment segment = find(theta);
+        return segment == null ? null : segment.solutionAt(theta);
+    }
+
+    private Segment find(double theta) {
+        for (Segment segment : segments) {
+            if (Math.min(segment.start, segment.end) <= theta && theta <= Math.max(segment.start, segment.end)) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(parameter == ParametricAnalysis.Parameter.CONSTANT ? "Constraint " : "Objective coefficient ")
+                .append(index + 1).append(" from ").append(from).append(" to ").append(to).append('\n');
+        for (Segment segment : segments) {
+            builder.append(String.format("  [%g, %g]  objective %g %+g*(t - %g)%n",
+                    segment.start, segment.end, segment.objective, segment.slope, segment.start));
+        }
+        if (segments.isEmpty()) {
+            builder.append("  ").append(endStatus).append(" at ").append(from).append('\n');
+            return builder.toString();
+        }
+        if (startStatus != SolveStatus.OPTIMAL) {
+            builder.append("  ").append(startStatus).append(" before ").append(getStart()).append('\n');
+        }
+        if (endStatus != SolveStatus.OPTIMAL) {
+            builder.append("  ").append(endStatus).append(" beyond ").append(getEnd()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    // 一个基保持最优的区间: 目标值为 objective + slope * (t - start), 解为 values + rates * (t - start)
+    public static final class Segment {
+        private final double start;
+        private final double end;
+        private final double objective;
+        private final double slope;
+        private final double[] values;
+        private final double[] rates;
+
+        Segment(double start, double end, double objective, double slope, double[] values, double[] rates) {
+            this.start = start;
+            this.end = end;
+            this.objective = objective;
+            this.slope = slope;
+            this.values = values;
+            this.rates = rates;
+        }
+
+        public double getStart() {
+            return start;
+        }
+
+        public double getEnd() {
+            return end;
+        }
+
+        // 段起点的目标值
+        public double getObjective() {
+            return objective;
+        }
+
+        // 目标值对参数的导数: 常数项为参数时是这一行的影子价格, 目标系数为参数时是这个变量的值
+        public double getSlope() {
+            return slope;
+        }
+
+        // 段起点的解
+        public double[] getValues() {
+            return values.clone();
+        }
+
+        // 解对参数的导数; 目标系数为参数时为 0
+        public double[] getRates() {
+            return rates.clone();
+        }
+
+        public double objectiveAt(double theta) {
+            return objective + slope * (theta - start);
+        }
+
+        public double[] solutionAt(double theta) {
+            double[] solution = new double[values.length];
+            for (int j = 0; j < values.length; j++) {
+                solution[j] = values[j] + rates[j] * (theta - start);
+            }
+            return solution;
+        }
+
+        // 方向相反的同一段, 起点是原来的终点
+        Segment reversed() {
+            return new Segment(end, start, objectiveAt(end), slope, solutionAt(end), rates);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.scuse.solver;
+
+// 部分定价: 每次只扫描一段变量, 从上次停下的位置继续; 这一段没有候选时才看下一段
+class PartialPricing implements PricingRule {
+    private static final int MIN_SEGMENT = 64;
+    private static final int SEGMENTS = 8;
+
+    private int start;
+
+    @Override
+    public void reset(RevisedSimplex simplex) {
+        start = 0;
+    }
+
+    @Override
+    public int select(RevisedSimplex simplex, double[] y, boolean phase1) {
+        int total = simplex.getNumVariables();
+        int segment = Math.max(MIN_SEGMENT, total / SEGMENTS);
+        int from = start % Math.max(1, total);
+        for (int scanned = 0; scanned < total; scanned += segment) {
+            int best = -1;
+            double bestScore = 0;
+            int length = Math.min(segment, total - scanned);
+            for (int k = 0; k < length; k++) {
+                int j = (from + k) % total;
+                double score = simplex.pricingScore(j, y, phase1);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = j;
+                }
+            }
+            from = (from + length) % total;
+            if (best >= 0) {
+                start = from;
+                return best;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void update(RevisedSimplex simplex, int q, int p, double[] alpha) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.scuse.solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// 每次主元变换一个 JFR 事件; 数量很多, 默认关闭, 需要在录制配置中打开 com.scuse.Pivot
+@Name("com.scuse.Pivot")
+@Label("Simplex Pivot")
+@Category("Simplex")
+@Description("One pivot of a simplex engine")
+@Enabled(false)
+class PivotEvent extends jdk.jfr.Event {
+    @Label("Iteration")
+    int iteration;
+
+    @Label("Entering Column")
+    int enteringColumn;
+
+    @Label("Leaving Row")
+    int leavingRow;
+
+    @Label("Objective")
+    double objective;
+
+    @Label("Degenerate")
+    boolean degenerate;
+}
@@ -0,0 +1,405 @@
+package com.scuse.solver;
+
+import com.scuse.model.SparseMatrix;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 预处理: 求解前反复删除空行, 重复行, 单元素行, 固定列, 空列和被占优的列, 得到更小的问题;
+// postsolve 把缩小后问题的解映射回原来的变量
+public class Presolve {
+    private static final double TOLERANCE = 1e-9;
+
+    private final LpProblem lp;
+    private final int m;
+    private final int n;
+    private final double[] colLower;
+    private final double[] colUpper;
+    private final double[] rowLower;
+    private final double[] rowUpper;
+    private final boolean[] rowRemoved;
+    private final boolean[] colRemoved;
+    private final double[] fixedValue; // 被删除的列的取值
+    private final int[] rowLength;     // 行中未删除的列数
+    private int[] colMap;              // 缩小后的列 -> 原来的列
+    private int[] rowMap;              // 缩小后的行 -> 原来的行
+    private boolean infeasible;
+
+    public Presolve(LpProblem lp) {
+        this.lp = lp;
+        m = lp.getNumRows();
+        n = lp.getNumCols();
+        colLower = new double[n];
+        colUpper = new double[n];
+        rowLower = new double[m];
+        rowUpper = new double[m];
+        rowRemoved = new boolean[m];
+        colRemoved = new boolean[n];
+        fixedValue = new double[n];
+        rowLength = new int[m];
+        for (int j = 0; j < n; j++) {
+            colLower[j] = lp.getColLower(j);
+            colUpper[j] = lp.getColUpper(j);
+        }
+        int[] rowStart = lp.getMatrix().getRowStart();
+        for (int i = 0; i < m; i++) {
+            rowLower[i] = lp.getRowLower(i);
+            rowUpper[i] = lp.getRowUpper(i);
+            rowLength[i] = rowStart[i + 1] - rowStart[i];
+        }
+    }
+
+    // 执行预处理, 返回缩小后的问题; 发现不可行时 isInfeasible() 为 true
+    public LpProblem apply() {
+        boolean changed = true;
+        while (changed && !infeasible) {
+            changed = removeFixedColumns();
+            changed |= removeEmptyRows();
+            changed |= removeSingletonRows();
+            changed |= removeDuplicateRows();
+            changed |= removeDominatedColumns();
+        }
+        return reducedProblem();
+    }
+
+    public boolean isInfeasible() {
+        return infeasible;
+    }
+
+    public int getRemovedRows() {
+        int count = 0;
+        for (boolean removed : rowRemoved) {
+            count += removed ? 1 : 0;
+        }
+        return count;
+    }
+
+    public int getRemovedColumns() {
+        int count = 0;
+        for (boolean removed : colRemoved) {
+            count += removed ? 1 : 0;
+        }
+        return count;
+    }
+
+    // 把缩小后问题的结果映射回原来的变量, 目标值按原来的费用重新计算
+    public SimplexResult postsolve(SimplexResult reduced) {
+        if (!reduced.isFeasible()) {
+            return new SimplexResult(reduced.getStatus(), 0, new double[n], reduced.getIterations());
+        }
+        double[] values = fixedValue.clone();
+        double[] reducedValues = reduced.getVariableValues();
+        for (int k = 0; k < colMap.length; k++) {
+            values[colMap[k]] = reducedValues[k];
+        }
+        double objective = 0;
+        for (int j = 0; j < n; j++) {
+            objective += lp.getCost(j) * values[j];
+        }
+        return new SimplexResult(reduced.getStatus(), objective, values, reduced.getIterations(), true);
+    }
+
+    // 把缩小后问题的基映射回原来的问题, 用于下一次热启动: 删除的行的逻辑变量在基中,
+    // 删除的列是非基变量, 停在固定值所在的界上. 基矩阵是分块三角的, 仍然非奇异
+    public Basis postsolve(Basis reduced) {
+        int reducedRows = rowMap.length;
+        int reducedCols = colMap.length;
+        int[] reducedStatus = reduced.getStatus();
+        int[] reducedHeader = reduced.getHeader();
+        int[] status = new int[n + m];
+        int[] header = new int[m];
+        for (int j = 0; j < n; j++) {
+            status[j] = colRemoved[j] && fixedValue[j] == lp.getColUpper(j) && fixedValue[j] != lp.getColLower(j)
+                    ? RevisedSimplex.AT_UPPER
+                    : RevisedSimplex.AT_LOWER;
+        }
+        for (int k = 0; k < reducedCols; k++) {
+            status[colMap[k]] = reducedStatus[k];
+        }
+        for (int r = 0; r < reducedRows; r++) {
+            status[n + rowMap[r]] = reducedStatus[reducedCols + r];
+        }
+        int position = 0;
+        for (int k = 0; k < reducedRows; k++) {
+            int j = reducedHeader[k];
+            header[position++] = j < reducedCols ? colMap[j] : n + rowMap[j - reducedCols];
+        }
+        for (int i = 0; i < m; i++) {
+            if (rowRemoved[i]) {
+                status[n + i] = RevisedSimplex.BASIC;
+                header[position++] = n + i;
+            }
+        }
+        return new Basis(m, n, status, header);
+    }
+
+    private boolean removeFixedColumns() {
+        boolean changed = false;
+        for (int j = 0; j < n && !infeasible; j++) {
+            if (colRemoved[j]) {
+                continue;
+            }
+            if (colLower[j] > colUpper[j] + TOLERANCE) {
+                infeasible = true;
+            } else if (colUpper[j] - colLower[j] <= TOLERANCE) {
+                fixColumn(j, colLower[j]);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // 空行: 0 必须在行的上下界之间
+    private boolean removeEmptyRows() {
+        boolean changed = false;
+        for (int i = 0; i < m; i++) {
+            if (!rowRemoved[i] && rowLength[i] == 0) {
+                if (rowLower[i] > TOLERANCE || rowUpper[i] < -TOLERANCE) {
+                    infeasible = true;
+                    return false;
+                }
+                rowRemoved[i] = true;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // 单元素行 a * x_j 在 [l, u] 之间, 改为 x_j 的界
+    private boolean removeSingletonRows() {
+        SparseMatrix matrix = lp.getMatrix();
+        int[] rowStart = matrix.getRowStart();
+        int[] colIndex = matrix.getColIndex();
+        double[] rowValue = matrix.getRowValue();
+        boolean changed = false;
+        for (int i = 0; i < m && !infeasible; i++) {
+            if (rowRemoved[i] || rowLength[i] != 1) {
+                continue;
+            }
+            for (int e = rowStart[i]; e < rowStart[i + 1]; e++) {
+                int j = colIndex[e];
+                if (colRemoved[j]) {
+                    continue;
+                }
+                double a = rowValue[e];
+                double lower = (a > 0 ? rowLower[i] : rowUpper[i]) / a;
+                double upper = (a > 0 ? rowUpper[i] : rowLower[i]) / a;
+                colLower[j] = Math.max(colLower[j], lower);
+                colUpper[j] = Math.min(colUpper[j], upper);
+                if (colLower[j] > colUpper[j] + TOLERANCE) {
+                    infeasible = true;
+                }
+                removeRow(i);
+                changed = true;
+                break;
+            }
+        }
+        return changed;
+    }
+
+    // 成比例的两行合并为一行, 上下界取交集
+    private boolean removeDuplicateRows() {
+        SparseMatrix matrix = lp.getMatrix();
+        int[] rowStart = matrix.getRowStart();
+        int[] colIndex = matrix.getColIndex();
+        double[] rowValue = matrix.getRowValue();
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        boolean changed = false;
+        for (int i = 0; i < m && !infeasible; i++) {
+            if (rowRemoved[i] || rowLength[i] < 2) {
+                continue;
+            }
+            double first = firstValue(i);
+            long hash = rowLength[i];
+            for (int e = rowStart[i]; e < rowStart[i + 1]; e++) {
+                if (!colRemoved[colIndex[e]]) {
+                    hash = hash * 31 + colIndex[e];
+                    hash = hash * 31 + Math.round(rowValue[e] / first * 1e6);
+                }
+            }
+            List<Integer> bucket = buckets.computeIfAbsent(hash, key -> new ArrayList<>());
+            int duplicateOf = -1;
+            for (int k : bucket) {
+                if (isMultiple(i, k)) {
+                    duplicateOf = k;
+                    break;
+                }
+            }
+            if (duplicateOf < 0) {
+                bucket.add(i);
+                continue;
+            }
+            // 第 i 行 = ratio * 第 k 行
+            int k = duplicateOf;
+            double ratio = first / firstValue(k);
+            double lower = (ratio > 0 ? rowLower[i] : rowUpper[i]) / ratio;
+            double upper = (ratio > 0 ? rowUpper[i] : rowLower[i]) / ratio;
+            rowLower[k] = Math.max(rowLower[k], lower);
+            rowUpper[k] = Math.min(rowUpper[k], upper);
+            if (rowLower[k] > rowUpper[k] + TOLERANCE) {
+                infeasible = true;
+            }
+            removeRow(i);
+            changed = true;
+        }
+        return changed;
+    }
+
+    // 最小化意义下费用非负, 且减小 x_j 不会破坏任何一行的列固定在下界; 反之固定在上界.
+    // 空列是它的特例
+    private boolean removeDominatedColumns() {
+        SparseMatrix matrix = lp.getMatrix();
+        int[] colStart = matrix.getColStart();
+        int[] rowIndex = matrix.getRowIndex();
+        double[] colValue = matrix.getColValue();
+        double sense = lp.isMaximize() ? -1 : 1;
+        boolean changed = false;
+        for (int j = 0; j < n; j++) {
+            if (colRemoved[j]) {
+                continue;
+            }
+            double c = sense * lp.getCost(j);
+            boolean canDecrease = c >= 0 && colLower[j] > Double.NEGATIVE_INFINITY;
+            boolean canIncrease = c <= 0 && colUpper[j] < Double.POSITIVE_INFINITY;
+            for (int e = colStart[j]; e < colStart[j + 1] && (canDecrease || canIncrease); e++) {
+                int i = rowIndex[e];
+                if (rowRemoved[i]) {
+                    continue;
+                }
+                boolean lowerBounded = rowLower[i] > Double.NEGATIVE_INFINITY;
+                boolean upperBounded = rowUpper[i] < Double.POSITIVE_INFINITY;
+                if (colValue[e] > 0) {
+                    canDecrease &= !lowerBounded;
+                    canIncrease &= !upperBounded;
+                } else {
+                    canDecrease &= !upperBounded;
+                    canIncrease &= !lowerBounded;
+                }
+            }
+            if (canDecrease) {
+                fixColumn(j, colLower[j]);
+                changed = true;
+            } else if (canIncrease) {
+                fixColumn(j, colUpper[j]);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // 把列固定为 value, 从所在行的上下界中减去它的贡献
+    private void fixColumn(int j, double value) {
+        SparseMatrix matrix = lp.getMatrix();
+        int[] colStart = matrix.getColStart();
+        int[] rowIndex = matrix.getRowIndex();
+        double[] colValue = matrix.getColValue();
+        for (int e = colStart[j]; e < colStart[j + 1]; e++) {
+            int i = rowIndex[e];
+            if (!rowRemoved[i]) {
+                rowLower[i] -= colValue[e] * value;
+                rowUpper[i] -= colValue[e] * value;
+                rowLength[i]--;
+            }
+        }
+        colRemoved[j] = true;
+        fixedValue[j] = value;
+    }
+
+    private void removeRow(int i) {
+        rowRemoved[i] = true;
+    }
+
+    private double firstValue(int i) {
+        SparseMatrix matrix = lp.getMatrix();
+        int[] rowStart = matrix.getRowStart();
+        for (int e = rowStart[i]; e < rowStart[i + 1]; e++) {
+            if (!colRemoved[matrix.getColIndex()[e]]) {
+                return matrix.getRowValue()[e];
+            }
+        }
+        return 0;
+    }
+
+    // 两行在未删除的列上是否成比例
+    private boolean isMultiple(int i, int k) {
+        if (rowLength[i] != rowLength[k]) {
+            return false;
+        }
+        SparseMatrix matrix = lp.getMatrix();
+        int[] rowStart = matrix.getRowStart();
+        int[] colIndex = matrix.getColIndex();
+        double[] rowValue = matrix.getRowValue();
+        double ratio = firstValue(i) / firstValue(k);
+        int a = rowStart[i];
+        int b = rowStart[k];
+        while (true) {
+            while (a < rowStart[i + 1] && colRemoved[colIndex[a]]) {
+                a++;
+            }
+            while (b < rowStart[k + 1] && colRemoved[colIndex[b]]) {
+                b++;
+            }
+            if (a == rowStart[i + 1] || b == rowStart[k + 1]) {
+                return a == rowStart[i + 1] && b == rowStart[k + 1];
+            }
+            if (colIndex[a] != colIndex[b]
+                    || Math.abs(rowValue[a] - ratio * rowValue[b]) > TOLERANCE * Math.max(1, Math.abs(rowValue[a]))) {
+                return false;
+            }
+            a++;
+            b++;
+        }
+    }
+
+    private LpProblem reducedProblem() {
+        int[] rowIndexMap = new int[m]; // 原来的行 -> 缩小后的行, 删除的行为 -1
+        int rows = 0;
+        rowMap = new int[m - getRemovedRows()];
+        for (int i = 0; i < m; i++) {
+            if (rowRemoved[i]) {
+                rowIndexMap[i] = -1;
+            } else {
+                rowMap[rows] = i;
+                rowIndexMap[i] = rows++;
+            }
+        }
+        int cols = 0;
+        colMap = new int[n - getRemovedColumns()];
+        for (int j = 0; j < n; j++) {
+            if (!colRemoved[j]) {
+                colMap[cols++] = j;
+            }
+        }
+
+        SparseMatrix matrix = lp.getMatrix();
+        int[] colStart = matrix.getColStart();
+        int[] rowIndex = matrix.getRowIndex();
+        double[] colValue = matrix.getColValue();
+        SparseMatrix.Builder builder = SparseMatrix.builder(rows, cols);
+        double[] cost = new double[cols];
+        double[] lower = new double[cols];
+        double[] upper = new double[cols];
+        for (int k = 0; k < cols; k++) {
+            int j = colMap[k];
+            cost[k] = lp.getCost(j);
+            lower[k] = colLower[j];
+            upper[k] = colUpper[j];
+            for (int e = colStart[j]; e < colStart[j + 1]; e++) {
+                if (rowIndexMap[rowIndex[e]] >= 0) {
+                    builder.add(rowIndexMap[rowIndex[e]], k, colValue[e]);
+                }
+            }
+        }
+        double[] reducedRowLower = new double[rows];
+        double[] reducedRowUpper = new double[rows];
+        for (int i = 0; i < m; i++) {
+            if (rowIndexMap[i] >= 0) {
+                reducedRowLower[rowIndexMap[i]] = rowLower[i];
+                reducedRowUpper[rowIndexMap[i]] = rowUpper[i];
+            }
+        }
+        return new LpProblem(builder.build(), cost, lp.isMaximize(), lower, upper, reducedRowLower, reducedRowUpper);
+    }
+}
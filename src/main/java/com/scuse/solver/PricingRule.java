@@ -0,0 +1,26 @@
+package com.scuse.solver;
+
+// 修正单纯形法选入基变量的规则
+interface PricingRule {
+    // 基被整体替换后 (开始求解, 对偶单纯形之后, 奇异修复) 重新初始化权重
+    void reset(RevisedSimplex simplex);
+
+    // 选入基变量, 没有可改进的非基变量时返回 -1
+    int select(RevisedSimplex simplex, double[] y, boolean phase1);
+
+    // 换基之前调用: q 入基, 基位置 p 上的变量出基, alpha = B^{-1} a_q
+    void update(RevisedSimplex simplex, int q, int p, double[] alpha);
+
+    static PricingRule create(SolverOptions.Pricing kind) {
+        switch (kind) {
+            case DEVEX:
+                return new DevexPricing();
+            case STEEPEST_EDGE:
+                return new SteepestEdgePricing();
+            case PARTIAL:
+                return new PartialPricing();
+            default:
+                return new DantzigPricing();
+        }
+    }
+}
@@ -0,0 +1,888 @@
+package com.scuse.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 有界变量的修正单纯形法
+// 变量 0..n-1 为决策变量, n..n+m-1 为每行的逻辑变量 r_i (取值为该行的左端值), 对应的列为 -e_i
+public class RevisedSimplex {
+    static final int BASIC = 0;
+    static final int AT_LOWER = 1;
+    static final int AT_UPPER = 2;
+    static final int AT_ZERO = 3; // 自由变量
+
+    private static final double PRIMAL_TOLERANCE = 1e-7;
+    private static final double DUAL_TOLERANCE = 1e-7;
+    private static final double PIVOT_TOLERANCE = 1e-9;
+    private static final int DEGENERATE_LIMIT = 50;
+
+    private final LpProblem lp;
+    private final SolverOptions options;
+    private final int m;
+    private final int n;
+    private final double[] lower;
+    private final double[] upper;
+    private final double[] cost; // 已统一为最小化
+    private final double[] x;
+    private final int[] status;
+    private final int[] basis;    // 基位置 -> 变量
+    private final int[] position; // 变量 -> 基位置, 非基变量为 -1
+    private final BasisFactor factor;
+    private final PricingRule pricing;
+    private boolean pricingStale = true; // 基被整体替换后需要重置定价权重
+    private Basis startingBasis;
+    private int iterations;
+    private int degenerateSteps;
+    private SolveTrace trace; // 没有监听器时为 null
+
+    // 比值检验的输出
+    private double step;
+    private boolean leavesAtUpper;
+
+    public RevisedSimplex(LpProblem lp, SolverOptions options) {
+        this.lp = lp;
+        this.options = options;
+        m = lp.getNumRows();
+        n = lp.getNumCols();
+        int total = n + m;
+        lower = new double[total];
+        upper = new double[total];
+        cost = new double[total];
+        x = new double[total];
+        status = new int[total];
+        basis = new int[m];
+        position = new int[total];
+        factor = new BasisFactor(m);
+        pricing = PricingRule.create(options.getPricing());
+
+        double sense = lp.isMaximize() ? -1 : 1;
+        for (int j = 0; j < n; j++) {
+            lower[j] = lp.getColLower(j);
+            upper[j] = lp.getColUpper(j);
+            cost[j] = sense * lp.getCost(j);
+        }
+        for (int i = 0; i < m; i++) {
+            lower[n + i] = lp.getRowLower(i);
+            upper[n + i] = lp.getRowUpper(i);
+        }
+    }
+
+    // 设置初始基; 行列数不同的基被忽略
+    public void setStartingBasis(Basis startingBasis) {
+        this.startingBasis = startingBasis != null && startingBasis.fits(lp) ? startingBasis : null;
+    }
+
+    // 当前的基, 求解结束后可以交给下一次求解热启动
+    public Basis getBasis() {
+        return new Basis(m, n, status.clone(), basis.clone());
+    }
+
+    public SimplexResult solve() {
+        trace = SolveTrace.start(options, "REVISED", m, n);
+        SimplexResult result = run();
+        return trace != null ? trace.finish(result) : result;
+    }
+
+    private SimplexResult run() {
+        // 下界大于上界的非基变量会停在一个界上, 不计入不可行度, 必须在这里判定
+        for (int j = 0; j < n + m; j++) {
+            if (lower[j] > upper[j] + PRIMAL_TOLERANCE) {
+                return result(SolveStatus.INFEASIBLE);
+            }
+        }
+        if (startingBasis != null) {
+            loadBasis(startingBasis);
+        } else {
+            for (int j = 0; j < n; j++) {
+                makeNonbasic(j);
+            }
+            for (int i = 0; i < m; i++) {
+                basis[i] = n + i;
+                position[n + i] = i;
+                status[n + i] = BASIC;
+            }
+        }
+        refactor();
+        // 松弛基已经可以直接用对偶单纯形法时不做 crash
+        if (startingBasis == null && options.isCrash() && !(computeInfeasibility() > 0 && isDualFeasible())) {
+            crash();
+        }
+
+        if (trace != null) {
+            trace.eliminationDone(); // 初始分解和 crash
+        }
+
+        SolveLimits limits = new SolveLimits(options, Math.max(1000, 20 * (m + n)));
+        // 初始基不可行但对偶可行时 (费用非负的最小化问题中的 >= 行, 或热启动时只改了右端项)
+        // 用对偶单纯形法, 不需要第一阶段
+        if (computeInfeasibility() > 0 && isDualFeasible()) {
+            SolveStatus dualStatus = dualSimplex(limits);
+            if (dualStatus != null) {
+                return result(dualStatus);
+            }
+        }
+        // 其余情况 (例如只改了目标函数) 从这个基继续原始单纯形法
+        while (true) {
+            SolveStatus stop = limits.check(iterations);
+            if (stop != null) {
+                return result(stop);
+            }
+            boolean phase1 = computeInfeasibility() > 0;
+            if (pricingStale) {
+                pricing.reset(this);
+                pricingStale = false;
+            }
+
+            // 第一阶段的目标是不可行量之和, 非基变量的费用为 0
+            double[] basicCost = new double[m];
+            for (int k = 0; k < m; k++) {
+                basicCost[k] = phase1 ? infeasibilityCost(basis[k]) : cost[basis[k]];
+            }
+            double[] y = factor.btran(basicCost);
+
+            int q = price(y, phase1);
+            if (trace != null) {
+                trace.pricingDone();
+            }
+            if (q < 0) {
+                // 先消除累积误差再确认
+                if (factor.getUpdateCount() > 0) {
+                    refactor();
+                    if (trace != null) {
+                        trace.eliminationDone();
+                    }
+                    continue;
+                }
+                return result(phase1 ? SolveStatus.INFEASIBLE : SolveStatus.OPTIMAL);
+            }
+            double dq = reducedCost(q, y, phase1);
+            int direction = dq < 0 ? 1 : -1;
+
+            double[] column = new double[m];
+            loadColumn(q, column);
+            double[] alpha = factor.ftran(column);
+
+            int p = ratioTest(alpha, q, direction, phase1);
+            if (trace != null) {
+                trace.ratioTestDone();
+            }
+            if (p == -1) {
+                if (factor.getUpdateCount() > 0) {
+                    refactor();
+                    if (trace != null) {
+                        trace.eliminationDone();
+                    }
+                    continue;
+                }
+                return result(phase1 ? SolveStatus.INFEASIBLE : SolveStatus.UNBOUNDED);
+            }
+            iterations++;
+            degenerateSteps = step < 1e-12 ? degenerateSteps + 1 : 0;
+
+            for (int k = 0; k < m; k++) {
+                x[basis[k]] -= direction * alpha[k] * step;
+            }
+            x[q] += direction * step;
+
+            if (p == -2) {
+                // 入基变量直接移动到另一个界
+                status[q] = status[q] == AT_LOWER ? AT_UPPER : AT_LOWER;
+                x[q] = status[q] == AT_LOWER ? lower[q] : upper[q];
+                if (trace != null) {
+                    trace.eliminationDone();
+                    trace.pivot(q, -1, trace.wantsObjective() ? objective() : 0, step < 1e-12);
+                }
+                continue;
+            }
+
+            pricing.update(this, q, p, alpha);
+            int leaving = basis[p];
+            status[leaving] = leavesAtUpper ? AT_UPPER : AT_LOWER;
+            x[leaving] = leavesAtUpper ? upper[leaving] : lower[leaving];
+            position[leaving] = -1;
+            basis[p] = q;
+            position[q] = p;
+            status[q] = BASIC;
+
+            if (factor.getUpdateCount() + 1 >= options.getRefactorFrequency() || Math.abs(alpha[p]) < 1e-7) {
+                refactor();
+            } else {
+                factor.update(p, alpha);
+            }
+            if (trace != null) {
+                trace.eliminationDone();
+                trace.pivot(q, p, trace.wantsObjective() ? objective() : 0, step < 1e-12);
+            }
+        }
+    }
+
+    // 在松弛基下不可行或逻辑变量固定的行上换入结构列, 减少第一阶段的迭代
+    private void crash() {
+        boolean[] rows = new boolean[m];
+        for (int i = 0; i < m; i++) {
+            int j = n + i;
+            rows[i] = lower[j] == upper[j] || x[j] < lower[j] - PRIMAL_TOLERANCE || x[j] > upper[j] + PRIMAL_TOLERANCE;
+        }
+        int[] columns = CrashBasis.crash(lp, lower, upper, rows);
+        boolean changed = false;
+        for (int i = 0; i < m; i++) {
+            int j = columns[i];
+            if (j >= 0) {
+                int k = position[n + i];
+                makeNonbasic(n + i);
+                basis[k] = j;
+                position[j] = k;
+                status[j] = BASIC;
+                changed = true;
+            }
+        }
+        if (changed) {
+            refactor();
+        }
+    }
+
+    // 按给定的基设置状态; 界已经改变而不再有效的非基状态重新选择
+    private void loadBasis(Basis start) {
+        int[] startStatus = start.getStatus();
+        int[] header = start.getHeader();
+        for (int j = 0; j < n + m; j++) {
+            makeNonbasic(j);
+            if (startStatus[j] == AT_UPPER && upper[j] < Double.POSITIVE_INFINITY) {
+                status[j] = AT_UPPER;
+                x[j] = upper[j];
+            } else if (startStatus[j] == AT_LOWER && lower[j] > Double.NEGATIVE_INFINITY) {
+                status[j] = AT_LOWER;
+                x[j] = lower[j];
+            }
+        }
+        for (int k = 0; k < m; k++) {
+            basis[k] = header[k];
+            position[header[k]] = k;
+            status[header[k]] = BASIC;
+        }
+    }
+
+    private boolean isDualFeasible() {
+        double[] basicCost = new double[m];
+        for (int k = 0; k < m; k++) {
+            basicCost[k] = cost[basis[k]];
+        }
+        double[] y = factor.btran(basicCost);
+        for (int j = 0; j < n + m; j++) {
+            if (status[j] == BASIC || lower[j] == upper[j]) {
+                continue;
+            }
+            double d = reducedCost(j, y, false);
+            if ((status[j] != AT_UPPER && d < -DUAL_TOLERANCE) || (status[j] != AT_LOWER && d > DUAL_TOLERANCE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 对偶单纯形法, 要求当前基对偶可行. 每次让越界最多的基变量出基, 用 Harris 两遍对偶比值检验选入基变量.
+    // 原始可行时返回 null, 由原始单纯形法确认最优
+    private SolveStatus dualSimplex(SolveLimits limits) {
+        double[] basicCost = new double[m];
+        double[] rowEntry = new double[n + m];
+        int dualDegenerateSteps = 0;
+        while (true) {
+            SolveStatus stop = limits.check(iterations);
+            if (stop != null) {
+                return stop;
+            }
+            // 对偶退化 (例如费用全为 0) 时按最大不可行量选行会循环, 连续退化太多步后改用 Bland 规则:
+            // 出基取下标最小的不可行基变量, 入基取比值最小者中下标最小的
+            boolean bland = dualDegenerateSteps > DEGENERATE_LIMIT;
+            int r = -1;
+            double worst = PRIMAL_TOLERANCE;
+            for (int k = 0; k < m; k++) {
+                int j = basis[k];
+                double infeasibility = Math.max(lower[j] - x[j], x[j] - upper[j]);
+                if (bland ? infeasibility > PRIMAL_TOLERANCE && (r < 0 || j < basis[r]) : infeasibility > worst) {
+                    worst = infeasibility;
+                    r = k;
+                }
+            }
+            if (r < 0) {
+                return null;
+            }
+            if (trace != null) {
+                trace.pricingDone();
+            }
+            int leaving = basis[r];
+            boolean toLower = x[leaving] < lower[leaving];
+
+            for (int k = 0; k < m; k++) {
+                basicCost[k] = cost[basis[k]];
+            }
+            double[] y = factor.btran(basicCost);
+            double[] unit = new double[m];
+            unit[r] = 1;
+            double[] rho = factor.btran(unit);
+
+            // 第一遍: 允许对偶不可行量不超过容差时的最大步长
+            double thetaMax = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < n + m; j++) {
+                rowEntry[j] = 0;
+                if (status[j] == BASIC || lower[j] == upper[j]) {
+                    continue;
+                }
+                double a = j >= n ? -rho[j - n] : lp.columnDot(j, rho);
+                // s > 0 表示 x_j 增大时出基变量向目标界移动
+                double s = toLower ? -a : a;
+                if ((status[j] != AT_UPPER && s > PIVOT_TOLERANCE) || (status[j] != AT_LOWER && s < -PIVOT_TOLERANCE)) {
+                    rowEntry[j] = s;
+                    double d = reducedCost(j, y, false) * (s > 0 ? 1 : -1);
+                    thetaMax = Math.min(thetaMax, (Math.max(0, d) + (bland ? 0 : DUAL_TOLERANCE)) / Math.abs(s));
+                }
+            }
+
+            // 第二遍: 在步长不超过 thetaMax 的候选中选 |s| 最大者
+            int q = -1;
+            double bestPivot = 0;
+            double dualStep = 0;
+            for (int j = 0; j < n + m; j++) {
+                double s = rowEntry[j];
+                if (s == 0) {
+                    continue;
+                }
+                double d = reducedCost(j, y, false) * (s > 0 ? 1 : -1);
+                if (Math.max(0, d) / Math.abs(s) <= thetaMax && (bland ? q < 0 : Math.abs(s) > bestPivot)) {
+                    bestPivot = Math.abs(s);
+                    dualStep = Math.max(0, d) / Math.abs(s);
+                    q = j;
+                }
+            }
+            if (trace != null) {
+                trace.ratioTestDone();
+            }
+            if (q < 0) {
+                if (factor.getUpdateCount() > 0) {
+                    refactor();
+                    if (trace != null) {
+                        trace.eliminationDone();
+                    }
+                    continue;
+                }
+                return SolveStatus.INFEASIBLE;
+            }
+
+            double[] column = new double[m];
+            loadColumn(q, column);
+            double[] alpha = factor.ftran(column);
+            double target = toLower ? lower[leaving] : upper[leaving];
+            double theta = (x[leaving] - target) / alpha[r];
+            iterations++;
+            dualDegenerateSteps = dualStep < 1e-12 ? dualDegenerateSteps + 1 : 0;
+
+            for (int k = 0; k < m; k++) {
+                x[basis[k]] -= alpha[k] * theta;
+            }
+            x[q] += theta;
+            status[leaving] = toLower ? AT_LOWER : AT_UPPER;
+            x[leaving] = target;
+            position[leaving] = -1;
+            basis[r] = q;
+            position[q] = r;
+            status[q] = BASIC;
+
+            if (factor.getUpdateCount() + 1 >= options.getRefactorFrequency() || Math.abs(alpha[r]) < 1e-7) {
+                refactor();
+            } else {
+                factor.update(r, alpha);
+            }
+            if (trace != null) {
+                // 对偶步长为 0 时目标值不变
+                trace.eliminationDone();
+                trace.pivot(q, r, trace.wantsObjective() ? objective() : 0, dualStep < 1e-12);
+            }
+        }
+    }
+
+    private void makeNonbasic(int j) {
+        position[j] = -1;
+        if (lower[j] > Double.NEGATIVE_INFINITY) {
+            status[j] = AT_LOWER;
+            x[j] = lower[j];
+        } else if (upper[j] < Double.POSITIVE_INFINITY) {
+            status[j] = AT_UPPER;
+            x[j] = upper[j];
+        } else {
+            status[j] = AT_ZERO;
+            x[j] = 0;
+        }
+    }
+
+    // 重新分解基矩阵并重算基变量的值; 奇异时用对应行的逻辑变量替换
+    private void refactor() {
+        int[][] colIndex = new int[m][];
+        double[][] colValue = new double[m][];
+        int[] colLength = new int[m];
+        while (true) {
+            for (int k = 0; k < m; k++) {
+                int j = basis[k];
+                if (j >= n) {
+                    colIndex[k] = new int[]{j - n};
+                    colValue[k] = new double[]{-1};
+                    colLength[k] = 1;
+                } else {
+                    int length = lp.getColumnLength(j);
+                    colIndex[k] = new int[length];
+                    colValue[k] = new double[length];
+                    colLength[k] = lp.getColumnEntries(j, colIndex[k], colValue[k]);
+                }
+            }
+            factor.factorize(colIndex, colValue, colLength);
+            if (!factor.isSingular()) {
+                break;
+            }
+            pricingStale = true;
+            int[] positions = factor.getSingularPositions();
+            int[] rows = factor.getUnpivotedRows();
+            for (int s = 0; s < positions.length; s++) {
+                int j = basis[positions[s]];
+                makeNonbasic(j);
+                int logical = n + rows[s];
+                basis[positions[s]] = logical;
+                position[logical] = positions[s];
+                status[logical] = BASIC;
+            }
+        }
+        computePrimal();
+    }
+
+    // x_B = B^{-1} (-N x_N)
+    private void computePrimal() {
+        double[] rhs = new double[m];
+        for (int j = 0; j < n + m; j++) {
+            if (status[j] != BASIC && x[j] != 0) {
+                if (j >= n) {
+                    rhs[j - n] += x[j];
+                } else {
+                    lp.addColumn(j, -x[j], rhs);
+                }
+            }
+        }
+        double[] xB = factor.ftran(rhs);
+        for (int k = 0; k < m; k++) {
+            x[basis[k]] = xB[k];
+        }
+    }
+
+    private double computeInfeasibility() {
+        double sum = 0;
+        for (int k = 0; k < m; k++) {
+            int j = basis[k];
+            if (x[j] < lower[j] - PRIMAL_TOLERANCE) {
+                sum += lower[j] - x[j];
+            } else if (x[j] > upper[j] + PRIMAL_TOLERANCE) {
+                sum += x[j] - upper[j];
+            }
+        }
+        return sum;
+    }
+
+    private double infeasibilityCost(int j) {
+        if (x[j] < lower[j] - PRIMAL_TOLERANCE) {
+            return -1;
+        }
+        if (x[j] > upper[j] + PRIMAL_TOLERANCE) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private void loadColumn(int j, double[] column) {
+        if (j >= n) {
+            column[j - n] = -1;
+        } else {
+            lp.addColumn(j, 1, column);
+        }
+    }
+
+    private double reducedCost(int j, double[] y, boolean phase1) {
+        double c = phase1 ? 0 : cost[j];
+        if (j >= n) {
+            return c + y[j - n];
+        }
+        return c - lp.columnDot(j, y);
+    }
+
+    // 按选定的定价规则选入基变量; 长时间退化时改用 Bland 规则防止循环
+    private int price(double[] y, boolean phase1) {
+        if (degenerateSteps <= DEGENERATE_LIMIT) {
+            return pricing.select(this, y, phase1);
+        }
+        for (int j = 0; j < n + m; j++) {
+            if (pricingScore(j, y, phase1) > 0) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    // 以下供定价规则使用
+
+    int getNumVariables() {
+        return n + m;
+    }
+
+    boolean isNonbasic(int j) {
+        return status[j] != BASIC;
+    }
+
+    int getBasicVariable(int p) {
+        return basis[p];
+    }
+
+    // 变量 j 沿可改进方向移动时约化费用的绝对值, 不能改进时为 0
+    double pricingScore(int j, double[] y, boolean phase1) {
+        if (status[j] == BASIC || lower[j] == upper[j]) {
+            return 0;
+        }
+        double d = reducedCost(j, y, phase1);
+        boolean canIncrease = status[j] != AT_UPPER && d < -DUAL_TOLERANCE;
+        boolean canDecrease = status[j] != AT_LOWER && d > DUAL_TOLERANCE;
+        return canIncrease || canDecrease ? Math.abs(d) : 0;
+    }
+
+    double[] column(int j) {
+        double[] column = new double[m];
+        loadColumn(j, column);
+        return column;
+    }
+
+    // 变量 j 的列 (逻辑变量为 -e_i) 与 v 的内积
+    double columnDot(int j, double[] v) {
+        return j >= n ? -v[j - n] : lp.columnDot(j, v);
+    }
+
+    double[] ftran(double[] v) {
+        return factor.ftran(v);
+    }
+
+    double[] btran(double[] v) {
+        return factor.btran(v);
+    }
+
+    // 以下供枚举最优顶点使用
+
+    // 载入一个基并重新分解; 分解时有列被替换, 或者这个基不再原始可行且对偶可行 (最优) 时返回 false
+    boolean reload(Basis start) {
+        loadBasis(start);
+        refactor();
+        return Arrays.equals(status, start.getStatus()) && computeInfeasibility() == 0 && isDualFeasible();
+    }
+
+    SimplexResult currentResult() {
+        return result(SolveStatus.OPTIMAL);
+    }
+
+    // 当前最优基沿约化费用为 0 的非基变量转一次轴得到的所有基. 这些基的约化费用不变, 仍然最优.
+    // 比值相同的每个离基位置都给出一个相邻基, 退化顶点上的所有基都能走到; 沿某个方向无界时那个方向没有顶点
+    List<Basis> optimalNeighbours() {
+        double[] basicCost = new double[m];
+        for (int k = 0; k < m; k++) {
+            basicCost[k] = cost[basis[k]];
+        }
+        double[] y = factor.btran(basicCost);
+        List<Basis> neighbours = new ArrayList<>();
+        for (int q = 0; q < n + m; q++) {
+            if (status[q] == BASIC || lower[q] == upper[q] || Math.abs(reducedCost(q, y, false)) > DUAL_TOLERANCE) {
+                continue;
+            }
+            double[] alpha = null;
+            for (int direction = 1; direction >= -1; direction -= 2) {
+                if (status[q] == (direction > 0 ? AT_UPPER : AT_LOWER)) {
+                    continue;
+                }
+                if (alpha == null) {
+                    alpha = factor.ftran(column(q));
+                }
+                addNeighbours(q, direction, alpha, neighbours);
+            }
+        }
+        return neighbours;
+    }
+
+    private void addNeighbours(int q, int direction, double[] alpha, List<Basis> neighbours) {
+        double minRatio = upper[q] - lower[q];
+        for (int k = 0; k < m; k++) {
+            double delta = -direction * alpha[k];
+            if (Math.abs(delta) < PIVOT_TOLERANCE) {
+                continue;
+            }
+            double bound = breakpoint(basis[k], delta, false);
+            if (!Double.isInfinite(bound)) {
+                minRatio = Math.min(minRatio, Math.max(0, (bound - x[basis[k]]) / delta));
+            }
+        }
+        if (Double.isInfinite(minRatio)) {
+            return;
+        }
+        double tolerance = PRIMAL_TOLERANCE * (1 + minRatio);
+        if (upper[q] - lower[q] <= minRatio + tolerance) {
+            int[] flipped = status.clone();
+            flipped[q] = status[q] == AT_LOWER ? AT_UPPER : AT_LOWER;
+            neighbours.add(new Basis(m, n, flipped, basis.clone()));
+        }
+        for (int k = 0; k < m; k++) {
+            double delta = -direction * alpha[k];
+            if (Math.abs(delta) < PIVOT_TOLERANCE) {
+                continue;
+            }
+            int j = basis[k];
+            double bound = breakpoint(j, delta, false);
+            if (Double.isInfinite(bound) || Math.max(0, (bound - x[j]) / delta) > minRatio + tolerance) {
+                continue;
+            }
+            int[] nextStatus = status.clone();
+            int[] nextHeader = basis.clone();
+            nextStatus[j] = bound == upper[j] ? AT_UPPER : AT_LOWER;
+            nextStatus[q] = BASIC;
+            nextHeader[k] = q;
+            neighbours.add(new Basis(m, n, nextStatus, nextHeader));
+        }
+    }
+
+    // 以下供参数分析和灵敏度分析使用, 要求当前基最优. 改变量都按原问题 (未统一为最小化) 的方向
+
+    // 第 i 行常数项增加 1 时各变量 (包括逻辑变量) 的变化率. 逻辑变量非基时取值就是常数项, 随之移动,
+    // 基变量按 B^{-1} e_i 变化; 逻辑变量在基中 (约束不起作用) 时解不变
+    double[] rhsDirection(int i) {
+        double[] direction = new double[n + m];
+        int logical = n + i;
+        if (status[logical] == BASIC) {
+            return direction;
+        }
+        double[] unit = new double[m];
+        unit[i] = 1;
+        double[] v = factor.ftran(unit);
+        for (int k = 0; k < m; k++) {
+            direction[basis[k]] = v[k];
+        }
+        direction[logical] = 1;
+        return direction;
+    }
+
+    // 当前基保持最优时第 i 行常数项可以减少和增加的量 {减少, 增加}
+    double[] rhsRange(int i) {
+        int logical = n + i;
+        if (status[logical] == BASIC) {
+            // 常数项是逻辑变量的有限界, 移动到逻辑变量的当前值为止
+            double increase = lower[logical] > Double.NEGATIVE_INFINITY ? x[logical] - lower[logical] : Double.POSITIVE_INFINITY;
+            double decrease = upper[logical] < Double.POSITIVE_INFINITY ? upper[logical] - x[logical] : Double.POSITIVE_INFINITY;
+            return new double[]{Math.max(0, decrease), Math.max(0, increase)};
+        }
+        double[] direction = rhsDirection(i);
+        double decrease = Double.POSITIVE_INFINITY;
+        double increase = Double.POSITIVE_INFINITY;
+        for (int k = 0; k < m; k++) {
+            int j = basis[k];
+            double d = direction[j];
+            if (Math.abs(d) < PIVOT_TOLERANCE) {
+                continue;
+            }
+            double room = d > 0 ? upper[j] - x[j] : x[j] - lower[j];     // 常数项增加时
+            double back = d > 0 ? x[j] - lower[j] : upper[j] - x[j];     // 常数项减少时
+            increase = Math.min(increase, Math.max(0, room) / Math.abs(d));
+            decrease = Math.min(decrease, Math.max(0, back) / Math.abs(d));
+        }
+        return new double[]{decrease, increase};
+    }
+
+    // 当前基保持最优时目标函数第 j 个系数可以减少和增加的量 {减少, 增加}
+    double[] costRange(int j) {
+        return costRange(j, duals());
+    }
+
+    // 灵敏度分析: 影子价格是 y_i, 约化费用是 d_j, 范围由 rhsRange 和 costRange 得到
+    Sensitivity sensitivity() {
+        double sense = lp.isMaximize() ? -1 : 1;
+        double[] y = duals();
+        double[] shadowPrices = new double[m];
+        double[] constantLower = new double[m];
+        double[] constantUpper = new double[m];
+        for (int i = 0; i < m; i++) {
+            int logical = n + i;
+            // 约束不起作用时影子价格为 0; 加 0.0 去掉 -0.0
+            shadowPrices[i] = status[logical] == BASIC ? 0 : sense * y[i] + 0.0;
+            double constant = lower[logical] > Double.NEGATIVE_INFINITY ? lower[logical] : upper[logical];
+            double[] range = rhsRange(i);
+            constantLower[i] = constant - range[0];
+            constantUpper[i] = constant + range[1];
+        }
+        double[] reducedCosts = new double[n];
+        double[] costLower = new double[n];
+        double[] costUpper = new double[n];
+        for (int j = 0; j < n; j++) {
+            reducedCosts[j] = status[j] == BASIC ? 0 : sense * reducedCost(j, y, false) + 0.0;
+            double[] range = costRange(j, y);
+            costLower[j] = lp.getCost(j) - range[0];
+            costUpper[j] = lp.getCost(j) + range[1];
+        }
+        return new Sensitivity(shadowPrices, constantLower, constantUpper, reducedCosts, costLower, costUpper);
+    }
+
+    // 当前基的对偶变量 y = B^{-T} c_B (最小化意义)
+    private double[] duals() {
+        double[] basicCost = new double[m];
+        for (int k = 0; k < m; k++) {
+            basicCost[k] = cost[basis[k]];
+        }
+        return factor.btran(basicCost);
+    }
+
+    private double[] costRange(int j, double[] y) {
+        double sense = lp.isMaximize() ? -1 : 1;
+        double low = Double.NEGATIVE_INFINITY; // 内部 (最小化) 费用的允许变化区间
+        double high = Double.POSITIVE_INFINITY;
+        if (status[j] != BASIC) {
+            // 只有自己的约化费用改变
+            double d = reducedCost(j, y, false);
+            if (lower[j] == upper[j]) {
+                return new double[]{Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+            } else if (status[j] == AT_LOWER) {
+                low = -Math.max(0, d);
+            } else if (status[j] == AT_UPPER) {
+                high = -Math.min(0, d);
+            } else {
+                low = 0;
+                high = 0;
+            }
+        } else {
+            // 基变量的费用改变 delta 时, 非基变量 k 的约化费用变为 d_k - delta * (B^{-1} a_k)_p
+            double[] unit = new double[m];
+            unit[position[j]] = 1;
+            double[] rho = factor.btran(unit);
+            for (int k = 0; k < n + m; k++) {
+                if (status[k] == BASIC || lower[k] == upper[k]) {
+                    continue;
+                }
+                double alpha = columnDot(k, rho);
+                if (Math.abs(alpha) < PIVOT_TOLERANCE) {
+                    continue;
+                }
+                double d = reducedCost(k, y, false);
+                if (status[k] == AT_ZERO) {
+                    low = 0;
+                    high = 0;
+                    break;
+                }
+                // AT_LOWER 要求 d_k - delta * alpha >= 0, AT_UPPER 要求 <= 0
+                boolean atLower = status[k] == AT_LOWER;
+                double limit = (atLower ? Math.max(0, d) : Math.min(0, d)) / alpha;
+                if (atLower == alpha > 0) {
+                    high = Math.min(high, limit);
+                } else {
+                    low = Math.max(low, limit);
+                }
+            }
+        }
+        low = Math.min(0, low);
+        high = Math.max(0, high);
+        return sense > 0 ? new double[]{-low, high} : new double[]{high, -low};
+    }
+
+    // Harris 两遍比值检验. 返回离基的基位置, -1 表示无界, -2 表示入基变量翻转到另一个界
+    private int ratioTest(double[] alpha, int q, int direction, boolean phase1) {
+        boolean bland = degenerateSteps > DEGENERATE_LIMIT;
+        double thetaMax = Double.POSITIVE_INFINITY;
+        for (int k = 0; k < m; k++) {
+            double delta = -direction * alpha[k];
+            if (Math.abs(delta) < PIVOT_TOLERANCE) {
+                continue;
+            }
+            double bound = breakpoint(basis[k], delta, phase1);
+            if (Double.isInfinite(bound)) {
+                continue;
+            }
+            double ratio = (bound - x[basis[k]]) / delta + PRIMAL_TOLERANCE / Math.abs(delta);
+            thetaMax = Math.min(thetaMax, Math.max(0, ratio));
+        }
+
+        int leave = -1;
+        double bestPivot = 0;
+        double bestStep = Double.POSITIVE_INFINITY;
+        if (thetaMax < Double.POSITIVE_INFINITY) {
+            for (int k = 0; k < m; k++) {
+                double delta = -direction * alpha[k];
+                if (Math.abs(delta) < PIVOT_TOLERANCE) {
+                    continue;
+                }
+                int j = basis[k];
+                double bound = breakpoint(j, delta, phase1);
+                if (Double.isInfinite(bound)) {
+                    continue;
+                }
+                double ratio = Math.max(0, (bound - x[j]) / delta);
+                if (ratio > thetaMax) {
+                    continue;
+                }
+                boolean better = bland
+                        ? leave < 0 || j < basis[leave]
+                        : Math.abs(delta) > bestPivot;
+                if (better) {
+                    leave = k;
+                    bestPivot = Math.abs(delta);
+                    bestStep = ratio;
+                    leavesAtUpper = bound == upper[j];
+                }
+            }
+        }
+
+        double range = upper[q] - lower[q];
+        if (range < Double.POSITIVE_INFINITY && range <= bestStep) {
+            step = range;
+            return -2;
+        }
+        if (leave < 0) {
+            return -1;
+        }
+        step = bestStep;
+        return leave;
+    }
+
+    // 基变量沿 delta 方向移动时首先碰到的界; 第一阶段中不可行变量在回到可行域时停下
+    private double breakpoint(int j, double delta, boolean phase1) {
+        if (delta < 0) {
+            if (x[j] > upper[j] + PRIMAL_TOLERANCE) {
+                return phase1 ? upper[j] : Double.NEGATIVE_INFINITY;
+            }
+            if (x[j] < lower[j] - PRIMAL_TOLERANCE) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return lower[j];
+        }
+        if (x[j] < lower[j] - PRIMAL_TOLERANCE) {
+            return phase1 ? lower[j] : Double.POSITIVE_INFINITY;
+        }
+        if (x[j] > upper[j] + PRIMAL_TOLERANCE) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return upper[j];
+    }
+
+    // 当前解的目标值, 只在回调需要时计算
+    private double objective() {
+        double objective = 0;
+        for (int j = 0; j < n; j++) {
+            objective += lp.getCost(j) * x[j];
+        }
+        return objective;
+    }
+
+    // 提前停止时, 只有原始可行的当前解才作为目前最好的解返回
+    private SimplexResult result(SolveStatus solveStatus) {
+        double[] values = Arrays.copyOf(x, n);
+        double objective = 0;
+        for (int j = 0; j < n; j++) {
+            objective += lp.getCost(j) * values[j];
+        }
+        boolean feasible = solveStatus == SolveStatus.OPTIMAL
+                || SolveLimits.isLimit(solveStatus) && computeInfeasibility() == 0;
+        return new SimplexResult(solveStatus, objective, values, iterations, feasible);
+    }
+}
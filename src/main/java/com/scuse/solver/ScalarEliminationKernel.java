@@ -0,0 +1,17 @@
+package com.scuse.solver;
+
+class ScalarEliminationKernel implements EliminationKernel {
+    @Override
+    public void divideRow(double[] t, int row, int length, double divisor) {
+        for (int j = row; j < row + length; j++) {
+            t[j] /= divisor;
+        }
+    }
+
+    @Override
+    public void subtractRow(double[] t, int target, int source, int length, double factor) {
+        for (int j = 0; j < length; j++) {
+            t[target + j] -= factor * t[source + j];
+        }
+    }
+}
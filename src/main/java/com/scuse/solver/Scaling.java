@@ -0,0 +1,166 @@
+package com.scuse.solver;
+
+import com.scuse.model.SparseMatrix;
+
+import java.util.Arrays;
+
+// 行列缩放: 先做几遍几何平均缩放, 再按列均衡使每列最大绝对值为 1.
+// 缩放后的矩阵为 R A C, 变量为 C^{-1} x; 缩放因子取 2 的幂, 不引入舍入误差
+public class Scaling {
+    private static final int MAX_PASSES = 8;
+    private static final double MIN_IMPROVEMENT = 0.9; // 一遍后比值没有降到原来的 0.9 倍就停止
+
+    private final SparseMatrix matrix;
+    private final double[] rowScale;
+    private final double[] colScale;
+    private final double rangeBefore;
+    private double rangeAfter;
+
+    public Scaling(SparseMatrix matrix) {
+        this.matrix = matrix;
+        rowScale = new double[matrix.getNumRows()];
+        colScale = new double[matrix.getNumCols()];
+        Arrays.fill(rowScale, 1);
+        Arrays.fill(colScale, 1);
+        rangeBefore = range();
+
+        rangeAfter = rangeBefore;
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            geometricRowPass();
+            geometricColumnPass();
+            double range = range();
+            boolean improved = range < MIN_IMPROVEMENT * rangeAfter;
+            rangeAfter = range;
+            if (!improved) {
+                break;
+            }
+        }
+        equilibrateColumns();
+        rangeAfter = range();
+    }
+
+    public double getRowScale(int i) {
+        return rowScale[i];
+    }
+
+    public double getColScale(int j) {
+        return colScale[j];
+    }
+
+    // 缩放前非零元最大绝对值与最小绝对值之比
+    public double getRangeBefore() {
+        return rangeBefore;
+    }
+
+    public double getRangeAfter() {
+        return rangeAfter;
+    }
+
+    public LpProblem scale(LpProblem lp) {
+        int m = lp.getNumRows();
+        int n = lp.getNumCols();
+        int[] colStart = matrix.getColStart();
+        int[] rowIndex = matrix.getRowIndex();
+        double[] colValue = matrix.getColValue();
+        SparseMatrix.Builder builder = SparseMatrix.builder(m, n);
+        double[] cost = new double[n];
+        double[] colLower = new double[n];
+        double[] colUpper = new double[n];
+        for (int j = 0; j < n; j++) {
+            for (int e = colStart[j]; e < colStart[j + 1]; e++) {
+                builder.add(rowIndex[e], j, colValue[e] * rowScale[rowIndex[e]] * colScale[j]);
+            }
+            cost[j] = lp.getCost(j) * colScale[j];
+            colLower[j] = lp.getColLower(j) / colScale[j];
+            colUpper[j] = lp.getColUpper(j) / colScale[j];
+        }
+        double[] rowLower = new double[m];
+        double[] rowUpper = new double[m];
+        for (int i = 0; i < m; i++) {
+            rowLower[i] = lp.getRowLower(i) * rowScale[i];
+            rowUpper[i] = lp.getRowUpper(i) * rowScale[i];
+        }
+        return new LpProblem(builder.build(), cost, lp.isMaximize(), colLower, colUpper, rowLower, rowUpper);
+    }
+
+    // 缩放后问题的解换回原来的变量, 目标值不变
+    public SimplexResult unscale(SimplexResult scaled) {
+        double[] values = scaled.getVariableValues().clone();
+        for (int j = 0; j < values.length; j++) {
+            values[j] *= colScale[j];
+        }
+        return new SimplexResult(scaled.getStatus(), scaled.getObjectiveValue(), values, scaled.getIterations(), scaled.isFeasible());
+    }
+
+    // 每行除以该行 max * min 的平方根
+    private void geometricRowPass() {
+        int[] rowStart = matrix.getRowStart();
+        int[] colIndex = matrix.getColIndex();
+        double[] rowValue = matrix.getRowValue();
+        for (int i = 0; i < rowScale.length; i++) {
+            double max = 0;
+            double min = Double.POSITIVE_INFINITY;
+            for (int e = rowStart[i]; e < rowStart[i + 1]; e++) {
+                double value = Math.abs(rowValue[e]) * colScale[colIndex[e]];
+                max = Math.max(max, value);
+                min = Math.min(min, value);
+            }
+            if (max > 0) {
+                rowScale[i] = powerOfTwo(1 / Math.sqrt(max * min));
+            }
+        }
+    }
+
+    private void geometricColumnPass() {
+        int[] colStart = matrix.getColStart();
+        int[] rowIndex = matrix.getRowIndex();
+        double[] colValue = matrix.getColValue();
+        for (int j = 0; j < colScale.length; j++) {
+            double max = 0;
+            double min = Double.POSITIVE_INFINITY;
+            for (int e = colStart[j]; e < colStart[j + 1]; e++) {
+                double value = Math.abs(colValue[e]) * rowScale[rowIndex[e]];
+                max = Math.max(max, value);
+                min = Math.min(min, value);
+            }
+            if (max > 0) {
+                colScale[j] = powerOfTwo(1 / Math.sqrt(max * min));
+            }
+        }
+    }
+
+    private void equilibrateColumns() {
+        int[] colStart = matrix.getColStart();
+        int[] rowIndex = matrix.getRowIndex();
+        double[] colValue = matrix.getColValue();
+        for (int j = 0; j < colScale.length; j++) {
+            double max = 0;
+            for (int e = colStart[j]; e < colStart[j + 1]; e++) {
+                max = Math.max(max, Math.abs(colValue[e]) * rowScale[rowIndex[e]]);
+            }
+            if (max > 0) {
+                colScale[j] = powerOfTwo(1 / max);
+            }
+        }
+    }
+
+    private double range() {
+        int[] colStart = matrix.getColStart();
+        int[] rowIndex = matrix.getRowIndex();
+        double[] colValue = matrix.getColValue();
+        double max = 0;
+        double min = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < colScale.length; j++) {
+            for (int e = colStart[j]; e < colStart[j + 1]; e++) {
+                double value = Math.abs(colValue[e]) * rowScale[rowIndex[e]] * colScale[j];
+                max = Math.max(max, value);
+                min = Math.min(min, value);
+            }
+        }
+        return max > 0 ? max / min : 1;
+    }
+
+    private static double powerOfTwo(double value) {
+        return Math.scalb(1.0, Math.getExponent(value));
+    }
+}
@@ -0,0 +1,82 @@
+package com.scuse.solver;
+
+// 最优基上的灵敏度分析: 每行的影子价格和常数项范围, 每个变量的约化费用和目标系数范围.
+// 都按原问题的方向: 影子价格是常数项增加 1 时目标值的变化, 约化费用是变量离开当前界增加 1 时目标值的变化.
+// 范围是当前基保持最优时常数项或目标系数可以取的区间, 可以是无穷
+public class Sensitivity {
+    private final double[] shadowPrices;
+    private final double[] constantLower;
+    private final double[] constantUpper;
+    private final double[] reducedCosts;
+    private final double[] costLower;
+    private final double[] costUpper;
+
+    public Sensitivity(double[] shadowPrices, double[] constantLower, double[] constantUpper,
+                       double[] reducedCosts, double[] costLower, double[] costUpper) {
+        this.shadowPrices = shadowPrices;
+        this.constantLower = constantLower;
+        this.constantUpper = constantUpper;
+        this.reducedCosts = reducedCosts;
+        this.costLower = costLower;
+        this.costUpper = costUpper;
+    }
+
+    // 在 lp 的最优基 basis 上计算. basis 是修正单纯形法在 lp (或它的缩放) 上求出的最优基时只重新分解, 不转轴;
+    // 否则 (预处理后的基, 缓存命中, 单纯形表求出的解) 从它热启动求解一次. 没有最优解时返回 null
+    public static Sensitivity analyze(LpProblem lp, SolverOptions options, Basis basis) {
+        RevisedSimplex simplex = new RevisedSimplex(lp, options);
+        if (basis == null || !basis.fits(lp) || !simplex.reload(basis)) {
+            simplex.setStartingBasis(basis);
+            if (simplex.solve().getStatus() != SolveStatus.OPTIMAL) {
+                return null;
+            }
+        }
+        return simplex.sensitivity();
+    }
+
+    public double[] getShadowPrices() {
+        return shadowPrices;
+    }
+
+    public double[] getConstantLower() {
+        return constantLower;
+    }
+
+    public double[] getConstantUpper() {
+        return constantUpper;
+    }
+
+    public double[] getReducedCosts() {
+        return reducedCosts;
+    }
+
+    public double[] getCostLower() {
+        return costLower;
+    }
+
+    public double[] getCostUpper() {
+        return costUpper;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("Shadow Prices: ");
+        for (int i = 0; i < shadowPrices.length; i++) {
+            result.append("c").append(i + 1).append("=").append(shadowPrices[i]).append(" ");
+        }
+        result.append("\nConstant Ranges: ");
+        for (int i = 0; i < shadowPrices.length; i++) {
+            result.append("c").append(i + 1).append("=[").append(constantLower[i]).append(", ").append(constantUpper[i]).append("] ");
+        }
+        result.append("\nReduced Costs: ");
+        for (int j = 0; j < reducedCosts.length; j++) {
+            result.append("x").append(j + 1).append("=").append(reducedCosts[j]).append(" ");
+        }
+        result.append("\nCost Ranges: ");
+        for (int j = 0; j < reducedCosts.length; j++) {
+            result.append("x").append(j + 1).append("=[").append(costLower[j]).append(", ").append(costUpper[j]).append("] ");
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.scuse.solver;
+
+// 单次求解的结果
+public class SimplexResult {
+    private final SolveStatus status;
+    private final double objectiveValue;
+    private final double[] variableValues; // 只包含决策变量
+    private final int iterations;
+    private final boolean feasible; // 最优, 或在达到限制时已经得到可行解 (目前最好的解)
+
+    public SimplexResult(SolveStatus status, double objectiveValue, double[] variableValues, int iterations) {
+        this(status, objectiveValue, variableValues, iterations, status == SolveStatus.OPTIMAL);
+    }
+
+    public SimplexResult(SolveStatus status, double objectiveValue, double[] variableValues, int iterations, boolean feasible) {
+        this.status = status;
+        this.objectiveValue = objectiveValue;
+        this.variableValues = variableValues;
+        this.iterations = iterations;
+        this.feasible = feasible;
+    }
+
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    public double getObjectiveValue() {
+        return objectiveValue;
+    }
+
+    public double[] getVariableValues() {
+        return variableValues;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    // 变量值和目标值是否是一个可行解; 提前停止时这是原始单纯形法走到的最后一个顶点
+    public boolean isFeasible() {
+        return feasible;
+    }
+}
@@ -0,0 +1,241 @@
+package com.scuse.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 按模型指纹缓存求解结果, 超过条目数或估计的内存大小时淘汰最久未使用的条目.
+// 只缓存确定的结果 (最优, 不可行, 无界), 达到限制时的结果不缓存. 可以在多个求解线程之间共享
+public class SolutionCache {
+    private static final int MAGIC = 0x534C4331; // "SLC1"
+    private static final int VERSION = 1;
+    private static final long ENTRY_OVERHEAD = 128; // 每个条目除变量值以外的估计字节数
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<ModelFingerprint, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock(); // synchronized 会钉住虚拟线程的载体线程
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public SolutionCache(int maxEntries, long maxBytes) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("Cache limits must be positive: " + maxEntries + " entries, " + maxBytes + " bytes");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public SolutionCache(int maxEntries) {
+        this(maxEntries, Long.MAX_VALUE);
+    }
+
+    // 命中时返回缓存结果的副本 (迭代次数为 0), 否则返回 null
+    public SimplexResult get(ModelFingerprint key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            return new SimplexResult(entry.status, entry.objectiveValue, entry.variableValues.clone(), 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(ModelFingerprint key, SimplexResult result) {
+        if (!isCacheable(result.getStatus())) {
+            return;
+        }
+        Entry entry = new Entry(result.getStatus(), result.getObjectiveValue(), result.getVariableValues().clone());
+        lock.lock();
+        try {
+            insert(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isCacheable(SolveStatus status) {
+        return status == SolveStatus.OPTIMAL || status == SolveStatus.INFEASIBLE || status == SolveStatus.UNBOUNDED;
+    }
+
+    private void insert(ModelFingerprint key, Entry entry) {
+        Entry old = entries.put(key, entry);
+        if (old != null) {
+            bytes -= old.size();
+        }
+        bytes += entry.size();
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > 1 && (entries.size() > maxEntries || bytes > maxBytes)) {
+            bytes -= eldest.next().size();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public long getHits() {
+        lock.lock();
+        try {
+            return hits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMisses() {
+        lock.lock();
+        try {
+            return misses;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getEvictions() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 按最久未使用到最近使用的顺序写出, 先写临时文件再替换, 中途失败不会留下半个文件
+    public void save(Path path) throws IOException {
+        List<Map.Entry<ModelFingerprint, Entry>> snapshot;
+        lock.lock();
+        try {
+            snapshot = new ArrayList<>(entries.entrySet());
+        } finally {
+            lock.unlock();
+        }
+        Path absolute = path.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<ModelFingerprint, Entry> item : snapshot) {
+                    Entry entry = item.getValue();
+                    out.write(item.getKey().getDigest());
+                    out.writeUTF(entry.status.name());
+                    out.writeDouble(entry.objectiveValue);
+                    out.writeInt(entry.variableValues.length);
+                    for (double value : entry.variableValues) {
+                        out.writeDouble(value);
+                    }
+                }
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // 读入 save() 写出的文件, 与已有的条目合并; 读入的条目仍受条目数和大小限制
+    public void load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Invalid solution cache file " + path + ": bad magic number");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Invalid solution cache file " + path + ": unsupported version " + version);
+            }
+            int count = in.readInt();
+            for (int k = 0; k < count; k++) {
+                byte[] digest = new byte[ModelFingerprint.LENGTH];
+                in.readFully(digest);
+                SolveStatus status;
+                try {
+                    status = SolveStatus.valueOf(in.readUTF());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Invalid solution cache file " + path + ": " + e.getMessage(), e);
+                }
+                double objectiveValue = in.readDouble();
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("Invalid solution cache file " + path + ": negative length");
+                }
+                double[] values = new double[length];
+                for (int j = 0; j < length; j++) {
+                    values[j] = in.readDouble();
+                }
+                lock.lock();
+                try {
+                    insert(new ModelFingerprint(digest), new Entry(status, objectiveValue, values));
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Invalid solution cache file " + path + ": truncated", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            long lookups = hits + misses;
+            return String.format("%d entries, %d hits, %d misses (%.1f%% hit rate), %d evictions",
+                    entries.size(), hits, misses, lookups == 0 ? 0.0 : 100.0 * hits / lookups, evictions);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        final SolveStatus status;
+        final double objectiveValue;
+        final double[] variableValues;
+
+        Entry(SolveStatus status, double objectiveValue, double[] variableValues) {
+            this.status = status;
+            this.objectiveValue = objectiveValue;
+            this.variableValues = variableValues;
+        }
+
+        long size() {
+            return ENTRY_OVERHEAD + 8L * variableValues.length;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.scuse.solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// 每次求解一个 JFR 事件, 持续时间即求解耗时
+@Name("com.scuse.Solve")
+@Label("Simplex Solve")
+@Category("Simplex")
+@Description("One run of a simplex engine")
+class SolveEvent extends jdk.jfr.Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int columns;
+
+    @Label("Status")
+    String status;
+
+    @Label("Iterations")
+    int iterations;
+
+    @Label("Degenerate Pivots")
+    int degeneratePivots;
+
+    @Label("Pricing Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long pricingTime;
+
+    @Label("Ratio Test Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long ratioTestTime;
+
+    @Label("Elimination Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long eliminationTime;
+}
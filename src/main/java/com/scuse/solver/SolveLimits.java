@@ -0,0 +1,34 @@
+package com.scuse.solver;
+
+// 迭代次数, 时间和取消三个停止条件, 引擎在每次迭代开始时检查.
+// 取消通过中断求解线程实现, 和 Future.cancel(true) 以及 JavaFX Task.cancel() 一致
+final class SolveLimits {
+    private final int maxIterations;
+    private final long deadline; // System.nanoTime() 时刻, 没有时间限制时为 Long.MAX_VALUE
+
+    SolveLimits(SolverOptions options, int defaultMaxIterations) {
+        this.maxIterations = options.getMaxIterations() > 0 ? options.getMaxIterations() : defaultMaxIterations;
+        this.deadline = options.getTimeLimit() > 0
+                ? System.nanoTime() + options.getTimeLimit() * 1_000_000
+                : Long.MAX_VALUE;
+    }
+
+    // 应当停止时返回对应的状态, 否则返回 null
+    SolveStatus check(int iterations) {
+        if (iterations >= maxIterations) {
+            return SolveStatus.ITERATION_LIMIT;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return SolveStatus.CANCELLED;
+        }
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+            return SolveStatus.TIME_LIMIT;
+        }
+        return null;
+    }
+
+    static boolean isLimit(SolveStatus status) {
+        return status == SolveStatus.ITERATION_LIMIT || status == SolveStatus.TIME_LIMIT || status == SolveStatus.CANCELLED
+                || status == SolveStatus.NODE_LIMIT;
+    }
+}
@@ -0,0 +1,11 @@
+package com.scuse.solver;
+
+public enum SolveStatus {
+    OPTIMAL,
+    INFEASIBLE,
+    UNBOUNDED,
+    ITERATION_LIMIT,
+    TIME_LIMIT,
+    CANCELLED, // 求解线程被中断
+    NODE_LIMIT // 分支定界的节点数达到上限
+}
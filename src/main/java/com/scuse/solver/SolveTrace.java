@@ -0,0 +1,94 @@
+package com.scuse.solver;
+
+// 求解过程的计时和回调. 只有注册了监听器或开启了 JFR 事件时才创建, 否则引擎中的 trace 为 null,
+// 每个埋点只多一次空指针判断
+final class SolveTrace {
+    private final SolverListener listener;
+    private final SolveEvent solveEvent;
+    private final boolean pivotEvents;
+    private final SolverMetrics metrics = new SolverMetrics();
+    private final long start;
+    private long mark;
+
+    private SolveTrace(SolverListener listener, SolveEvent solveEvent, boolean pivotEvents) {
+        this.listener = listener;
+        this.solveEvent = solveEvent;
+        this.pivotEvents = pivotEvents;
+        this.start = System.nanoTime();
+        this.mark = start;
+    }
+
+    // 没有任何观察者时返回 null
+    static SolveTrace start(SolverOptions options, String algorithm, int rows, int columns) {
+        SolveEvent solveEvent = new SolveEvent();
+        boolean pivotEvents = new PivotEvent().isEnabled();
+        if (options.getListener() == null && !solveEvent.isEnabled() && !pivotEvents) {
+            return null;
+        }
+        solveEvent.algorithm = algorithm;
+        solveEvent.rows = rows;
+        solveEvent.columns = columns;
+        solveEvent.begin();
+        return new SolveTrace(options.getListener(), solveEvent, pivotEvents);
+    }
+
+    // 回调需要当前目标值时才值得去计算它
+    boolean wantsObjective() {
+        return listener != null || pivotEvents;
+    }
+
+    // 以下三个方法把上一个时间点以来的耗时记入对应部分
+    void pricingDone() {
+        long now = System.nanoTime();
+        metrics.addPricing(now - mark);
+        mark = now;
+    }
+
+    void ratioTestDone() {
+        long now = System.nanoTime();
+        metrics.addRatioTest(now - mark);
+        mark = now;
+    }
+
+    void eliminationDone() {
+        long now = System.nanoTime();
+        metrics.addElimination(now - mark);
+        mark = now;
+    }
+
+    void pivot(int enteringColumn, int leavingRow, double objective, boolean degenerate) {
+        metrics.recordPivot(degenerate, leavingRow < 0);
+        if (listener != null) {
+            listener.iteration(metrics.getIterations(), enteringColumn, leavingRow, objective, degenerate);
+        }
+        if (pivotEvents) {
+            PivotEvent event = new PivotEvent();
+            event.iteration = metrics.getIterations();
+            event.enteringColumn = enteringColumn;
+            event.leavingRow = leavingRow;
+            event.objective = objective;
+            event.degenerate = degenerate;
+            event.commit();
+        }
+        // 回调本身的耗时不计入下一次定价
+        mark = System.nanoTime();
+    }
+
+    SimplexResult finish(SimplexResult result) {
+        metrics.setTotalNanos(System.nanoTime() - start);
+        solveEvent.end();
+        if (solveEvent.shouldCommit()) {
+            solveEvent.status = result.getStatus().name();
+            solveEvent.iterations = result.getIterations();
+            solveEvent.degeneratePivots = metrics.getDegeneratePivots();
+            solveEvent.pricingTime = metrics.getPricingNanos();
+            solveEvent.ratioTestTime = metrics.getRatioTestNanos();
+            solveEvent.eliminationTime = metrics.getEliminationNanos();
+            solveEvent.commit();
+        }
+        if (listener != null) {
+            listener.finished(result, metrics);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,13 @@
+package com.scuse.solver;
+
+// 求解过程的回调, 通过 SolverOptions.setListener 注册. 没有注册监听器 (且没有开启 JFR 事件) 时求解器不计时也不回调.
+// 列号和行号按求解引擎内部的编号 (预处理之后), 修正单纯形法中 n + i 表示第 i 行的逻辑变量
+public interface SolverListener {
+    // 每次主元变换之后调用; leavingRow 为 -1 表示入基变量只是移到了另一个界
+    default void iteration(int iteration, int enteringColumn, int leavingRow, double objective, boolean degenerate) {
+    }
+
+    // 求解结束时调用一次
+    default void finished(SimplexResult result, SolverMetrics metrics) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.scuse.solver;
+
+// 一次求解的统计: 迭代次数, 退化主元个数和各部分的耗时 (纳秒).
+// 定价包括 BTRAN 和选入基变量 (对偶单纯形法中是选出基行), 比值检验包括 FTRAN 入基列 (对偶单纯形法中是计算主行),
+// 消元指更新基变量的值, 定价权重和基矩阵的分解 (单纯形表中是整表消元)
+public class SolverMetrics {
+    private int iterations;
+    private int degeneratePivots;
+    private int boundFlips;
+    private long pricingNanos;
+    private long ratioTestNanos;
+    private long eliminationNanos;
+    private long totalNanos;
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getDegeneratePivots() {
+        return degeneratePivots;
+    }
+
+    public int getBoundFlips() {
+        return boundFlips;
+    }
+
+    public long getPricingNanos() {
+        return pricingNanos;
+    }
+
+    public long getRatioTestNanos() {
+        return ratioTestNanos;
+    }
+
+    public long getEliminationNanos() {
+        return eliminationNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    void recordPivot(boolean degenerate, boolean boundFlip) {
+        iterations++;
+        if (degenerate) {
+            degeneratePivots++;
+        }
+        if (boundFlip) {
+            boundFlips++;
+        }
+    }
+
+    void addPricing(long nanos) {
+        pricingNanos += nanos;
+    }
+
+    void addRatioTest(long nanos) {
+        ratioTestNanos += nanos;
+    }
+
+    void addElimination(long nanos) {
+        eliminationNanos += nanos;
+    }
+
+    void setTotalNanos(long totalNanos) {
+        this.totalNanos = totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d iterations (%d degenerate, %d bound flips), pricing %.3f ms, ratio test %.3f ms, "
+                        + "elimination %.3f ms, total %.3f ms", iterations, degeneratePivots, boundFlips,
+                pricingNanos / 1e6, ratioTestNanos / 1e6, eliminationNanos / 1e6, totalNanos / 1e6);
+    }
+}
@@ -0,0 +1,200 @@
+package com.scuse.solver;
+
+// 求解参数
+public class SolverOptions {
+    public enum Algorithm {
+        REVISED, // 修正单纯形法 (LU 分解基矩阵)
+        TABLEAU  // 稠密单纯形表
+    }
+
+    public enum Kernel {
+        AUTO,   // 加载了 jdk.incubator.vector 模块时使用向量内核
+        SCALAR,
+        VECTOR
+    }
+
+    public enum Pricing {
+        DANTZIG,       // 约化费用绝对值最大
+        DEVEX,         // 近似最速边
+        STEEPEST_EDGE, // 精确最速边, 每次迭代更贵但迭代次数最少
+        PARTIAL        // 每次只扫描一段变量, 适合很宽的模型
+    }
+
+    private Algorithm algorithm = Algorithm.REVISED;
+    private Kernel kernel = Kernel.AUTO; // 单纯形表的消元内核
+    private int refactorFrequency = 64; // 每多少次基更新重新分解一次
+    private int maxIterations = 0;      // 0 表示按问题规模自动确定
+    private long timeLimit = 0;         // 毫秒, 0 表示不限时
+    private boolean parallel = false;   // 单纯形表按行块并行消元
+    private long parallelThreshold = 1L << 18; // 单纯形表元素少于该值时仍然串行
+    private boolean warmStart = true;   // 修正单纯形法从上一次的最优基开始
+    private boolean crash = true;       // 修正单纯形法冷启动时先用三角形 crash 选初始基
+    private boolean presolve = true;    // 修正单纯形法求解前先缩小问题
+    private boolean scaling = true;     // 求解前对约束矩阵做行列缩放
+    private boolean sensitivity = false; // 最优时在最优基上做灵敏度分析, 这时总是用修正单纯形法, 不做预处理也不查缓存
+    private Pricing pricing = Pricing.DEVEX; // 修正单纯形法选入基变量的规则
+    private SolverListener listener;    // 迭代回调和计时, null 表示不观察
+    private SolutionCache cache;        // 按模型指纹复用以前的结果, null 表示每次都求解
+    private int nodeLimit = 0;          // 分支定界最多处理的节点数, 0 表示不限
+    private double mipGap = 1e-6;       // 整数解与最好界的相对差距不超过该值时停止
+    private int threads = Runtime.getRuntime().availableProcessors(); // 分支定界和参数扫描的工作线程数
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public Kernel getKernel() {
+        return kernel;
+    }
+
+    public void setKernel(Kernel kernel) {
+        this.kernel = kernel;
+    }
+
+    public int getRefactorFrequency() {
+        return refactorFrequency;
+    }
+
+    public void setRefactorFrequency(int refactorFrequency) {
+        if (refactorFrequency < 1) {
+            throw new IllegalArgumentException("Refactor frequency must be positive: " + refactorFrequency);
+        }
+        this.refactorFrequency = refactorFrequency;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    public void setTimeLimit(long timeLimit) {
+        if (timeLimit < 0) {
+            throw new IllegalArgumentException("Time limit must not be negative: " + timeLimit);
+        }
+        this.timeLimit = timeLimit;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public long getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(long parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public boolean isWarmStart() {
+        return warmStart;
+    }
+
+    public void setWarmStart(boolean warmStart) {
+        this.warmStart = warmStart;
+    }
+
+    public boolean isCrash() {
+        return crash;
+    }
+
+    public void setCrash(boolean crash) {
+        this.crash = crash;
+    }
+
+    public boolean isPresolve() {
+        return presolve;
+    }
+
+    public void setPresolve(boolean presolve) {
+        this.presolve = presolve;
+    }
+
+    public boolean isScaling() {
+        return scaling;
+    }
+
+    public void setScaling(boolean scaling) {
+        this.scaling = scaling;
+    }
+
+    public boolean isSensitivity() {
+        return sensitivity;
+    }
+
+    public void setSensitivity(boolean sensitivity) {
+        this.sensitivity = sensitivity;
+    }
+
+    public Pricing getPricing() {
+        return pricing;
+    }
+
+    public void setPricing(Pricing pricing) {
+        this.pricing = pricing;
+    }
+
+    public SolverListener getListener() {
+        return listener;
+    }
+
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    public int getNodeLimit() {
+        return nodeLimit;
+    }
+
+    public void setNodeLimit(int nodeLimit) {
+        if (nodeLimit < 0) {
+            throw new IllegalArgumentException("Node limit must not be negative: " + nodeLimit);
+        }
+        this.nodeLimit = nodeLimit;
+    }
+
+    public double getMipGap() {
+        return mipGap;
+    }
+
+    public void setMipGap(double mipGap) {
+        if (!(mipGap >= 0)) {
+            throw new IllegalArgumentException("MIP gap must not be negative: " + mipGap);
+        }
+        this.mipGap = mipGap;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public SolutionCache getCache() {
+        return cache;
+    }
+
+    public void setCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+}
@@ -0,0 +1,58 @@
+package com.scuse.solver;
+
+// 精确的最速边规则 (Goldfarb-Reid): 权重 g_j = 1 + ||B^{-1} a_j||^2, 选 d_j^2 / g_j 最大者.
+// 每次换基多做一次 btran 和两次行内积来更新权重
+class SteepestEdgePricing implements PricingRule {
+    private double[] weight;
+
+    @Override
+    public void reset(RevisedSimplex simplex) {
+        weight = new double[simplex.getNumVariables()];
+        for (int j = 0; j < weight.length; j++) {
+            weight[j] = 1;
+            if (simplex.isNonbasic(j)) {
+                for (double value : simplex.ftran(simplex.column(j))) {
+                    weight[j] += value * value;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int select(RevisedSimplex simplex, double[] y, boolean phase1) {
+        int best = -1;
+        double bestScore = 0;
+        for (int j = 0; j < weight.length; j++) {
+            double d = simplex.pricingScore(j, y, phase1);
+            if (d > 0 && d * d / weight[j] > bestScore) {
+                bestScore = d * d / weight[j];
+                best = j;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void update(RevisedSimplex simplex, int q, int p, double[] alpha) {
+        double[] unit = new double[alpha.length];
+        unit[p] = 1;
+        double[] rho = simplex.btran(unit);
+        double[] tau = simplex.btran(alpha);
+        double pivot = alpha[p];
+        double weightQ = 1;
+        for (double value : alpha) {
+            weightQ += value * value;
+        }
+        for (int j = 0; j < weight.length; j++) {
+            if (j == q || !simplex.isNonbasic(j)) {
+                continue;
+            }
+            double ratio = simplex.columnDot(j, rho) / pivot;
+            if (ratio != 0) {
+                double updated = weight[j] - 2 * ratio * simplex.columnDot(j, tau) + ratio * ratio * weightQ;
+                weight[j] = Math.max(updated, 1 + ratio * ratio);
+            }
+        }
+        weight[simplex.getBasicVariable(p)] = Math.max(weightQ / (pivot * pivot), 1);
+    }
+}
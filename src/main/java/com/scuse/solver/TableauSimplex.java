@@ -0,0 +1,444 @@
+package com.scuse.solver;
+
+import com.scuse.model.ConstraintEquation;
+import com.scuse.model.MathModel;
+import com.scuse.model.ObjectiveFunction;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+// 稠密单纯形表求解, 单纯形表按行优先存放在一个连续的 double[] 中
+public class TableauSimplex {
+    private static final double TOLERANCE = 1e-9;
+    private static final double PRIMAL_TOLERANCE = 1e-7; // 右端项的可行性容差, 长时间消元后舍入误差会超过 TOLERANCE
+    private static final int DEGENERATE_LIMIT = 50;      // 连续退化这么多步后改用 Bland 规则
+
+    private final MathModel model;
+    private final SolverOptions options;
+    private final EliminationKernel kernel;
+    private double[] tableau;
+    private int[] basis; // 行 -> 该行的基变量所在列
+    private double[] colScale;
+    private int rows;
+    private int cols;
+    private SolveTrace trace; // 没有监听器时为 null
+
+    public TableauSimplex(MathModel model) {
+        this(model, new SolverOptions());
+    }
+
+    public TableauSimplex(MathModel model, SolverOptions options) {
+        this.model = model;
+        this.options = options;
+        this.kernel = EliminationKernel.select(options.getKernel());
+    }
+
+    public SimplexResult solve() {
+        SimplexResult result = run();
+        return trace != null ? trace.finish(result) : result;
+    }
+
+    private SimplexResult run() {
+        ObjectiveFunction objectiveFunction = model.getObjectiveFunction();
+        List<ConstraintEquation> constraints = model.getConstraints();
+        double[] objCoefficients = objectiveFunction.getCoefficientArray();
+        int numVariables = objCoefficients.length;
+        boolean isMaximize = objectiveFunction.getOptimizationType().equals("Maximize");
+        if (!model.getBounds().isDefault(numVariables)) {
+            // 单纯形表只处理 x >= 0, 带上下界的模型用修正单纯形法
+            throw new IllegalArgumentException("The tableau solver does not support variable bounds");
+        }
+
+        // >= 行乘以 -1 后加松弛变量, = 行拆成 <= 和 >= 两行, 这样每行都有系数为 1 的松弛变量构成初始基;
+        // 严格不等式按非严格处理 (可行域的闭包)
+        int numRows = 0;
+        for (ConstraintEquation constraint : constraints) {
+            numRows += constraint.getSign().equals("=") ? 2 : 1;
+        }
+
+        // 创建单纯形表
+        int rows = numRows + 1; // 包含目标函数行
+        int cols = numVariables + numRows + 1; // 包含松弛变量和常数列
+
+        // 按缩放后的系数建表, 变量为 x_j / colScale_j
+        Scaling scaling = options.isScaling() ? new Scaling(model.getConstraintMatrix()) : null;
+        double[] colScale = new double[numVariables];
+        for (int j = 0; j < numVariables; j++) {
+            colScale[j] = scaling != null ? scaling.getColScale(j) : 1;
+        }
+        this.colScale = colScale;
+
+        // 目标函数行存放 z - c^T x = 0 的系数, 最大化和最小化相同
+        double[] tableau = new double[Math.multiplyExact(rows, cols)];
+        for (int j = 0; j < numVariables; j++) {
+            tableau[j] = -objCoefficients[j] * colScale[j];
+        }
+        this.tableau = tableau;
+        this.rows = rows;
+        this.cols = cols;
+        this.basis = new int[rows];
+
+        // 填充约束方程
+        int row = 1;
+        for (int i = 0; i < constraints.size(); i++) {
+            ConstraintEquation constraint = constraints.get(i);
+            double rowScale = scaling != null ? scaling.getRowScale(i) : 1;
+            switch (constraint.getSign()) {
+                case "<":
+                case "<=":
+                    fillRow(row++, constraint, numVariables, rowScale);
+                    break;
+                case ">":
+                case ">=":
+                    fillRow(row++, constraint, numVariables, -rowScale);
+                    break;
+                case "=":
+                    fillRow(row++, constraint, numVariables, rowScale);
+                    fillRow(row++, constraint, numVariables, -rowScale);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported constraint operator: " + constraint.getSign());
+            }
+        }
+
+        boolean parallel = options.isParallel() && (long) rows * cols >= options.getParallelThreshold();
+        // 每块行数按约 256KB 的缓存大小估算
+        int blockRows = Math.max(1, (256 * 1024 / Double.BYTES) / cols);
+
+        SolveLimits limits = new SolveLimits(options, Math.max(1000, 20 * (rows + cols)));
+        int iterations = 0;
+        trace = SolveTrace.start(options, "TABLEAU", rows - 1, numVariables);
+        // 对偶单纯形阶段: >= 行取反后右端项可能为负. 目标函数行对偶可行时 (例如费用非负的最小化问题)
+        // 直接得到最优解, 否则按零费用做对偶单纯形法, 只恢复原始可行性再交给原始单纯形法.
+        // 零费用时所有比值都是 0, 费用为 0 或很小时也会长时间对偶退化; 这时离基和入基都按 Bland 规则取下标最小者, 防止循环
+        int degenerateSteps = 0;
+        while (true) {
+            boolean useCosts = isDualFeasible(isMaximize);
+            boolean bland = !useCosts || degenerateSteps > DEGENERATE_LIMIT;
+            int pivotRow = findInfeasibleRow(!bland);
+            if (trace != null) {
+                trace.pricingDone();
+            }
+            if (pivotRow < 0) {
+                break;
+            }
+            SolveStatus stop = limits.check(iterations);
+            if (stop != null) {
+                // 对偶阶段的基还不可行, 没有可以返回的解
+                return new SimplexResult(stop, 0, new double[numVariables], iterations);
+            }
+            int pivotCol = findDualPivotColumn(pivotRow, useCosts, bland);
+            if (trace != null) {
+                trace.ratioTestDone();
+            }
+            if (pivotCol < 0) {
+                return new SimplexResult(SolveStatus.INFEASIBLE, 0, new double[numVariables], iterations);
+            }
+            iterations++;
+            double before = tableau[cols - 1];
+            tracedPivot(pivotRow, pivotCol, parallel, blockRows);
+            degenerateSteps = Math.abs(tableau[cols - 1] - before) <= 1e-12 * Math.max(1, Math.abs(before)) ? degenerateSteps + 1 : 0;
+        }
+
+        // 开始单纯形法求解
+        while (true) {
+            // 找到主列 (pivot column)
+            int pivotCol = parallel
+                    ? ForkJoinPool.commonPool().invoke(new PricingTask(this, 0, cols - 1, isMaximize))
+                    : findPivotColumn(0, cols - 1, isMaximize);
+            if (trace != null) {
+                trace.pricingDone();
+            }
+            double extremumValue = pivotCol < 0
+                    ? (isMaximize ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY)
+                    : tableau[pivotCol];
+
+            if ((isMaximize && extremumValue >= -TOLERANCE) || (!isMaximize && extremumValue <= TOLERANCE)) {
+                // 已经达到最优解
+                break;
+            }
+
+            // 找到主行 (pivot row)
+            int pivotRow = parallel
+                    ? ForkJoinPool.commonPool().invoke(new RatioTask(this, 1, rows, pivotCol, blockRows))
+                    : findPivotRow(1, rows, pivotCol);
+            if (trace != null) {
+                trace.ratioTestDone();
+            }
+            if (pivotRow == -1) {
+                return new SimplexResult(SolveStatus.UNBOUNDED, 0, new double[numVariables], iterations);
+            }
+            SolveStatus stop = limits.check(iterations);
+            if (stop != null) {
+                // 原始阶段的每个基都可行, 返回当前的顶点
+                return new SimplexResult(stop, tableau[cols - 1], values(numVariables), iterations, true);
+            }
+            iterations++;
+            tracedPivot(pivotRow, pivotCol, parallel, blockRows);
+        }
+
+        return new SimplexResult(SolveStatus.OPTIMAL, tableau[cols - 1], values(numVariables), iterations);
+    }
+
+    // 提取解: 基变量取所在行的右端项, 非基变量为 0
+    private double[] values(int numVariables) {
+        double[] variableValues = new double[numVariables];
+        for (int i = 1; i < rows; i++) {
+            if (basis[i] < numVariables) {
+                variableValues[basis[i]] = tableau[i * cols + cols - 1] * colScale[basis[i]];
+            }
+        }
+        return variableValues;
+    }
+
+    // 写入一行约束, 整行乘以 factor (行缩放因子, 取负表示 >= 行取反); 松弛变量的系数总是 1
+    private void fillRow(int row, ConstraintEquation constraint, int numVariables, double factor) {
+        int offset = row * cols;
+        int[] indices = constraint.getIndices();
+        double[] values = constraint.getValues();
+        for (int e = 0; e < constraint.getNonzeroCount() && indices[e] < numVariables; e++) {
+            tableau[offset + indices[e]] = factor * values[e] * colScale[indices[e]];
+        }
+        tableau[offset + numVariables + row - 1] = 1;
+        basis[row] = numVariables + row - 1;
+        tableau[offset + cols - 1] = factor * constraint.getConstant();
+    }
+
+    // 有监听器时记录消元耗时; 目标值不变的主元变换算作退化
+    private void tracedPivot(int pivotRow, int pivotCol, boolean parallel, int blockRows) {
+        if (trace == null) {
+            pivot(pivotRow, pivotCol, parallel, blockRows);
+            return;
+        }
+        double before = tableau[cols - 1];
+        pivot(pivotRow, pivotCol, parallel, blockRows);
+        trace.eliminationDone();
+        double after = tableau[cols - 1];
+        trace.pivot(pivotCol, pivotRow - 1, after, Math.abs(after - before) <= 1e-12 * Math.max(1, Math.abs(before)));
+    }
+
+    private void pivot(int pivotRow, int pivotCol, boolean parallel, int blockRows) {
+        basis[pivotRow] = pivotCol;
+
+        // 主元归一化
+        int pivotOffset = pivotRow * cols;
+        double pivotValue = tableau[pivotOffset + pivotCol];
+        kernel.divideRow(tableau, pivotOffset, cols, pivotValue);
+
+        // 消元
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new EliminationTask(this, 0, rows, pivotRow, pivotCol, blockRows));
+        } else {
+            eliminate(0, rows, pivotRow, pivotCol);
+        }
+    }
+
+    // 右端项最负的行; mostNegative 为 false 时取基变量下标最小的负右端项行 (Bland 规则). 没有负右端项时返回 -1
+    private int findInfeasibleRow(boolean mostNegative) {
+        int pivotRow = -1;
+        double worst = -PRIMAL_TOLERANCE;
+        for (int i = 1; i < rows; i++) {
+            double value = tableau[i * cols + cols - 1];
+            if (value >= -PRIMAL_TOLERANCE) {
+                continue;
+            }
+            if (mostNegative ? value < worst : pivotRow < 0 || basis[i] < basis[pivotRow]) {
+                worst = value;
+                pivotRow = i;
+            }
+        }
+        return pivotRow;
+    }
+
+    // 目标函数行满足最优性条件
+    private boolean isDualFeasible(boolean isMaximize) {
+        for (int j = 0; j < cols - 1; j++) {
+            if (isMaximize ? tableau[j] < -TOLERANCE : tableau[j] > TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 对偶比值检验: 在主行系数为负的列中取 |目标行系数 / 主行系数| 最小者, 相同时取主元绝对值大的, bland 时取下标最小的;
+    // useCosts 为 false 时所有比值视为 0, 取下标最小的列 (Bland 规则)
+    private int findDualPivotColumn(int pivotRow, boolean useCosts, boolean bland) {
+        int offset = pivotRow * cols;
+        int pivotCol = -1;
+        double minRatio = Double.POSITIVE_INFINITY;
+        double bestPivot = 0;
+        for (int j = 0; j < cols - 1; j++) {
+            double a = tableau[offset + j];
+            if (a >= -TOLERANCE) {
+                continue;
+            }
+            if (!useCosts) {
+                return j;
+            }
+            double ratio = Math.abs(tableau[j]) / -a;
+            if (ratio < minRatio - 1e-12 || (!bland && ratio <= minRatio + 1e-12 && -a > bestPivot)) {
+                minRatio = Math.min(minRatio, ratio);
+                bestPivot = -a;
+                pivotCol = j;
+            }
+        }
+        return pivotCol;
+    }
+
+    // 在 [from, to) 中找目标行最小 (最大化) 或最大 (最小化) 的列, 相同时取下标最小者
+    private int findPivotColumn(int from, int to, boolean isMaximize) {
+        int pivotCol = -1;
+        double extremumValue = isMaximize ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        for (int j = from; j < to; j++) {
+            if (isMaximize && tableau[j] < extremumValue) {
+                extremumValue = tableau[j];
+                pivotCol = j;
+            } else if (!isMaximize && tableau[j] > extremumValue) {
+                extremumValue = tableau[j];
+                pivotCol = j;
+            }
+        }
+        return pivotCol;
+    }
+
+    // 在 [from, to) 行中做最小比值检验, 相同时取行号最小者. 不超过 TOLERANCE 的系数是消元的舍入误差,
+    // 不能作为主元, 否则会把无界问题算成目标值极大的 "最优解"
+    private int findPivotRow(int from, int to, int pivotCol) {
+        int pivotRow = -1;
+        double minRatio = Double.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            if (tableau[i * cols + pivotCol] > TOLERANCE) {
+                double ratio = tableau[i * cols + cols - 1] / tableau[i * cols + pivotCol];
+                if (ratio < minRatio) {
+                    minRatio = ratio;
+                    pivotRow = i;
+                }
+            }
+        }
+        return pivotRow;
+    }
+
+    private double ratio(int row, int pivotCol) {
+        return tableau[row * cols + cols - 1] / tableau[row * cols + pivotCol];
+    }
+
+    private void eliminate(int from, int to, int pivotRow, int pivotCol) {
+        int pivotOffset = pivotRow * cols;
+        for (int i = from; i < to; i++) {
+            if (i != pivotRow) {
+                double factor = tableau[i * cols + pivotCol];
+                if (factor != 0) {
+                    kernel.subtractRow(tableau, i * cols, pivotOffset, cols, factor);
+                }
+            }
+        }
+    }
+
+    // 按行块并行消元, 主元行在此期间只读. 任务只在 ForkJoinPool 中运行, 从不序列化
+    private static final class EliminationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient TableauSimplex simplex;
+        private final int from;
+        private final int to;
+        private final int pivotRow;
+        private final int pivotCol;
+        private final int blockRows;
+
+        EliminationTask(TableauSimplex simplex, int from, int to, int pivotRow, int pivotCol, int blockRows) {
+            this.simplex = simplex;
+            this.from = from;
+            this.to = to;
+            this.pivotRow = pivotRow;
+            this.pivotCol = pivotCol;
+            this.blockRows = blockRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= blockRows) {
+                simplex.eliminate(from, to, pivotRow, pivotCol);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EliminationTask(simplex, from, middle, pivotRow, pivotCol, blockRows),
+                    new EliminationTask(simplex, middle, to, pivotRow, pivotCol, blockRows));
+        }
+    }
+
+    // 主列选择的并行归约
+    private static final class PricingTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        private static final int BLOCK = 1 << 14;
+        private final transient TableauSimplex simplex;
+        private final int from;
+        private final int to;
+        private final boolean isMaximize;
+
+        PricingTask(TableauSimplex simplex, int from, int to, boolean isMaximize) {
+            this.simplex = simplex;
+            this.from = from;
+            this.to = to;
+            this.isMaximize = isMaximize;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= BLOCK) {
+                return simplex.findPivotColumn(from, to, isMaximize);
+            }
+            int middle = (from + to) >>> 1;
+            PricingTask right = new PricingTask(simplex, middle, to, isMaximize);
+            right.fork();
+            int left = new PricingTask(simplex, from, middle, isMaximize).compute();
+            int other = right.join();
+            if (left < 0) {
+                return other;
+            }
+            if (other < 0) {
+                return left;
+            }
+            double[] tableau = simplex.tableau;
+            boolean otherBetter = isMaximize ? tableau[other] < tableau[left] : tableau[other] > tableau[left];
+            return otherBetter ? other : left;
+        }
+    }
+
+    // 最小比值检验的并行归约
+    private static final class RatioTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        private final transient TableauSimplex simplex;
+        private final int from;
+        private final int to;
+        private final int pivotCol;
+        private final int blockRows;
+
+        RatioTask(TableauSimplex simplex, int from, int to, int pivotCol, int blockRows) {
+            this.simplex = simplex;
+            this.from = from;
+            this.to = to;
+            this.pivotCol = pivotCol;
+            this.blockRows = blockRows;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= blockRows * 4) {
+                return simplex.findPivotRow(from, to, pivotCol);
+            }
+            int middle = (from + to) >>> 1;
+            RatioTask right = new RatioTask(simplex, middle, to, pivotCol, blockRows);
+            right.fork();
+            int left = new RatioTask(simplex, from, middle, pivotCol, blockRows).compute();
+            int other = right.join();
+            if (left < 0) {
+                return other;
+            }
+            if (other < 0) {
+                return left;
+            }
+            return simplex.ratio(other, pivotCol) < simplex.ratio(left, pivotCol) ? other : left;
+        }
+    }
+}
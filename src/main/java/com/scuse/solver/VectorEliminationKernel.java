@@ -0,0 +1,36 @@
+package com.scuse.solver;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// 基于 Vector API 的行运算, 按平台首选宽度 (AVX2 为 4 个 double, AVX-512 为 8 个) 做 FMA
+class VectorEliminationKernel implements EliminationKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void divideRow(double[] t, int row, int length, double divisor) {
+        int j = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; j < bound; j += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, t, row + j).div(divisor).intoArray(t, row + j);
+        }
+        for (; j < length; j++) {
+            t[row + j] /= divisor;
+        }
+    }
+
+    @Override
+    public void subtractRow(double[] t, int target, int source, int length, double factor) {
+        DoubleVector negated = DoubleVector.broadcast(SPECIES, -factor);
+        int j = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; j < bound; j += SPECIES.length()) {
+            DoubleVector s = DoubleVector.fromArray(SPECIES, t, source + j);
+            DoubleVector d = DoubleVector.fromArray(SPECIES, t, target + j);
+            s.fma(negated, d).intoArray(t, target + j);
+        }
+        for (; j < length; j++) {
+            t[target + j] = Math.fma(-factor, t[source + j], t[target + j]);
+        }
+    }
+}
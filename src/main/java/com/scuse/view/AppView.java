@@ -6,12 +6,12 @@ import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 public class AppView {
-    private final VBox constraintsBox;
-    private final VBox objectiveBox;
+    private final CoefficientGrid coefficientGrid;
     private VBox resultsBox;
     private final MenuBar menuBar;
     private TextField variablesTextField;
@@ -19,6 +19,14 @@ public class AppView {
     private ComboBox<String> optimizationChoiceBox;
     private Button updateButton;
     private Button solveButton;
+    private Button cancelButton;
+    private CheckBox allOptimaCheckBox;
+    private CheckBox sensitivityCheckBox;
+    private TextField timeLimitTextField;
+    private TextField iterationLimitTextField;
+    private TextField integerVariablesTextField;
+    private ProgressBar progressBar;
+    private Label statusLabel;
     private static Alert alert;
 
     public AppView(Stage primaryStage) {
@@ -37,13 +45,14 @@ public class AppView {
         HBox inputBox = createInputBox();
         topBox.getChildren().addAll(inputBox, updateButton);
 
-        constraintsBox = new VBox(10);
-        constraintsBox.setPadding(new Insets(10));
-        topBox.getChildren().add(constraintsBox);
-
-        objectiveBox = new VBox(10);
-        objectiveBox.setPadding(new Insets(10));
-        topBox.getChildren().add(objectiveBox);
+        // 约束方程和目标函数共用一张表格, 最后一行 z 是目标函数
+        coefficientGrid = new CoefficientGrid();
+        Label gridLabel = new Label("Constraint Functions (last row z is the Objective Function):");
+        VBox gridBox = new VBox(10, gridLabel, coefficientGrid.getTable());
+        gridBox.setPadding(new Insets(10));
+        VBox.setVgrow(coefficientGrid.getTable(), Priority.ALWAYS);
+        VBox.setVgrow(gridBox, Priority.ALWAYS);
+        topBox.getChildren().add(gridBox);
 
         resultsBox = new VBox(10);
         resultsBox.setPadding(new Insets(10));
@@ -51,10 +60,10 @@ public class AppView {
         topBox.getChildren().add(resultsBox);
         mainLayout.setCenter(topBox);
 
-        HBox bottomBox = createBottomBox();
+        VBox bottomBox = createBottomBox();
         mainLayout.setBottom(bottomBox);
 
-        Scene scene = new Scene(mainLayout, 600, 400);
+        Scene scene = new Scene(mainLayout, 600, 505);
         primaryStage.setScene(scene);
         primaryStage.show();
     }
@@ -91,10 +100,9 @@ public class AppView {
         return inputBox;
     }
 
-    private HBox createBottomBox() {
-        HBox bottomBox = new HBox(10);
-        bottomBox.setPadding(new Insets(10));
-        bottomBox.setAlignment(Pos.CENTER);
+    private VBox createBottomBox() {
+        HBox solveBox = new HBox(10);
+        solveBox.setAlignment(Pos.CENTER);
 
         HBox optimizationBox = new HBox(10);
         Label optimizationLabel = new Label("Optimization:");
@@ -104,13 +112,50 @@ public class AppView {
 
         optimizationBox.getChildren().addAll(optimizationLabel, optimizationChoiceBox);
         solveButton = new Button("Solve");
-
-        bottomBox.getChildren().addAll(optimizationBox, solveButton);
+        cancelButton = new Button("Cancel");
+        cancelButton.setDisable(true);
+        // 最优解不唯一时列出最优面上的所有顶点
+        allOptimaCheckBox = new CheckBox("All optimal solutions");
+
+        // 求解限制, 留空表示不限制
+        HBox limitsBox = new HBox(10);
+        limitsBox.setAlignment(Pos.CENTER);
+        timeLimitTextField = new TextField();
+        timeLimitTextField.setPromptText("No limit");
+        timeLimitTextField.setPrefColumnCount(5);
+        iterationLimitTextField = new TextField();
+        iterationLimitTextField.setPromptText("Automatic");
+        iterationLimitTextField.setPrefColumnCount(6);
+        limitsBox.getChildren().addAll(new Label("Time limit (s):"), timeLimitTextField,
+                new Label("Iteration limit:"), iterationLimitTextField);
+
+        // 要求取整数值的变量, 例如 "1, 3" 或 "all"; 留空表示都是连续变量
+        HBox integerBox = new HBox(10);
+        integerBox.setAlignment(Pos.CENTER);
+        integerVariablesTextField = new TextField();
+        integerVariablesTextField.setPromptText("e.g. 1, 3 or all");
+        integerVariablesTextField.setPrefColumnCount(12);
+        // 在解的下面列出影子价格, 约化费用和灵敏度范围
+        sensitivityCheckBox = new CheckBox("Sensitivity report");
+        integerBox.getChildren().addAll(new Label("Integer variables:"), integerVariablesTextField, sensitivityCheckBox);
+
+        solveBox.getChildren().addAll(optimizationBox, solveButton, cancelButton, allOptimaCheckBox);
+
+        // 求解进度
+        HBox progressBox = new HBox(10);
+        progressBox.setAlignment(Pos.CENTER);
+        progressBar = new ProgressBar(0);
+        progressBar.setVisible(false);
+        statusLabel = new Label();
+        progressBox.getChildren().addAll(progressBar, statusLabel);
+
+        VBox bottomBox = new VBox(10, limitsBox, integerBox, solveBox, progressBox);
+        bottomBox.setPadding(new Insets(10));
         return bottomBox;
     }
 
-    public VBox getConstraintsBox() {
-        return constraintsBox;
+    public CoefficientGrid getCoefficientGrid() {
+        return coefficientGrid;
     }
 
     public TextField getVariablesTextField() {
@@ -133,6 +178,38 @@ public class AppView {
         return solveButton;
     }
 
+    public Button getCancelButton() {
+        return cancelButton;
+    }
+
+    public CheckBox getAllOptimaCheckBox() {
+        return allOptimaCheckBox;
+    }
+
+    public CheckBox getSensitivityCheckBox() {
+        return sensitivityCheckBox;
+    }
+
+    public TextField getTimeLimitTextField() {
+        return timeLimitTextField;
+    }
+
+    public TextField getIterationLimitTextField() {
+        return iterationLimitTextField;
+    }
+
+    public TextField getIntegerVariablesTextField() {
+        return integerVariablesTextField;
+    }
+
+    public ProgressBar getProgressBar() {
+        return progressBar;
+    }
+
+    public Label getStatusLabel() {
+        return statusLabel;
+    }
+
     public MenuBar getMenuBar() {
         return menuBar;
     }
@@ -141,10 +218,6 @@ public class AppView {
         return resultsBox;
     }
 
-    public VBox getObjectiveBox() {
-        return objectiveBox;
-    }
-
     public static Alert getAlertInstance(Alert.AlertType alertType, String title, String header, String content) {
         if (alert == null) {
             alert = new Alert(alertType);
@@ -0,0 +1,224 @@
+package com.scuse.view;
+
+import com.scuse.model.MathModel;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.cell.ComboBoxTableCell;
+import javafx.scene.input.KeyCode;
+
+import java.util.List;
+import java.util.function.ObjDoubleConsumer;
+
+// 约束和目标函数的系数表. 每行的数据项只是行号, 单元格直接读写模型中的稀疏行和目标函数系数数组;
+// 表格只为可见的单元格创建控件, 几百个变量和约束时界面上也只有一屏的控件
+public class CoefficientGrid {
+    private static final double CELL_WIDTH = 72;
+    private static final double CELL_HEIGHT = 26;
+    private static final String[] SIGNS = {"<", "<=", "=", ">=", ">"};
+
+    private final TableView<Integer> table = new TableView<>();
+    private MathModel model;
+    private int numVariables = -1;
+
+    public CoefficientGrid() {
+        table.setEditable(true);
+        // 固定行高后表格在水平方向也只创建可见列的单元格
+        table.setFixedCellSize(CELL_HEIGHT);
+        table.getSelectionModel().setCellSelectionEnabled(true);
+        table.setPlaceholder(new Label("Enter the number of variables and constraints, then press Update Equations."));
+    }
+
+    public TableView<Integer> getTable() {
+        return table;
+    }
+
+    // 单元格直接写入模型, 求解线程读模型时必须禁止编辑; 正在编辑的单元格先取消, 不再提交
+    public void setEditable(boolean editable) {
+        if (!editable) {
+            table.edit(-1, null);
+        }
+        table.setEditable(editable);
+    }
+
+    // 模型整体替换或行列数改变后调用; 只重建表头和行号, 不复制系数
+    public void setModel(MathModel model) {
+        this.model = model;
+        int variables = model.getObjectiveFunction().getNumVariables();
+        if (variables != numVariables) {
+            rebuildColumns(variables);
+        }
+        // 最后一行是目标函数
+        int constraints = model.getConstraints().size();
+        int rows = variables == 0 && constraints == 0 ? 0 : constraints + 1;
+        ObservableList<Integer> items = table.getItems();
+        if (items.size() > rows) {
+            items.remove(rows, items.size());
+        }
+        for (int i = items.size(); i < rows; i++) {
+            items.add(i);
+        }
+        table.refresh();
+    }
+
+    private void rebuildColumns(int variables) {
+        numVariables = variables;
+        List<TableColumn<Integer, ?>> columns = table.getColumns();
+        columns.clear();
+
+        TableColumn<Integer, String> rowColumn = new TableColumn<>();
+        rowColumn.setCellValueFactory(features -> new ReadOnlyObjectWrapper<>(
+                isObjective(features.getValue()) ? "z" : "c" + (features.getValue() + 1)));
+        rowColumn.setEditable(false);
+        columns.add(setup(rowColumn, 40));
+
+        for (int j = 0; j < variables; j++) {
+            int column = j;
+            TableColumn<Integer, Double> variableColumn = new TableColumn<>("x" + (j + 1));
+            variableColumn.setCellValueFactory(features -> new ReadOnlyObjectWrapper<>(coefficient(features.getValue(), column)));
+            variableColumn.setCellFactory(_ -> new NumberCell((row, value) -> setCoefficient(row, column, value)));
+            columns.add(setup(variableColumn, CELL_WIDTH));
+        }
+
+        // 目标函数行没有符号和常数项, 对应的单元格为空且不能编辑
+        TableColumn<Integer, String> signColumn = new TableColumn<>("Sign");
+        signColumn.setCellValueFactory(features -> new ReadOnlyObjectWrapper<>(
+                isObjective(features.getValue()) ? null : model.getConstraints().get(features.getValue()).getSign()));
+        signColumn.setCellFactory(_ -> new ComboBoxTableCell<>(SIGNS) {
+            @Override
+            public void startEdit() {
+                if (getItem() != null) {
+                    super.startEdit();
+                }
+            }
+        });
+        signColumn.setOnEditCommit(event -> model.setSign(event.getRowValue(), event.getNewValue()));
+        columns.add(setup(signColumn, CELL_WIDTH));
+
+        TableColumn<Integer, Double> constantColumn = new TableColumn<>("b");
+        constantColumn.setCellValueFactory(features -> new ReadOnlyObjectWrapper<>(
+                isObjective(features.getValue()) ? null : model.getConstraints().get(features.getValue()).getConstant()));
+        constantColumn.setCellFactory(_ -> new NumberCell((row, value) -> model.setConstant(row, value)));
+        columns.add(setup(constantColumn, CELL_WIDTH));
+    }
+
+    // 行号就是数据项, 排序和调整列顺序没有意义
+    private static <T> TableColumn<Integer, T> setup(TableColumn<Integer, T> column, double width) {
+        column.setSortable(false);
+        column.setReorderable(false);
+        column.setPrefWidth(width);
+        return column;
+    }
+
+    private boolean isObjective(int row) {
+        return row == model.getConstraints().size();
+    }
+
+    private double coefficient(int row, int column) {
+        return isObjective(row)
+                ? model.getObjectiveFunction().getCoefficientArray()[column]
+                : model.getConstraints().get(row).getCoefficient(column);
+    }
+
+    // 通过模型的修改方法写入, 模型记下改动的单元格, 下一次求解只更新这些位置
+    private void setCoefficient(int row, int column, double value) {
+        if (isObjective(row)) {
+            model.setObjectiveCoefficient(column, value);
+        } else {
+            model.setCoefficient(row, column, value);
+        }
+    }
+
+    // 整数显示为 "3" 而不是 "3.0"
+    static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    // 数值单元格: 编辑时换成文本框, 回车或失去焦点时提交, 非法输入保留原值; 数据项就是行号
+    private static final class NumberCell extends TableCell<Integer, Double> {
+        private final ObjDoubleConsumer<Integer> writer;
+        private TextField editor;
+
+        NumberCell(ObjDoubleConsumer<Integer> writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void startEdit() {
+            if (getItem() == null) {
+                return;
+            }
+            super.startEdit();
+            if (!isEditing()) {
+                return;
+            }
+            if (editor == null) {
+                editor = new TextField();
+                editor.setOnAction(_ -> commit());
+                editor.focusedProperty().addListener((_, _, focused) -> {
+                    if (!focused) {
+                        commit();
+                    }
+                });
+                editor.setOnKeyPressed(event -> {
+                    if (event.getCode() == KeyCode.ESCAPE) {
+                        cancelEdit();
+                    }
+                });
+            }
+            editor.setText(format(getItem()));
+            setText(null);
+            setGraphic(editor);
+            editor.selectAll();
+            editor.requestFocus();
+        }
+
+        private void commit() {
+            if (!isEditing()) {
+                return;
+            }
+            double value;
+            try {
+                value = Double.parseDouble(editor.getText().trim());
+            } catch (NumberFormatException e) {
+                value = Double.NaN;
+            }
+            if (!Double.isFinite(value)) {
+                cancelEdit();
+                return;
+            }
+            writer.accept(getIndex(), value);
+            commitEdit(value);
+        }
+
+        @Override
+        public void cancelEdit() {
+            super.cancelEdit();
+            setText(getItem() == null ? null : format(getItem()));
+            setGraphic(null);
+        }
+
+        @Override
+        protected void updateItem(Double item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setText(null);
+                setGraphic(null);
+            } else if (isEditing()) {
+                editor.setText(format(item));
+                setText(null);
+                setGraphic(editor);
+            } else {
+                setText(format(item));
+                setGraphic(null);
+            }
+        }
+    }
+}
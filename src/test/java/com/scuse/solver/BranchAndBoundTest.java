@@ -0,0 +1,28 @@
+package com.scuse.solver;
+
+import com.scuse.model.MathModel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BranchAndBoundTest {
+    @Test
+    void integerColumnWithoutIntegerInBoundsIsInfeasible() {
+        // max x + y, x + y <= 10, x 为整数且 0.3 <= x <= 0.7: 取整后 x 的界为 [1, 0]
+        MathModel model = new MathModel();
+        model.resize(2, 1);
+        model.setOptimizationType("Maximize");
+        model.setObjectiveCoefficient(0, 1);
+        model.setObjectiveCoefficient(1, 1);
+        model.setCoefficient(0, 0, 1);
+        model.setCoefficient(0, 1, 1);
+        model.setConstant(0, 10);
+        model.setSign(0, "<=");
+        model.getObjectiveFunction().setInteger(0, true);
+        model.getBounds().setBounds(0, 0.3, 0.7);
+        for (int threads : new int[]{1, 4}) {
+            model.getSolverOptions().setThreads(threads);
+            assertEquals(SolveStatus.INFEASIBLE, model.optimize().getStatus(), "threads " + threads);
+        }
+    }
+}
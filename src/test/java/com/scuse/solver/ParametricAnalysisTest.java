@@ -0,0 +1,59 @@
+package com.scuse.solver;
+
+import com.scuse.model.MathModel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParametricAnalysisTest {
+    // min 3x1 + 2x2, -x1 <= t, 3x1 <= 3: t >= -1 时可行, 最优值为 3 * max(0, -t)
+    private static MathModel model() {
+        MathModel model = new MathModel();
+        model.resize(2, 2);
+        model.setOptimizationType("Minimize");
+        model.setObjectiveCoefficient(0, 3);
+        model.setObjectiveCoefficient(1, 2);
+        model.setCoefficient(0, 0, -1);
+        model.setConstant(0, 0);
+        model.setSign(0, "<=");
+        model.setCoefficient(1, 0, 3);
+        model.setConstant(1, 3);
+        model.setSign(1, "<=");
+        return model;
+    }
+
+    @Test
+    void traceStartsInsideTheOptimalInterval() {
+        MathModel model = model();
+        assertEquals(SolveStatus.OPTIMAL, model.optimize().getStatus());
+        ParametricCurve curve = model.parametric(ParametricAnalysis.Parameter.CONSTANT, 0).trace(-5, 5);
+        assertEquals(SolveStatus.INFEASIBLE, curve.getStartStatus());
+        assertEquals(SolveStatus.OPTIMAL, curve.getEndStatus());
+        assertEquals(-1, curve.getStart(), 1e-9);
+        assertEquals(5, curve.getEnd(), 1e-9);
+        assertEquals(1.5, curve.objectiveAt(-0.5), 1e-9);
+        assertEquals(0, curve.objectiveAt(3), 1e-9);
+
+        // 反方向跟踪时段仍按 from 到 to 排列
+        ParametricCurve reverse = model.parametric(ParametricAnalysis.Parameter.CONSTANT, 0).trace(5, -5);
+        assertEquals(SolveStatus.OPTIMAL, reverse.getStartStatus());
+        assertEquals(SolveStatus.INFEASIBLE, reverse.getEndStatus());
+        assertEquals(5, reverse.getStart(), 1e-9);
+        assertEquals(-1, reverse.getEnd(), 1e-9);
+    }
+
+    @Test
+    void traceFindsOptimalPointWhenBaseValueIsOutside() {
+        // 原值 0 不在区间内, 只有在右端 -1 处有最优解
+        MathModel model = model();
+        model.optimize();
+        ParametricCurve point = model.parametric(ParametricAnalysis.Parameter.CONSTANT, 0).trace(-5, -1);
+        assertEquals(1, point.getSegments().size());
+        assertEquals(3, point.objectiveAt(-1), 1e-9);
+
+        ParametricCurve empty = model.parametric(ParametricAnalysis.Parameter.CONSTANT, 0).trace(-5, -2);
+        assertTrue(empty.getSegments().isEmpty());
+        assertEquals(SolveStatus.INFEASIBLE, empty.getEndStatus());
+    }
+}
@@ -0,0 +1,62 @@
+package com.scuse.solver;
+
+import com.scuse.model.MathModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PresolveTest {
+    @Test
+    void postsolvedBasisWarmStartsTheFullProblem() {
+        // 单元素行和固定列让预处理删除行和列; 缩小后问题的最优基映射回来后从它求解完整问题, 结果和冷启动相同
+        Random random = new Random(5);
+        SolverOptions options = new SolverOptions();
+        options.setCrash(false);
+        int used = 0;
+        long cold = 0;
+        long warm = 0;
+        for (int t = 0; t < 2000; t++) {
+            int n = 2 + random.nextInt(8);
+            int m = 1 + random.nextInt(8);
+            MathModel model = TableauSimplexTest.randomModel(random, n, m, 9);
+            for (int i = 0; i < m; i++) {
+                if (random.nextDouble() < 0.3) {
+                    for (int j = 0; j < n; j++) {
+                        model.setCoefficient(i, j, 0);
+                    }
+                    model.setCoefficient(i, random.nextInt(n), 1 + random.nextInt(3));
+                }
+            }
+            for (int j = 0; j < n; j++) {
+                if (random.nextDouble() < 0.15) {
+                    double value = random.nextInt(4);
+                    model.getBounds().setBounds(j, value, value);
+                }
+            }
+            LpProblem lp = LpProblem.fromModel(model);
+            Presolve presolve = new Presolve(lp);
+            LpProblem reduced = presolve.apply();
+            if (presolve.isInfeasible() || presolve.getRemovedRows() + presolve.getRemovedColumns() == 0) {
+                continue;
+            }
+            RevisedSimplex reducedSimplex = new RevisedSimplex(reduced, options);
+            if (reducedSimplex.solve().getStatus() != SolveStatus.OPTIMAL) {
+                continue;
+            }
+            used++;
+            Basis basis = presolve.postsolve(reducedSimplex.getBasis());
+            assertTrue(basis.fits(lp), "model " + t);
+            SimplexResult expected = new RevisedSimplex(lp, options).solve();
+            RevisedSimplex simplex = new RevisedSimplex(lp, options);
+            simplex.setStartingBasis(basis);
+            SimplexResult actual = simplex.solve();
+            TableauSimplexTest.assertSame(expected, actual, "model " + t);
+            cold += expected.getIterations();
+            warm += actual.getIterations();
+        }
+        assertTrue(used > 100, "presolved models: " + used);
+        assertTrue(warm < cold, "warm " + warm + " cold " + cold);
+    }
+}
@@ -0,0 +1,50 @@
+package com.scuse.solver;
+
+import com.scuse.model.MathModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class RevisedSimplexTest {
+    @Test
+    void crossedBoundsAreInfeasibleWithoutPresolve() {
+        // max x + y, x + y <= 10, 5 <= x <= 3: 预处理关闭或要求灵敏度分析时也必须判为不可行
+        MathModel model = new MathModel();
+        model.resize(2, 1);
+        model.setOptimizationType("Maximize");
+        model.setObjectiveCoefficient(0, 1);
+        model.setObjectiveCoefficient(1, 1);
+        model.setCoefficient(0, 0, 1);
+        model.setCoefficient(0, 1, 1);
+        model.setConstant(0, 10);
+        model.setSign(0, "<=");
+        model.getBounds().setBounds(0, 5, 3);
+        SolverOptions options = model.getSolverOptions();
+        options.setPresolve(false);
+        assertEquals(SolveStatus.INFEASIBLE, model.optimize().getStatus());
+        options.setPresolve(true);
+        options.setSensitivity(true);
+        assertEquals(SolveStatus.INFEASIBLE, model.optimize().getStatus());
+        options.setSensitivity(false);
+        assertEquals(SolveStatus.INFEASIBLE, model.optimize().getStatus());
+    }
+
+    @Test
+    void zeroCostDualSimplexTerminates() {
+        // 费用全为 0 时初始基对偶可行, 对偶单纯形法的每一步都是对偶退化的, 不能循环到迭代限制
+        Random random = new Random(2);
+        for (int t = 0; t < 150; t++) {
+            MathModel model = TableauSimplexTest.randomModel(random, 5 + random.nextInt(60), 20 + random.nextInt(121), 9);
+            for (int j = 0; j < model.getObjectiveFunction().getNumVariables(); j++) {
+                model.setObjectiveCoefficient(j, 0);
+            }
+            SimplexResult scaled = TableauSimplexTest.solve(model, SolverOptions.Algorithm.REVISED, true);
+            SimplexResult unscaled = TableauSimplexTest.solve(model, SolverOptions.Algorithm.REVISED, false);
+            assertNotEquals(SolveStatus.ITERATION_LIMIT, unscaled.getStatus(), "model " + t);
+            assertEquals(scaled.getStatus(), unscaled.getStatus(), "model " + t);
+        }
+    }
+}
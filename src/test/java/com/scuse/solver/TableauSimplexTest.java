@@ -0,0 +1,164 @@
+package com.scuse.solver;
+
+import com.scuse.model.MathModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 单纯形表和修正单纯形法在同一个模型上必须给出相同的状态和最优值
+class TableauSimplexTest {
+    private static final String[] SIGNS = {"<=", ">=", "="};
+
+    @Test
+    void unboundedModelIsNotReportedOptimal() {
+        // min 14x1 + 5x2 - 3x3, 3x1 - x2 + 5x3 >= 18, x1 + 5x2 <= 2: x3 可以无限增大
+        MathModel model = new MathModel();
+        model.resize(3, 2);
+        model.setOptimizationType("Minimize");
+        model.setObjectiveCoefficient(0, 14);
+        model.setObjectiveCoefficient(1, 5);
+        model.setObjectiveCoefficient(2, -3);
+        model.setCoefficient(0, 0, 3);
+        model.setCoefficient(0, 1, -1);
+        model.setCoefficient(0, 2, 5);
+        model.setConstant(0, 18);
+        model.setSign(0, ">=");
+        model.setCoefficient(1, 0, 1);
+        model.setCoefficient(1, 1, 5);
+        model.setConstant(1, 2);
+        model.setSign(1, "<=");
+        assertEquals(SolveStatus.UNBOUNDED, solve(model, SolverOptions.Algorithm.TABLEAU, false).getStatus());
+        assertEquals(SolveStatus.UNBOUNDED, solve(model, SolverOptions.Algorithm.TABLEAU, true).getStatus());
+        assertEquals(SolveStatus.UNBOUNDED, solve(model, SolverOptions.Algorithm.REVISED, true).getStatus());
+    }
+
+    @Test
+    void agreesWithRevisedSimplexOnRandomModels() {
+        Random random = new Random(1);
+        Map<SolveStatus, Integer> statuses = new EnumMap<>(SolveStatus.class);
+        for (int t = 0; t < 3000; t++) {
+            MathModel model = randomModel(random, 2 + random.nextInt(5), 1 + random.nextInt(6), 5 + random.nextInt(15));
+            SimplexResult revised = solve(model, SolverOptions.Algorithm.REVISED, true);
+            SimplexResult tableau = solve(model, SolverOptions.Algorithm.TABLEAU, false);
+            assertSame(revised, tableau, "model " + t);
+            statuses.merge(revised.getStatus(), 1, Integer::sum);
+        }
+        // 随机模型要覆盖三种结果
+        assertTrue(statuses.getOrDefault(SolveStatus.OPTIMAL, 0) > 100, "optimal models: " + statuses);
+        assertTrue(statuses.getOrDefault(SolveStatus.INFEASIBLE, 0) > 100, "infeasible models: " + statuses);
+        assertTrue(statuses.getOrDefault(SolveStatus.UNBOUNDED, 0) > 100, "unbounded models: " + statuses);
+    }
+
+    @Test
+    void infeasibleModelsTerminateWithoutScaling() {
+        // 费用不满足最优性时对偶阶段按零费用转轴, 必须不循环, 在迭代限制之前证明不可行
+        Random random = new Random(2);
+        int infeasible = 0;
+        for (int t = 0; t < 150; t++) {
+            MathModel model = randomModel(random, 5 + random.nextInt(30), 20 + random.nextInt(121), 9);
+            SimplexResult revised = solve(model, SolverOptions.Algorithm.REVISED, true);
+            if (revised.getStatus() != SolveStatus.INFEASIBLE) {
+                continue;
+            }
+            infeasible++;
+            assertEquals(SolveStatus.INFEASIBLE, solve(model, SolverOptions.Algorithm.TABLEAU, false).getStatus(), "model " + t);
+        }
+        assertTrue(infeasible > 50, "infeasible models: " + infeasible);
+    }
+
+    @Test
+    void agreesWithRevisedSimplexOnLargeModels() {
+        // 上千次消元后右端项的舍入误差超过 1e-9, 不能因此把可行的问题判为不可行
+        Random random = new Random(9);
+        for (int t = 0; t < 30; t++) {
+            int m = 20 + random.nextInt(121);
+            int n = 5 + random.nextInt(60);
+            MathModel model = randomModel(random, n, m, 9);
+            SimplexResult revised = solve(model, SolverOptions.Algorithm.REVISED, true);
+            assertSame(revised, solve(model, SolverOptions.Algorithm.TABLEAU, false), "model " + t);
+            assertSame(revised, solve(model, SolverOptions.Algorithm.TABLEAU, true), "model " + t);
+        }
+    }
+
+    @Test
+    void zeroCostModelsTerminate() {
+        // 费用全为 0 时目标函数行总是对偶可行, 对偶阶段每一步都退化, 必须改用 Bland 规则才不会循环
+        Random random = new Random(2);
+        for (int t = 0; t < 150; t++) {
+            MathModel model = randomModel(random, 5 + random.nextInt(60), 20 + random.nextInt(121), 9);
+            for (int j = 0; j < model.getObjectiveFunction().getNumVariables(); j++) {
+                model.setObjectiveCoefficient(j, 0);
+            }
+            SimplexResult revised = solve(model, SolverOptions.Algorithm.REVISED, true);
+            assertSame(revised, solve(model, SolverOptions.Algorithm.TABLEAU, false), "model " + t);
+        }
+    }
+
+    @Test
+    void scalingDoesNotChangeTableauResults() {
+        // 行和列乘以不同的 10 的幂, 缩放会明显改变单纯形表中的数值, 但不应改变结果
+        Random random = new Random(3);
+        for (int t = 0; t < 2000; t++) {
+            int n = 2 + random.nextInt(5);
+            int m = 1 + random.nextInt(6);
+            MathModel model = randomModel(random, n, m, 5 + random.nextInt(15));
+            double[] columnFactor = new double[n];
+            for (int j = 0; j < n; j++) {
+                columnFactor[j] = Math.pow(10, random.nextInt(7) - 3);
+                model.setObjectiveCoefficient(j, model.getObjectiveFunction().getCoefficientArray()[j] * columnFactor[j]);
+            }
+            for (int i = 0; i < m; i++) {
+                double rowFactor = Math.pow(10, random.nextInt(7) - 3);
+                for (int j = 0; j < n; j++) {
+                    double value = model.getConstraints().get(i).getCoefficient(j);
+                    model.setCoefficient(i, j, value * rowFactor * columnFactor[j]);
+                }
+                model.setConstant(i, model.getConstraints().get(i).getConstant() * rowFactor);
+            }
+            SimplexResult unscaled = solve(model, SolverOptions.Algorithm.TABLEAU, false);
+            SimplexResult scaled = solve(model, SolverOptions.Algorithm.TABLEAU, true);
+            assertSame(unscaled, scaled, "model " + t);
+            assertSame(solve(model, SolverOptions.Algorithm.REVISED, true), scaled, "model " + t);
+        }
+    }
+
+    static MathModel randomModel(Random random, int n, int m, int range) {
+        MathModel model = new MathModel();
+        model.resize(n, m);
+        model.setOptimizationType(random.nextBoolean() ? "Maximize" : "Minimize");
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                if (random.nextDouble() < 0.7) {
+                    model.setCoefficient(i, j, random.nextInt(2 * range + 1) - range);
+                }
+            }
+            model.setConstant(i, random.nextInt(2 * range + 1) - range / 2);
+            model.setSign(i, SIGNS[random.nextInt(random.nextDouble() < 0.2 ? 3 : 2)]);
+        }
+        for (int j = 0; j < n; j++) {
+            model.setObjectiveCoefficient(j, random.nextInt(2 * range + 1) - range);
+        }
+        return model;
+    }
+
+    static SimplexResult solve(MathModel model, SolverOptions.Algorithm algorithm, boolean scaling) {
+        SolverOptions options = model.getSolverOptions();
+        options.setAlgorithm(algorithm);
+        options.setScaling(scaling);
+        options.setWarmStart(false);
+        return model.optimize();
+    }
+
+    static void assertSame(SimplexResult expected, SimplexResult actual, String message) {
+        assertEquals(expected.getStatus(), actual.getStatus(), message);
+        if (expected.getStatus() == SolveStatus.OPTIMAL) {
+            double value = expected.getObjectiveValue();
+            assertEquals(value, actual.getObjectiveValue(), 1e-6 * (1 + Math.abs(value)), message);
+        }
+    }
+}